@@ -0,0 +1,79 @@
+package geometries;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import primitives.Ray;
+
+/**
+ * Immutable collection of geometries accelerated by a bounding volume hierarchy. Geometries
+ * with bounds are put in a {@link FlatBvh}, unbounded ones (e.g. planes) are tested on every ray.
+ */
+public final class BvhGeometries extends Intersectable {
+    private final Intersectable[] bounded;
+    private final Intersectable[] unbounded;
+    private final FlatBvh bvh;
+
+    /**
+     * Build the hierarchy over the geometries.
+     * @param geometries the geometries, nested collections are intersected as one object
+     */
+    public BvhGeometries(List<? extends Intersectable> geometries) {
+        List<Intersectable> boundedList = new ArrayList<>();
+        List<double[]> boxes = new ArrayList<>();
+        List<Intersectable> unboundedList = new ArrayList<>();
+        for (Intersectable geometry : geometries) {
+            double[] box = geometry.getBounds();
+            if (box == null) {
+                unboundedList.add(geometry);
+            } else {
+                boundedList.add(geometry);
+                boxes.add(box);
+            }
+        }
+        bounded = boundedList.toArray(new Intersectable[0]);
+        unbounded = unboundedList.toArray(new Intersectable[0]);
+
+        double[] flatBoxes = new double[bounded.length * 6];
+        for (int i = 0; i < bounded.length; i++) {
+            System.arraycopy(boxes.get(i), 0, flatBoxes, i * 6, 6);
+        }
+        bvh = FlatBvh.build(flatBoxes, bounded.length, Storage.HEAP);
+    }
+
+    public int getBoundedCount() {
+        return bounded.length;
+    }
+
+    public int getUnboundedCount() {
+        return unbounded.length;
+    }
+
+    /**
+     * @return the bounds of all the geometries, or null if some of them is unbounded
+     */
+    @Override
+    public double[] getBounds() {
+        return unbounded.length > 0 || bounded.length == 0 ? null : bvh.getRootBounds();
+    }
+
+    @Override
+    public List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
+        List<GeoPoint> result = new LinkedList<>();
+        for (Intersectable geometry : unbounded) {
+            List<GeoPoint> points = geometry.findGeoIntersections(ray);
+            if (points != null) {
+                result.addAll(points);
+            }
+        }
+        if (bounded.length > 0) {
+            bvh.traverse(ray, index -> {
+                List<GeoPoint> points = bounded[index].findGeoIntersections(ray);
+                if (points != null) {
+                    result.addAll(points);
+                }
+            });
+        }
+        return result.isEmpty() ? null : result;
+    }
+}
@@ -41,6 +41,19 @@ public class Cylinder extends Tube {
         return height;
     }
 
+    /**
+     * Box around both caps, each cap grown by the radius on all the axes.
+     */
+    @Override
+    public double[] getBounds() {
+        Point p0 = axisRay.getP0();
+        Point p1 = axisRay.getP0(height);
+        return new double[]{Math.min(p0.getX(), p1.getX()) - radius,
+                Math.min(p0.getY(), p1.getY()) - radius, Math.min(p0.getZ(), p1.getZ()) - radius,
+                Math.max(p0.getX(), p1.getX()) + radius, Math.max(p0.getY(), p1.getY()) + radius,
+                Math.max(p0.getZ(), p1.getZ()) + radius};
+    }
+
     @Override
     public Vector getNormal(Point point) {
         Point p0 = axisRay.getP0();
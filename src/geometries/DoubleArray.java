@@ -0,0 +1,60 @@
+package geometries;
+
+import java.nio.DoubleBuffer;
+
+/**
+ * Array of doubles with a long length, held in the chunks of a {@link Storage}. Closing it drops
+ * the chunks, their memory is freed by the garbage collector once no view references them.
+ */
+public final class DoubleArray implements AutoCloseable {
+    private DoubleBuffer[] chunks;
+    private final int shift;
+    private final long mask;
+    private final long length;
+
+    DoubleArray(DoubleBuffer[] chunks, int shift, long length) {
+        this.chunks = chunks;
+        this.shift = shift;
+        this.mask = (1L << shift) - 1;
+        this.length = length;
+    }
+
+    /**
+     * View a buffer as an array, e.g. a mapped file. Closing the array only drops the view.
+     * @param buffer the elements from its position to its limit
+     * @return the array
+     */
+    public static DoubleArray wrap(DoubleBuffer buffer) {
+        DoubleBuffer chunk = buffer.slice();
+        return new DoubleArray(new DoubleBuffer[]{chunk}, Integer.SIZE - 1, chunk.capacity());
+    }
+
+    public long length() {
+        return length;
+    }
+
+    public double get(long index) {
+        return chunks[(int) (index >>> shift)].get((int) (index & mask));
+    }
+
+    void put(long index, double value) {
+        chunks[(int) (index >>> shift)].put((int) (index & mask), value);
+    }
+
+    /**
+     * Get the chunks of the array, all of them full but the last.
+     * @return read only views of the chunks, in order
+     */
+    public DoubleBuffer[] getChunks() {
+        DoubleBuffer[] result = new DoubleBuffer[chunks.length];
+        for (int i = 0; i < chunks.length; i++) {
+            result[i] = chunks[i].asReadOnlyBuffer();
+        }
+        return result;
+    }
+
+    @Override
+    public void close() {
+        chunks = null;
+    }
+}
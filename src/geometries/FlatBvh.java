@@ -0,0 +1,290 @@
+package geometries;
+
+import java.nio.DoubleBuffer;
+import java.util.function.IntConsumer;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+/**
+ * Bounding volume hierarchy flattened into three primitive arrays, so it can live on or off
+ * the Java heap.
+ * <ul>
+ * <li>bounds - 6 doubles per node: min x, y, z and max x, y, z</li>
+ * <li>nodes - 2 ints per node: the first primitive and the primitive count of a leaf, or the
+ * left child and 0 for an inner node (the right child always follows the left one)</li>
+ * <li>order - the primitive indexes ordered by the leaves</li>
+ * </ul>
+ */
+public final class FlatBvh implements AutoCloseable {
+    private static final int LEAF_SIZE = 4;
+    private static final int STACK_SIZE = 64;
+
+    private final DoubleArray bounds;
+    private final IntArray nodes;
+    private final IntArray order;
+
+    /**
+     * Wrap arrays of a hierarchy that was already built.
+     * @param bounds node bounds, 6 doubles per node
+     * @param nodes node links, 2 ints per node
+     * @param order the primitive indexes ordered by the leaves
+     */
+    public FlatBvh(DoubleArray bounds, IntArray nodes, IntArray order) {
+        if (bounds.length() != nodes.length() * 3) {
+            throw new IllegalArgumentException("ERROR: bounds and nodes don't match");
+        }
+        this.bounds = bounds;
+        this.nodes = nodes;
+        this.order = order;
+    }
+
+    /**
+     * Build a hierarchy by median splits over the longest axis of the primitive centroids.
+     * @param boxes the primitive bounding boxes, 6 doubles per primitive (min xyz, max xyz)
+     * @param count amount of primitives
+     * @param storage where to keep the built arrays
+     * @return the new hierarchy
+     */
+    public static FlatBvh build(double[] boxes, int count, Storage storage) {
+        return build(DoubleArray.wrap(DoubleBuffer.wrap(boxes)), count, storage);
+    }
+
+    /**
+     * Build a hierarchy by median splits over the longest axis of the primitive centroids. The
+     * work arrays are taken from the storage too, so an off-heap build needs no big heap arrays.
+     * @param boxes the primitive bounding boxes, 6 doubles per primitive (min xyz, max xyz)
+     * @param count amount of primitives
+     * @param storage where to keep the built arrays
+     * @return the new hierarchy
+     */
+    public static FlatBvh build(DoubleArray boxes, int count, Storage storage) {
+        IntArray indexes = storage.allocateInts(Math.max(1, count));
+        /* Splits leave at least 2 primitives per leaf, so there are fewer nodes than primitives */
+        int capacity = Math.max(1, count);
+        try (DoubleArray centroids = storage.allocateDoubles(count * 3L);
+             DoubleArray nodeBounds = storage.allocateDoubles(capacity * 6L);
+             IntArray nodeLinks = storage.allocateInts(capacity * 2L)) {
+            for (int i = 0; i < count; i++) {
+                indexes.put(i, i);
+                for (int axis = 0; axis < 3; axis++) {
+                    centroids.put(i * 3L + axis,
+                            (boxes.get(i * 6L + axis) + boxes.get(i * 6L + axis + 3)) / 2);
+                }
+            }
+
+            int nodesCount = 1;
+            /* Work items of (node, start, end) */
+            int[] stack = new int[STACK_SIZE * 3];
+            int top = 0;
+            stack[top++] = 0;
+            stack[top++] = 0;
+            stack[top++] = count;
+
+            while (top > 0) {
+                int end = stack[--top];
+                int start = stack[--top];
+                int node = stack[--top];
+
+                /* Bounds of the node and of the centroids inside it */
+                double[] box = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+                        Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY,
+                        Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+                double[] centroidBox = box.clone();
+                for (int i = start; i < end; i++) {
+                    long primitive = indexes.get(i);
+                    for (int axis = 0; axis < 3; axis++) {
+                        box[axis] = Math.min(box[axis], boxes.get(primitive * 6 + axis));
+                        box[axis + 3] = Math.max(box[axis + 3], boxes.get(primitive * 6 + axis + 3));
+                        double centroid = centroids.get(primitive * 3 + axis);
+                        centroidBox[axis] = Math.min(centroidBox[axis], centroid);
+                        centroidBox[axis + 3] = Math.max(centroidBox[axis + 3], centroid);
+                    }
+                }
+                for (int i = 0; i < 6; i++) {
+                    nodeBounds.put(node * 6L + i, box[i]);
+                }
+
+                int axis = 0;
+                for (int i = 1; i < 3; i++) {
+                    if (centroidBox[i + 3] - centroidBox[i] > centroidBox[axis + 3] - centroidBox[axis]) {
+                        axis = i;
+                    }
+                }
+                /* Small nodes, or nodes whose centroids can't be separated, become leaves */
+                if (end - start <= LEAF_SIZE || !(centroidBox[axis + 3] > centroidBox[axis])) {
+                    nodeLinks.put(node * 2L, start);
+                    nodeLinks.put(node * 2L + 1, end - start);
+                    continue;
+                }
+
+                int middle = (start + end) >>> 1;
+                select(indexes, centroids, axis, start, end - 1, middle);
+                int left = nodesCount;
+                nodesCount += 2;
+                nodeLinks.put(node * 2L, left);
+                nodeLinks.put(node * 2L + 1, 0);
+                stack[top++] = left;
+                stack[top++] = start;
+                stack[top++] = middle;
+                stack[top++] = left + 1;
+                stack[top++] = middle;
+                stack[top++] = end;
+            }
+
+            DoubleArray bounds = storage.allocateDoubles(nodesCount * 6L);
+            for (long i = 0; i < bounds.length(); i++) {
+                bounds.put(i, nodeBounds.get(i));
+            }
+            IntArray nodes = storage.allocateInts(nodesCount * 2L);
+            for (long i = 0; i < nodes.length(); i++) {
+                nodes.put(i, nodeLinks.get(i));
+            }
+            return new FlatBvh(bounds, nodes, indexes);
+        } catch (RuntimeException e) {
+            indexes.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Partially sort the indexes so the one at position k is in place by its centroid on the
+     * axis, all smaller before it and all bigger after it.
+     */
+    private static void select(IntArray indexes, DoubleArray centroids, int axis, int low,
+                               int high, int k) {
+        while (low < high) {
+            double pivot = centroids.get(indexes.get((low + high) >>> 1) * 3L + axis);
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (centroids.get(indexes.get(i) * 3L + axis) < pivot) {
+                    i++;
+                }
+                while (centroids.get(indexes.get(j) * 3L + axis) > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    int temp = indexes.get(i);
+                    indexes.put(i++, indexes.get(j));
+                    indexes.put(j--, temp);
+                }
+            }
+            if (k <= j) {
+                high = j;
+            } else if (k >= i) {
+                low = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    public DoubleArray getBounds() {
+        return bounds;
+    }
+
+    public IntArray getNodes() {
+        return nodes;
+    }
+
+    public IntArray getOrder() {
+        return order;
+    }
+
+    /**
+     * Get the bounds of the whole hierarchy.
+     * @return min x, y, z and max x, y, z of the root node
+     */
+    public double[] getRootBounds() {
+        double[] result = new double[6];
+        for (int i = 0; i < 6; i++) {
+            result[i] = bounds.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Visitor of the leaves hit by a ray.
+     */
+    @FunctionalInterface
+    public interface LeafVisitor {
+        /**
+         * Called once per leaf whose box is hit.
+         * @param first position of the first primitive of the leaf in the order buffer
+         * @param count amount of primitives in the leaf
+         */
+        void accept(int first, int count);
+    }
+
+    /**
+     * Visit every primitive whose leaf box is hit by the ray.
+     * @param ray the ray
+     * @param visitor called with the index of each candidate primitive
+     */
+    public void traverse(Ray ray, IntConsumer visitor) {
+        traverseLeaves(ray, (first, count) -> {
+            for (int i = first; i < first + count; i++) {
+                visitor.accept(order.get(i));
+            }
+        });
+    }
+
+    /**
+     * Visit every leaf whose box is hit by the ray, so primitives that are stored in the order
+     * of the leaves can be tested together.
+     * @param ray the ray
+     * @param visitor called with the range of each hit leaf
+     */
+    public void traverseLeaves(Ray ray, LeafVisitor visitor) {
+        Point p0 = ray.getP0();
+        Vector dir = ray.getDir();
+        double[] origin = {p0.getX(), p0.getY(), p0.getZ()};
+        double[] inverse = {1 / dir.getX(), 1 / dir.getY(), 1 / dir.getZ()};
+        int[] stack = new int[STACK_SIZE];
+        int top = 0;
+        stack[top++] = 0;
+
+        while (top > 0) {
+            int node = stack[--top];
+            if (!hitsBox(node, origin, inverse)) {
+                continue;
+            }
+            int first = nodes.get(node * 2L);
+            int count = nodes.get(node * 2L + 1);
+            /* Children are never at index 0, so an empty root leaf isn't mistaken for one */
+            if (count == 0 && first > 0) {
+                stack[top++] = first;
+                stack[top++] = first + 1;
+            } else if (count > 0) {
+                visitor.accept(first, count);
+            }
+        }
+    }
+
+    /**
+     * Slab test of the ray against the box of a node. Degenerate cases (NaN) count as a hit,
+     * since the primitives themselves are tested right after.
+     */
+    private boolean hitsBox(int node, double[] origin, double[] inverse) {
+        double near = Double.NEGATIVE_INFINITY;
+        double far = Double.POSITIVE_INFINITY;
+        for (int axis = 0; axis < 3; axis++) {
+            double t1 = (bounds.get(node * 6L + axis) - origin[axis]) * inverse[axis];
+            double t2 = (bounds.get(node * 6L + axis + 3) - origin[axis]) * inverse[axis];
+            near = Math.max(near, Math.min(t1, t2));
+            far = Math.min(far, Math.max(t1, t2));
+        }
+        return !(far < Math.max(near, 0));
+    }
+
+    /**
+     * Release the arrays of the hierarchy, see {@link DoubleArray#close()}.
+     */
+    @Override
+    public void close() {
+        bounds.close();
+        nodes.close();
+        order.close();
+    }
+}
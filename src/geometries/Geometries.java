@@ -3,12 +3,13 @@ package geometries;
 import primitives.Ray;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
-public class Geometries extends Intersectable {
+public class Geometries extends Intersectable implements AutoCloseable {
 
     private final List<Intersectable> geometries;
 
@@ -28,6 +29,53 @@ public class Geometries extends Intersectable {
         this.geometries.addAll(Arrays.asList(geometries));
     }
 
+    /**
+     * Get the geometries in the collection.
+     * @return read only view of the geometries
+     */
+    public List<Intersectable> getGeometries() {
+        return Collections.unmodifiableList(geometries);
+    }
+
+    /**
+     * Union of the bounds of all the geometries.
+     * @return the bounds, or null if the collection is empty or has an unbounded geometry
+     */
+    @Override
+    public double[] getBounds() {
+        if (geometries.isEmpty()) {
+            return null;
+        }
+        double[] bounds = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+                Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY,
+                Double.NEGATIVE_INFINITY};
+        for (Intersectable item : geometries) {
+            double[] itemBounds = item.getBounds();
+            if (itemBounds == null) {
+                return null;
+            }
+            for (int axis = 0; axis < 3; axis++) {
+                bounds[axis] = Math.min(bounds[axis], itemBounds[axis]);
+                bounds[axis + 3] = Math.max(bounds[axis + 3], itemBounds[axis + 3]);
+            }
+        }
+        return bounds;
+    }
+
+    /**
+     * Release the buffers of all the meshes in the collection, nested collections included.
+     */
+    @Override
+    public void close() {
+        for (Intersectable item : geometries) {
+            if (item instanceof Mesh mesh) {
+                mesh.close();
+            } else if (item instanceof Geometries group) {
+                group.close();
+            }
+        }
+    }
+
     @Override
     public List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
         List<GeoPoint> result = new LinkedList<>();
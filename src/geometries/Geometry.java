@@ -11,6 +11,16 @@ public abstract class Geometry extends Intersectable {
 
     public abstract Vector getNormal(Point point);
 
+    /**
+     * Get the normal at an intersection point, compound geometries use the primitive that was
+     * hit instead of searching for it.
+     * @param geoPoint intersection point on the geometry
+     * @return the normal at the point
+     */
+    public Vector getNormal(GeoPoint geoPoint) {
+        return getNormal(geoPoint.point);
+    }
+
     public Color getEmission() {
         return emission;
     }
@@ -24,6 +34,15 @@ public abstract class Geometry extends Intersectable {
         return material;
     }
 
+    /**
+     * Get the material of a primitive inside the geometry, simple geometries have one material.
+     * @param primitive index of the primitive
+     * @return the material of the primitive
+     */
+    public Material getMaterial(int primitive) {
+        return material;
+    }
+
     public Geometry setMaterial(Material material) {
         this.material = material;
         return this;
@@ -0,0 +1,60 @@
+package geometries;
+
+import java.nio.IntBuffer;
+
+/**
+ * Array of ints with a long length, held in the chunks of a {@link Storage}. Closing it drops
+ * the chunks, their memory is freed by the garbage collector once no view references them.
+ */
+public final class IntArray implements AutoCloseable {
+    private IntBuffer[] chunks;
+    private final int shift;
+    private final long mask;
+    private final long length;
+
+    IntArray(IntBuffer[] chunks, int shift, long length) {
+        this.chunks = chunks;
+        this.shift = shift;
+        this.mask = (1L << shift) - 1;
+        this.length = length;
+    }
+
+    /**
+     * View a buffer as an array, e.g. a mapped file. Closing the array only drops the view.
+     * @param buffer the elements from its position to its limit
+     * @return the array
+     */
+    public static IntArray wrap(IntBuffer buffer) {
+        IntBuffer chunk = buffer.slice();
+        return new IntArray(new IntBuffer[]{chunk}, Integer.SIZE - 1, chunk.capacity());
+    }
+
+    public long length() {
+        return length;
+    }
+
+    public int get(long index) {
+        return chunks[(int) (index >>> shift)].get((int) (index & mask));
+    }
+
+    void put(long index, int value) {
+        chunks[(int) (index >>> shift)].put((int) (index & mask), value);
+    }
+
+    /**
+     * Get the chunks of the array, all of them full but the last.
+     * @return read only views of the chunks, in order
+     */
+    public IntBuffer[] getChunks() {
+        IntBuffer[] result = new IntBuffer[chunks.length];
+        for (int i = 0; i < chunks.length; i++) {
+            result[i] = chunks[i].asReadOnlyBuffer();
+        }
+        return result;
+    }
+
+    @Override
+    public void close() {
+        chunks = null;
+    }
+}
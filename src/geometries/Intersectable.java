@@ -1,5 +1,6 @@
 package geometries;
 
+import primitives.Material;
 import primitives.Point;
 import primitives.Ray;
 
@@ -44,18 +45,35 @@ public abstract class Intersectable {
     }
 
 
+    /**
+     * Get an axis aligned box that bounds the object, used to build acceleration structures.
+     * @return min x, y, z and max x, y, z of the box, or null if the object is unbounded
+     */
+    public double[] getBounds() {
+        return null;
+    }
+
     /**
      * GeoPoint contains the geometry and the point on the geometry.
      */
     public static class GeoPoint {
         public Geometry geometry;
         public Point point;
+        /**
+         * Index of the primitive that was hit inside a compound geometry (e.g. a mesh triangle).
+         */
+        public int primitive;
 
         public GeoPoint(Geometry geometry, Point point) {
             this.geometry = geometry;
             this.point = point;
         }
 
+        public GeoPoint(Geometry geometry, Point point, int primitive) {
+            this(geometry, point);
+            this.primitive = primitive;
+        }
+
         public Geometry getGeometry() {
             return geometry;
         }
@@ -65,6 +83,14 @@ public abstract class Intersectable {
             return this;
         }
 
+        /**
+         * Get the material at the point, by the primitive that was hit.
+         * @return the material at the point
+         */
+        public Material getMaterial() {
+            return geometry.getMaterial(primitive);
+        }
+
         public Point getPoint() {
             return point;
         }
@@ -0,0 +1,429 @@
+package geometries;
+
+import static primitives.Util.alignZero;
+import static primitives.Util.isZero;
+
+import java.util.LinkedList;
+import java.util.List;
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+/**
+ * Triangle mesh stored as flat vertex and index arrays with its own bounding volume hierarchy.
+ * The arrays can be kept off the Java heap (see {@link Storage}), intersection reads them
+ * directly without creating a {@link Triangle} per face. Meshes too big for the heap are filled
+ * by a {@link Builder}.
+ */
+public class Mesh extends Geometry implements AutoCloseable {
+
+    private DoubleArray vertices;
+    private IntArray indices;
+    private FlatBvh bvh;
+    private final int trianglesCount;
+    private Material[] materials;
+    private short[] triangleMaterials;
+
+    /**
+     * Create a mesh on the Java heap.
+     * @param vertices x, y, z of every vertex
+     * @param indices 3 vertex indexes per triangle
+     * @throws IllegalArgumentException if the arrays don't describe triangles
+     */
+    public Mesh(double[] vertices, int[] indices) {
+        this(vertices, indices, Storage.HEAP);
+    }
+
+    /**
+     * Create a mesh.
+     * @param vertices x, y, z of every vertex
+     * @param indices 3 vertex indexes per triangle
+     * @param storage where to keep the mesh arrays and its hierarchy
+     * @throws IllegalArgumentException if the arrays don't describe triangles
+     */
+    public Mesh(double[] vertices, int[] indices, Storage storage) {
+        this(fill(vertices, indices, storage));
+    }
+
+    private static Builder fill(double[] vertices, int[] indices, Storage storage) {
+        if (vertices.length % 3 != 0 || indices.length % 3 != 0 || indices.length == 0) {
+            throw new IllegalArgumentException("ERROR: Mesh needs xyz vertices and triangle indexes");
+        }
+        Builder builder = new Builder(vertices.length / 3, indices.length / 3, storage);
+        try {
+            for (int i = 0; i < vertices.length; i += 3) {
+                builder.addVertex(vertices[i], vertices[i + 1], vertices[i + 2]);
+            }
+            for (int i = 0; i < indices.length; i += 3) {
+                builder.addTriangle(indices[i], indices[i + 1], indices[i + 2]);
+            }
+        } catch (IllegalArgumentException e) {
+            builder.discard();
+            throw e;
+        }
+        return builder;
+    }
+
+    /**
+     * Create the mesh of a full builder and build its hierarchy, the work arrays of the build are
+     * taken from the builder storage.
+     */
+    private Mesh(Builder builder) {
+        if (builder.vertices == null) {
+            throw new IllegalStateException("ERROR: The mesh was already built");
+        }
+        if (builder.verticesAdded < builder.vertices.length() / 3
+                || builder.indicesAdded < builder.indices.length()) {
+            throw new IllegalStateException("ERROR: Mesh builder is missing vertices or triangles");
+        }
+        vertices = builder.vertices;
+        indices = builder.indices;
+        builder.vertices = null;
+        builder.indices = null;
+        trianglesCount = (int) (indices.length() / 3);
+
+        try (DoubleArray boxes = builder.storage.allocateDoubles(trianglesCount * 6L)) {
+            for (int triangle = 0; triangle < trianglesCount; triangle++) {
+                for (int axis = 0; axis < 3; axis++) {
+                    double min = Double.POSITIVE_INFINITY;
+                    double max = Double.NEGATIVE_INFINITY;
+                    for (int corner = 0; corner < 3; corner++) {
+                        double value = vertices.get(indices.get(triangle * 3L + corner) * 3L + axis);
+                        min = Math.min(min, value);
+                        max = Math.max(max, value);
+                    }
+                    boxes.put(triangle * 6L + axis, min);
+                    boxes.put(triangle * 6L + axis + 3, max);
+                }
+            }
+            bvh = FlatBvh.build(boxes, trianglesCount, builder.storage);
+        }
+    }
+
+    /**
+     * Wrap arrays of a mesh that was prepared before, e.g. mapped from a scene cache file.
+     * @param vertices x, y, z of every vertex
+     * @param indices 3 vertex indexes per triangle
+     * @param bvh hierarchy built over the triangles
+     * @throws IllegalArgumentException if the arrays don't describe triangles
+     */
+    public Mesh(DoubleArray vertices, IntArray indices, FlatBvh bvh) {
+        if (vertices.length() % 3 != 0 || indices.length() % 3 != 0 || indices.length() == 0
+                || indices.length() / 3 > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("ERROR: Mesh needs xyz vertices and triangle indexes");
+        }
+        this.vertices = vertices;
+        this.indices = indices;
+        this.bvh = bvh;
+        trianglesCount = (int) (indices.length() / 3);
+    }
+
+    public DoubleArray getVertices() {
+        checkNotClosed();
+        return vertices;
+    }
+
+    public IntArray getIndices() {
+        checkNotClosed();
+        return indices;
+    }
+
+    public FlatBvh getBvh() {
+        checkNotClosed();
+        return bvh;
+    }
+
+    /**
+     * Give every triangle its own material, by a compact index into a palette of materials.
+     * @param materials the palette
+     * @param triangleMaterials index into the palette per triangle
+     * @return the mesh itself
+     * @throws IllegalArgumentException if there isn't an index per triangle or an index is out of
+     *     the palette range
+     */
+    public Mesh setMaterials(Material[] materials, short[] triangleMaterials) {
+        if (triangleMaterials.length != trianglesCount) {
+            throw new IllegalArgumentException("ERROR: Mesh needs a material index per triangle");
+        }
+        for (short index : triangleMaterials) {
+            if (index < 0 || index >= materials.length) {
+                throw new IllegalArgumentException("ERROR: Material index out of the palette range");
+            }
+        }
+        this.materials = materials.clone();
+        this.triangleMaterials = triangleMaterials;
+        return this;
+    }
+
+    /**
+     * Get the palette of the per triangle materials.
+     * @return the palette, or null if all the triangles use the mesh material
+     */
+    public Material[] getMaterials() {
+        return materials;
+    }
+
+    /**
+     * Get the per triangle indexes into the palette.
+     * @return the indexes, or null if all the triangles use the mesh material
+     */
+    public short[] getTriangleMaterials() {
+        return triangleMaterials;
+    }
+
+    @Override
+    public Material getMaterial(int primitive) {
+        return materials == null ? getMaterial() : materials[triangleMaterials[primitive]];
+    }
+
+    public int getTrianglesCount() {
+        return trianglesCount;
+    }
+
+    /**
+     * Check whether the buffers of the mesh were already released.
+     * @return true if the mesh is closed
+     */
+    public boolean isClosed() {
+        return vertices == null;
+    }
+
+    /**
+     * Release the mesh arrays, the mesh can't be intersected afterwards. Off-heap memory is
+     * given back by the garbage collector once no array or view references it, so renders still
+     * reading the mesh never touch freed memory.
+     */
+    @Override
+    public void close() {
+        if (isClosed()) {
+            return;
+        }
+        DoubleArray closedVertices = vertices;
+        vertices = null;
+        closedVertices.close();
+        indices.close();
+        bvh.close();
+        indices = null;
+        bvh = null;
+    }
+
+    private void checkNotClosed() {
+        if (isClosed()) {
+            throw new IllegalStateException("ERROR: The mesh was closed");
+        }
+    }
+
+    /**
+     * Get the unit normal of a triangle, by the order of its vertices.
+     * @param triangle index of the triangle
+     * @return the normal of the triangle
+     */
+    public Vector getNormal(int triangle) {
+        checkNotClosed();
+        double[] corners = corners(triangle);
+        Vector edge1 = new Vector(corners[3] - corners[0], corners[4] - corners[1],
+                corners[5] - corners[2]);
+        Vector edge2 = new Vector(corners[6] - corners[0], corners[7] - corners[1],
+                corners[8] - corners[2]);
+        return edge1.crossProduct(edge2).normalize();
+    }
+
+    @Override
+    public double[] getBounds() {
+        checkNotClosed();
+        return bvh.getRootBounds();
+    }
+
+    @Override
+    public Vector getNormal(GeoPoint geoPoint) {
+        return getNormal(geoPoint.primitive);
+    }
+
+    /**
+     * Find the triangle that contains the point and return its normal. Prefer
+     * {@link #getNormal(GeoPoint)}, which doesn't search.
+     * @throws IllegalArgumentException if the point isn't on the mesh
+     */
+    @Override
+    public Vector getNormal(Point point) {
+        checkNotClosed();
+        for (int triangle = 0; triangle < trianglesCount; triangle++) {
+            Vector normal = getNormal(triangle);
+            double[] corners = corners(triangle);
+            Point corner = new Point(corners[0], corners[1], corners[2]);
+            if (point.equals(corner) || isZero(point.subtract(corner).dotProduct(normal))) {
+                Ray probe = new Ray(point.add(normal), normal.scale(-1));
+                if (!Double.isNaN(intersect(triangle, probe))) {
+                    return normal;
+                }
+            }
+        }
+        throw new IllegalArgumentException("ERROR: The point isn't on the mesh");
+    }
+
+    @Override
+    public List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
+        checkNotClosed();
+        List<GeoPoint> result = new LinkedList<>();
+        bvh.traverse(ray, triangle -> {
+            double t = intersect(triangle, ray);
+            if (!Double.isNaN(t)) {
+                result.add(new GeoPoint(this, ray.getP0(t), triangle));
+            }
+        });
+        return result.isEmpty() ? null : result;
+    }
+
+    /**
+     * Read the 9 coordinates of the triangle corners from the buffers.
+     */
+    private double[] corners(int triangle) {
+        double[] corners = new double[9];
+        for (int corner = 0; corner < 3; corner++) {
+            long vertex = indices.get(triangle * 3L + corner) * 3L;
+            corners[corner * 3] = vertices.get(vertex);
+            corners[corner * 3 + 1] = vertices.get(vertex + 1);
+            corners[corner * 3 + 2] = vertices.get(vertex + 2);
+        }
+        return corners;
+    }
+
+    /**
+     * Moller-Trumbore ray-triangle test on the raw coordinates, edges included so neighbouring
+     * triangles leave no cracks.
+     * @return the distance on the ray, or NaN if there is no intersection
+     */
+    private double intersect(int triangle, Ray ray) {
+        long a = indices.get(triangle * 3L) * 3L;
+        long b = indices.get(triangle * 3L + 1) * 3L;
+        long c = indices.get(triangle * 3L + 2) * 3L;
+        double ax = vertices.get(a), ay = vertices.get(a + 1), az = vertices.get(a + 2);
+        double e1x = vertices.get(b) - ax, e1y = vertices.get(b + 1) - ay,
+                e1z = vertices.get(b + 2) - az;
+        double e2x = vertices.get(c) - ax, e2y = vertices.get(c + 1) - ay,
+                e2z = vertices.get(c + 2) - az;
+        Vector dir = ray.getDir();
+        Point p0 = ray.getP0();
+        double dx = dir.getX(), dy = dir.getY(), dz = dir.getZ();
+
+        /* p = dir x e2 */
+        double px = dy * e2z - dz * e2y, py = dz * e2x - dx * e2z, pz = dx * e2y - dy * e2x;
+        double det = e1x * px + e1y * py + e1z * pz;
+        if (isZero(det)) {
+            return Double.NaN;
+        }
+        double inverse = 1 / det;
+        double sx = p0.getX() - ax, sy = p0.getY() - ay, sz = p0.getZ() - az;
+        double u = (sx * px + sy * py + sz * pz) * inverse;
+        if (u < 0 || u > 1) {
+            return Double.NaN;
+        }
+        /* q = s x e1 */
+        double qx = sy * e1z - sz * e1y, qy = sz * e1x - sx * e1z, qz = sx * e1y - sy * e1x;
+        double v = (dx * qx + dy * qy + dz * qz) * inverse;
+        if (v < 0 || u + v > 1) {
+            return Double.NaN;
+        }
+        double t = alignZero((e2x * qx + e2y * qy + e2z * qz) * inverse);
+        return t > 0 ? t : Double.NaN;
+    }
+
+    /**
+     * Fills the arrays of a mesh vertex by vertex and triangle by triangle, e.g. while reading a
+     * model file, so the mesh never needs whole arrays on the heap.
+     */
+    public static final class Builder {
+        private final Storage storage;
+        private DoubleArray vertices;
+        private IntArray indices;
+        private int verticesAdded;
+        private long indicesAdded;
+
+        /**
+         * Allocate the arrays of the mesh.
+         * @param verticesCount amount of vertices
+         * @param trianglesCount amount of triangles
+         * @param storage where to keep the mesh arrays and its hierarchy
+         * @throws IllegalArgumentException if a count isn't positive
+         */
+        public Builder(int verticesCount, int trianglesCount, Storage storage) {
+            if (verticesCount <= 0 || trianglesCount <= 0) {
+                throw new IllegalArgumentException("ERROR: Mesh needs vertices and triangles");
+            }
+            this.storage = storage;
+            vertices = storage.allocateDoubles(verticesCount * 3L);
+            indices = storage.allocateInts(trianglesCount * 3L);
+        }
+
+        /**
+         * Add the next vertex.
+         * @return the builder itself
+         * @throws IllegalStateException if all the vertices were added or the mesh was built
+         */
+        public Builder addVertex(double x, double y, double z) {
+            checkNotBuilt();
+            if (verticesAdded == vertices.length() / 3) {
+                throw new IllegalStateException("ERROR: All the mesh vertices were added");
+            }
+            long position = verticesAdded++ * 3L;
+            vertices.put(position, x);
+            vertices.put(position + 1, y);
+            vertices.put(position + 2, z);
+            return this;
+        }
+
+        /**
+         * Add the next triangle, its vertices may be added later.
+         * @param a index of the first vertex
+         * @param b index of the second vertex
+         * @param c index of the third vertex
+         * @return the builder itself
+         * @throws IllegalArgumentException if an index is out of the vertices range
+         * @throws IllegalStateException if all the triangles were added or the mesh was built
+         */
+        public Builder addTriangle(int a, int b, int c) {
+            checkNotBuilt();
+            if (indicesAdded == indices.length()) {
+                throw new IllegalStateException("ERROR: All the mesh triangles were added");
+            }
+            long verticesCount = vertices.length() / 3;
+            if (a < 0 || a >= verticesCount || b < 0 || b >= verticesCount
+                    || c < 0 || c >= verticesCount) {
+                throw new IllegalArgumentException("ERROR: Mesh index out of the vertices range");
+            }
+            indices.put(indicesAdded++, a);
+            indices.put(indicesAdded++, b);
+            indices.put(indicesAdded++, c);
+            return this;
+        }
+
+        /**
+         * Build the mesh and its hierarchy, the mesh takes over the arrays of the builder.
+         * @return the new mesh
+         * @throws IllegalStateException if not all the vertices and triangles were added, or the
+         *     mesh was already built
+         */
+        public Mesh build() {
+            return new Mesh(this);
+        }
+
+        /**
+         * Release the arrays without building the mesh.
+         */
+        public void discard() {
+            if (vertices != null) {
+                vertices.close();
+                indices.close();
+                vertices = null;
+                indices = null;
+            }
+        }
+
+        private void checkNotBuilt() {
+            if (vertices == null) {
+                throw new IllegalStateException("ERROR: The mesh was already built");
+            }
+        }
+    }
+}
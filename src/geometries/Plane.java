@@ -49,6 +49,10 @@ public class Plane extends Geometry {
         normal = v1.crossProduct(v2).normalize();
     }
 
+    public Point getP0() {
+        return p0;
+    }
+
     /**
      * Returns the normal vector of the plane.
      *
@@ -100,6 +100,25 @@ public class Polygon extends Geometry {
         size = vertices.length;
     }
 
+    public List<Point> getVertices() {
+        return vertices;
+    }
+
+    @Override
+    public double[] getBounds() {
+        double[] bounds = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+                Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY,
+                Double.NEGATIVE_INFINITY};
+        for (Point vertex : vertices) {
+            double[] xyz = {vertex.getX(), vertex.getY(), vertex.getZ()};
+            for (int axis = 0; axis < 3; axis++) {
+                bounds[axis] = Math.min(bounds[axis], xyz[axis]);
+                bounds[axis + 3] = Math.max(bounds[axis + 3], xyz[axis]);
+            }
+        }
+        return bounds;
+    }
+
     @Override
     public Vector getNormal(Point point) {
         return plane.getNormal();
@@ -30,6 +30,12 @@ public class Sphere extends Geometry {
         return radius;
     }
 
+    @Override
+    public double[] getBounds() {
+        return new double[]{center.getX() - radius, center.getY() - radius, center.getZ() - radius,
+                center.getX() + radius, center.getY() + radius, center.getZ() + radius};
+    }
+
     @Override
     public Vector getNormal(Point point) {
         return point.subtract(center).normalize();
@@ -0,0 +1,212 @@
+package geometries;
+
+import static primitives.Util.alignZero;
+import static primitives.Util.isZero;
+
+import java.util.LinkedList;
+import java.util.List;
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+/**
+ * Large set of spheres, e.g. a point cloud, kept as parallel arrays of coordinates and radii
+ * with its own bounding volume hierarchy instead of a {@link Sphere} object per point.
+ * The spheres are stored in the order of the hierarchy leaves, so the spheres of a leaf are
+ * tested together by a tight loop over the arrays. The public methods use the indexes of the
+ * spheres as given to the constructor, {@link GeoPoint#primitive} is the stored position.
+ */
+public class SphereSet extends Geometry {
+
+    private final double[] centerX;
+    private final double[] centerY;
+    private final double[] centerZ;
+    private final double[] radii;
+    private final FlatBvh bvh;
+    private Material[] materials;
+    private short[] sphereMaterials;
+
+    /**
+     * Create the set.
+     * @param centers x, y, z of every sphere center
+     * @param radii radius of every sphere
+     * @throws IllegalArgumentException if there isn't a positive radius per center
+     */
+    public SphereSet(double[] centers, double[] radii) {
+        if (centers.length % 3 != 0 || centers.length / 3 != radii.length || radii.length == 0) {
+            throw new IllegalArgumentException("ERROR: SphereSet needs xyz and radius per sphere");
+        }
+        int count = radii.length;
+        double[] boxes = new double[count * 6];
+        for (int i = 0; i < count; i++) {
+            if (!(radii[i] > 0)) {
+                throw new IllegalArgumentException("ERROR: Sphere radius must be positive");
+            }
+            for (int axis = 0; axis < 3; axis++) {
+                boxes[i * 6 + axis] = centers[i * 3 + axis] - radii[i];
+                boxes[i * 6 + axis + 3] = centers[i * 3 + axis] + radii[i];
+            }
+        }
+        bvh = FlatBvh.build(boxes, count, Storage.HEAP);
+
+        centerX = new double[count];
+        centerY = new double[count];
+        centerZ = new double[count];
+        this.radii = new double[count];
+        IntArray order = bvh.getOrder();
+        for (int position = 0; position < count; position++) {
+            int sphere = order.get(position);
+            centerX[position] = centers[sphere * 3];
+            centerY[position] = centers[sphere * 3 + 1];
+            centerZ[position] = centers[sphere * 3 + 2];
+            this.radii[position] = radii[sphere];
+        }
+    }
+
+    public int getCount() {
+        return radii.length;
+    }
+
+    /**
+     * Get the centers by the order they were given.
+     * @return x, y, z of every sphere center
+     */
+    public double[] getCenters() {
+        double[] result = new double[radii.length * 3];
+        IntArray order = bvh.getOrder();
+        for (int position = 0; position < radii.length; position++) {
+            int sphere = order.get(position);
+            result[sphere * 3] = centerX[position];
+            result[sphere * 3 + 1] = centerY[position];
+            result[sphere * 3 + 2] = centerZ[position];
+        }
+        return result;
+    }
+
+    /**
+     * Get the radii by the order they were given.
+     * @return radius of every sphere
+     */
+    public double[] getRadii() {
+        double[] result = new double[radii.length];
+        IntArray order = bvh.getOrder();
+        for (int position = 0; position < radii.length; position++) {
+            result[order.get(position)] = radii[position];
+        }
+        return result;
+    }
+
+    /**
+     * Give every sphere its own material, by a compact index into a palette of materials.
+     * @param materials the palette
+     * @param sphereMaterials index into the palette per sphere
+     * @return the set itself
+     * @throws IllegalArgumentException if there isn't an index per sphere or an index is out of
+     *     the palette range
+     */
+    public SphereSet setMaterials(Material[] materials, short[] sphereMaterials) {
+        if (sphereMaterials.length != radii.length) {
+            throw new IllegalArgumentException("ERROR: SphereSet needs a material index per sphere");
+        }
+        short[] stored = new short[radii.length];
+        IntArray order = bvh.getOrder();
+        for (int position = 0; position < radii.length; position++) {
+            short index = sphereMaterials[order.get(position)];
+            if (index < 0 || index >= materials.length) {
+                throw new IllegalArgumentException("ERROR: Material index out of the palette range");
+            }
+            stored[position] = index;
+        }
+        this.materials = materials.clone();
+        this.sphereMaterials = stored;
+        return this;
+    }
+
+    /**
+     * Get the palette of the per sphere materials.
+     * @return the palette, or null if all the spheres use the set material
+     */
+    public Material[] getMaterials() {
+        return materials;
+    }
+
+    /**
+     * Get the per sphere indexes into the palette, by the order the spheres were given.
+     * @return the indexes, or null if all the spheres use the set material
+     */
+    public short[] getSphereMaterials() {
+        if (sphereMaterials == null) {
+            return null;
+        }
+        short[] result = new short[radii.length];
+        IntArray order = bvh.getOrder();
+        for (int position = 0; position < radii.length; position++) {
+            result[order.get(position)] = sphereMaterials[position];
+        }
+        return result;
+    }
+
+    @Override
+    public Material getMaterial(int primitive) {
+        return materials == null ? getMaterial() : materials[sphereMaterials[primitive]];
+    }
+
+    @Override
+    public double[] getBounds() {
+        return bvh.getRootBounds();
+    }
+
+    @Override
+    public Vector getNormal(GeoPoint geoPoint) {
+        int position = geoPoint.primitive;
+        return geoPoint.point.subtract(new Point(centerX[position], centerY[position],
+                centerZ[position])).normalize();
+    }
+
+    /**
+     * Find the sphere that the point is on and return its normal. Prefer
+     * {@link #getNormal(GeoPoint)}, which doesn't search.
+     * @throws IllegalArgumentException if the point isn't on the set
+     */
+    @Override
+    public Vector getNormal(Point point) {
+        for (int position = 0; position < radii.length; position++) {
+            Point center = new Point(centerX[position], centerY[position], centerZ[position]);
+            if (!point.equals(center) && isZero(point.distance(center) - radii[position])) {
+                return point.subtract(center).normalize();
+            }
+        }
+        throw new IllegalArgumentException("ERROR: The point isn't on the sphere set");
+    }
+
+    @Override
+    public List<GeoPoint> findGeoIntersectionsHelper(Ray ray) {
+        List<GeoPoint> result = new LinkedList<>();
+        Point p0 = ray.getP0();
+        Vector dir = ray.getDir();
+        double px = p0.getX(), py = p0.getY(), pz = p0.getZ();
+        double dx = dir.getX(), dy = dir.getY(), dz = dir.getZ();
+        bvh.traverseLeaves(ray, (first, count) -> {
+            for (int i = first; i < first + count; i++) {
+                /* u = center - p0, tm = dir * u, d^2 = |u|^2 - tm^2 */
+                double ux = centerX[i] - px, uy = centerY[i] - py, uz = centerZ[i] - pz;
+                double tm = dx * ux + dy * uy + dz * uz;
+                double th2 = radii[i] * radii[i] - (ux * ux + uy * uy + uz * uz - tm * tm);
+                if (alignZero(th2) <= 0) {
+                    continue;
+                }
+                double th = Math.sqrt(th2);
+                double t1 = alignZero(tm - th);
+                double t2 = alignZero(tm + th);
+                if (t1 > 0) {
+                    result.add(new GeoPoint(this, ray.getP0(t1), i));
+                }
+                if (t2 > 0) {
+                    result.add(new GeoPoint(this, ray.getP0(t2), i));
+                }
+            }
+        });
+        return result.isEmpty() ? null : result;
+    }
+}
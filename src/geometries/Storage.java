@@ -0,0 +1,84 @@
+package geometries;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+
+/**
+ * Where the primitive arrays of big geometries (meshes and their acceleration structures) are
+ * held. The arrays are split into chunks of 1GB, so their length isn't limited by the size of a
+ * single buffer.
+ */
+public enum Storage {
+    /**
+     * Regular buffers on the Java heap.
+     */
+    HEAP,
+    /**
+     * Direct buffers outside the Java heap, they don't count against -Xmx and the garbage
+     * collector never scans or copies them. Their memory is freed by the garbage collector once
+     * no array or view references them.
+     */
+    OFF_HEAP;
+
+    /* Elements per chunk as a power of two, so an index splits into a chunk and an offset by shifts */
+    private static final int DOUBLE_CHUNK_SHIFT = 27;
+    private static final int INT_CHUNK_SHIFT = 28;
+
+    /**
+     * Allocate a zeroed array of doubles.
+     * @param length amount of elements
+     * @return the new array
+     * @throws IllegalArgumentException if the length is negative
+     */
+    public DoubleArray allocateDoubles(long length) {
+        return allocateDoubles(length, DOUBLE_CHUNK_SHIFT);
+    }
+
+    /**
+     * Allocate a zeroed array of ints.
+     * @param length amount of elements
+     * @return the new array
+     * @throws IllegalArgumentException if the length is negative
+     */
+    public IntArray allocateInts(long length) {
+        return allocateInts(length, INT_CHUNK_SHIFT);
+    }
+
+    DoubleArray allocateDoubles(long length, int chunkShift) {
+        ByteBuffer[] owned = allocate(length, chunkShift, Double.BYTES);
+        DoubleBuffer[] chunks = new DoubleBuffer[owned.length];
+        for (int i = 0; i < owned.length; i++) {
+            chunks[i] = owned[i].asDoubleBuffer();
+        }
+        return new DoubleArray(chunks, chunkShift, length);
+    }
+
+    IntArray allocateInts(long length, int chunkShift) {
+        ByteBuffer[] owned = allocate(length, chunkShift, Integer.BYTES);
+        IntBuffer[] chunks = new IntBuffer[owned.length];
+        for (int i = 0; i < owned.length; i++) {
+            chunks[i] = owned[i].asIntBuffer();
+        }
+        return new IntArray(chunks, chunkShift, length);
+    }
+
+    /**
+     * Allocate the chunks of an array in the native byte order, all of them full but the last.
+     */
+    private ByteBuffer[] allocate(long length, int chunkShift, int elementBytes) {
+        if (length < 0) {
+            throw new IllegalArgumentException("ERROR: Array length can't be negative");
+        }
+        long chunkLength = 1L << chunkShift;
+        ByteBuffer[] chunks = new ByteBuffer[(int) ((length + chunkLength - 1) >>> chunkShift)];
+        for (int i = 0; i < chunks.length; i++) {
+            int bytes = (int) (Math.min(chunkLength, length - i * chunkLength) * elementBytes);
+            ByteBuffer chunk = this == OFF_HEAP ? ByteBuffer.allocateDirect(bytes)
+                    : ByteBuffer.allocate(bytes);
+            chunks[i] = chunk.order(ByteOrder.nativeOrder());
+        }
+        return chunks;
+    }
+}
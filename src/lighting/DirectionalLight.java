@@ -17,6 +17,10 @@ public class DirectionalLight extends Light implements LightSource {
         this.direction = direction.normalize();
     }
 
+    public Vector getDirection() {
+        return direction;
+    }
+
     public Color getIntensity(Point point) {
         return getIntensity();
     }
@@ -21,4 +21,12 @@ public interface LightSource {
 
 
     double getDistance(Point point);
+
+    /**
+     * Get a copy of the light for a prepared scene, later changes to this light don't affect it.
+     * @return the copy, or the light itself if it can't change
+     */
+    default LightSource snapshot() {
+        return this;
+    }
 }
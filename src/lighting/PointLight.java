@@ -9,6 +9,7 @@ public class PointLight extends Light implements LightSource{
     private double kC;
     private double kL;
     private double kQ;
+    private Color constantIntensity; // the intensity everywhere if it doesn't fade, otherwise null
 
     /**
      * Default constructor for PointLight class.
@@ -21,23 +22,66 @@ public class PointLight extends Light implements LightSource{
         this.kC = 1d;
         this.kL = 0d;
         this.kQ = 0d;
+        constantIntensity = intensity;
+    }
+
+    public Point getPosition() {
+        return position;
+    }
+
+    public double getKc() {
+        return kC;
+    }
+
+    public double getKl() {
+        return kL;
+    }
+
+    public double getKq() {
+        return kQ;
     }
 
     public PointLight setKc(double kC) {
         this.kC = kC;
+        updateConstantIntensity();
         return this;
     }
 
     public PointLight setKl(double kL) {
         this.kL = kL;
+        updateConstantIntensity();
         return this;
     }
 
     public PointLight setKq(double kQ) {
         this.kQ = kQ;
+        updateConstantIntensity();
         return this;
     }
 
+    /**
+     * Compute ahead the intensity of a light that doesn't fade with the distance. Invalid factors
+     * are left to fail when the light is used.
+     */
+    private void updateConstantIntensity() {
+        constantIntensity = kL == 0 && kQ == 0 && kC >= 1 ? getIntensity().reduce(kC) : null;
+    }
+
+    /**
+     * Copy the attenuation factors of this light to another one.
+     * @param copy the other light
+     * @return the other light
+     */
+    protected <T extends PointLight> T copyFactorsTo(T copy) {
+        copy.setKc(kC).setKl(kL).setKq(kQ);
+        return copy;
+    }
+
+    @Override
+    public LightSource snapshot() {
+        return copyFactorsTo(new PointLight(getIntensity(), position));
+    }
+
     /**
      * Calculates the factor to reduce the intensity of the light.
      * @param point Point to calculate the factor for.
@@ -50,7 +94,8 @@ public class PointLight extends Light implements LightSource{
 
     @Override
     public Color getIntensity(Point point) {
-        return getIntensity().reduce(getReduceFactor(point));
+        Color constant = constantIntensity;
+        return constant != null ? constant : getIntensity().reduce(getReduceFactor(point));
     }
 
     @Override
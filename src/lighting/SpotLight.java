@@ -20,6 +20,15 @@ public class SpotLight extends PointLight {
         this.direction = direction.normalize();
     }
 
+    public Vector getDirection() {
+        return direction;
+    }
+
+    @Override
+    public LightSource snapshot() {
+        return copyFactorsTo(new SpotLight(getIntensity(), position, direction));
+    }
+
     @Override
     public Color getIntensity(Point point) {
         double projection = direction.dotProduct(getL(point));
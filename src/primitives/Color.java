@@ -100,6 +100,18 @@ public class Color {
         return new java.awt.Color(ir > 255 ? 255 : ir, ig > 255 ? 255 : ig, ib > 255 ? 255 : ib);
     }
 
+    public double getRed() {
+        return rgb.d1;
+    }
+
+    public double getGreen() {
+        return rgb.d2;
+    }
+
+    public double getBlue() {
+        return rgb.d3;
+    }
+
     /**
      * Operation of adding this and one or more other colors (by component).
      *
@@ -181,6 +193,19 @@ public class Color {
                 .allMatch(index -> colors.get(0).equals(colors.get(index)));
     }
 
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        return obj instanceof Color other && rgb.equals(other.rgb);
+    }
+
+    @Override
+    public int hashCode() {
+        return rgb.hashCode();
+    }
+
     @Override
     public String toString() {
         return "rgb:" + rgb;
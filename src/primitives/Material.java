@@ -1,29 +1,38 @@
 package primitives;
 
+import java.util.Objects;
+
 /**
  * Represents the material properties of a geometry.
+ * A material can be frozen (see {@link #freeze()}), then it can't be changed anymore and its
+ * derived flags are computed once.
  */
 public class Material {
     /**
      * Diffusion coefficient.
      */
-    public Double3 kD;
+    private Double3 kD;
     /**
      * Specular coefficient.
      */
-    public Double3 kS;
+    private Double3 kS;
     /**
      * Transparency coefficient.
      */
-    public Double3 kT;
+    private Double3 kT;
     /**
      * Reflection coefficient.
      */
-    public Double3 kR;
+    private Double3 kR;
     /**
      * Specular exponent.
      */
-    public int nShininess;
+    private int nShininess;
+
+    private boolean frozen;
+    private boolean reflective;
+    private boolean transparent;
+    private boolean specular;
 
     /**
      * Default constructor.
@@ -42,6 +51,7 @@ public class Material {
      * @return the Material object
      */
     public Material setKd(Double3 kD) {
+        checkNotFrozen();
         this.kD = kD;
         return this;
     }
@@ -52,6 +62,7 @@ public class Material {
      * @return the Material object
      */
     public Material setKd(double kD) {
+        checkNotFrozen();
         this.kD = new Double3(kD);
         return this;
     }
@@ -62,6 +73,7 @@ public class Material {
      * @return the Material object
      */
     public Material setKs(Double3 kS) {
+        checkNotFrozen();
         this.kS = kS;
         return this;
     }
@@ -72,6 +84,7 @@ public class Material {
      * @return the Material object
      */
     public Material setKs(double kS) {
+        checkNotFrozen();
         this.kS = new Double3(kS);
         return this;
     }
@@ -82,6 +95,7 @@ public class Material {
      * @return the Material object
      */
     public Material setKt(Double3 kT) {
+        checkNotFrozen();
         this.kT = kT;
         return this;
     }
@@ -92,6 +106,7 @@ public class Material {
      * @return the Material object
      */
     public Material setKt(double kT) {
+        checkNotFrozen();
         this.kT = new Double3(kT);
         return this;
     }
@@ -102,6 +117,7 @@ public class Material {
      * @return the Material object
      */
     public Material setKr(Double3 kR) {
+        checkNotFrozen();
         this.kR = kR;
         return this;
     }
@@ -112,6 +128,7 @@ public class Material {
      * @return the Material object
      */
     public Material setKr(double kR) {
+        checkNotFrozen();
         this.kR = new Double3(kR);
         return this;
     }
@@ -122,9 +139,90 @@ public class Material {
      * @return the Material object
      */
     public Material setShininess(int nShininess) {
+        checkNotFrozen();
         this.nShininess = nShininess;
         return this;
     }
 
+    public Double3 getKd() {
+        return kD;
+    }
+
+    public Double3 getKs() {
+        return kS;
+    }
+
+    public Double3 getKt() {
+        return kT;
+    }
+
+    public Double3 getKr() {
+        return kR;
+    }
+
+    public int getShininess() {
+        return nShininess;
+    }
+
+    /**
+     * Freeze the material, any change afterwards is an error.
+     * @return the Material object
+     */
+    public Material freeze() {
+        reflective = !kR.equals(Double3.ZERO);
+        transparent = !kT.equals(Double3.ZERO);
+        specular = !kS.equals(Double3.ZERO);
+        frozen = true;
+        return this;
+    }
+
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * Check whether the material reflects (kR isn't zero).
+     * @return true if the material is reflective
+     */
+    public boolean isReflective() {
+        return frozen ? reflective : !kR.equals(Double3.ZERO);
+    }
+
+    /**
+     * Check whether the material passes light through (kT isn't zero).
+     * @return true if the material is transparent
+     */
+    public boolean isTransparent() {
+        return frozen ? transparent : !kT.equals(Double3.ZERO);
+    }
 
+    /**
+     * Check whether the material has specular highlights (kS isn't zero).
+     * @return true if the material has specular
+     */
+    public boolean hasSpecular() {
+        return frozen ? specular : !kS.equals(Double3.ZERO);
+    }
+
+    private void checkNotFrozen() {
+        if (frozen) {
+            throw new IllegalStateException("ERROR: The material is frozen");
+        }
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        return obj instanceof Material other
+                && nShininess == other.nShininess
+                && kD.equals(other.kD)
+                && kS.equals(other.kS)
+                && kT.equals(other.kT)
+                && kR.equals(other.kR);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(kD, kS, kT, kR, nShininess);
+    }
 }
@@ -0,0 +1,226 @@
+package renderer;
+
+import java.util.List;
+import primitives.Color;
+
+/**
+ * Adaptive anti-aliasing driven by an estimate of the error of every pixel. A base pass traces
+ * one sample in the center of every pixel. Pixels that differ from their neighbours by more
+ * than the threshold are refined in batches of samples, until the standard error of their mean
+ * drops below the threshold or they reach the most samples. Flat pixels keep a single sample,
+ * while edges and noisy regions get as many as they need.
+ */
+public class AdaptiveSampler {
+    private static final int DEFAULT_BATCH_SIZE = 4;
+
+    private final int maxSamples;
+    private final double threshold;
+    private final int batchSize;
+    private final Sampler sampler;
+
+    /**
+     * Traces one sample of a pixel.
+     */
+    @FunctionalInterface
+    public interface SampleTracer {
+        /**
+         * Trace a sample.
+         * @param x column of the pixel
+         * @param y row of the pixel
+         * @param u offset to the right inside the pixel, from 0 to 1
+         * @param v offset down inside the pixel, from 0 to 1
+         * @return the color of the sample
+         */
+        Color trace(int x, int y, double u, double v);
+    }
+
+    /**
+     * Constructor with batches of 4 samples.
+     * @param maxSamples most samples per pixel
+     * @param threshold allowed error of a pixel color, in color units (0 to 255) per channel
+     * @throws IllegalArgumentException if the amount of samples isn't positive or the threshold
+     *     is negative
+     */
+    public AdaptiveSampler(int maxSamples, double threshold) {
+        this(maxSamples, threshold, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Constructor with samples placed by the Halton sampler.
+     * @param maxSamples most samples per pixel
+     * @param threshold allowed error of a pixel color, in color units (0 to 255) per channel
+     * @param batchSize amount of samples added to a pixel between two error estimates
+     * @throws IllegalArgumentException if an amount isn't positive or the threshold is negative
+     */
+    public AdaptiveSampler(int maxSamples, double threshold, int batchSize) {
+        this(maxSamples, threshold, batchSize, Sampler.HALTON);
+    }
+
+    /**
+     * Constructor.
+     * @param maxSamples most samples per pixel
+     * @param threshold allowed error of a pixel color, in color units (0 to 255) per channel
+     * @param batchSize amount of samples added to a pixel between two error estimates
+     * @param sampler places the refining samples in the pixel
+     * @throws IllegalArgumentException if an amount isn't positive, the threshold is negative or
+     *     the sampler is null
+     */
+    public AdaptiveSampler(int maxSamples, double threshold, int batchSize, Sampler sampler) {
+        if (sampler == null) {
+            throw new IllegalArgumentException("ERROR: sampler can't be null");
+        }
+        if (maxSamples < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("ERROR: samples count must be positive");
+        }
+        if (threshold < 0) {
+            throw new IllegalArgumentException("ERROR: threshold can't be negative");
+        }
+        this.maxSamples = maxSamples;
+        this.threshold = threshold;
+        this.batchSize = batchSize;
+        this.sampler = sampler;
+    }
+
+    public int getMaxSamples() {
+        return maxSamples;
+    }
+
+    public double getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Sample an image, or only some tiles of it. A pixel is compared only to the neighbours in
+     * the tiles.
+     * @param nX amount of columns
+     * @param nY amount of rows
+     * @param tiles the tiles to sample, in the order to trace them
+     * @param scheduler runs the tiles
+     * @param tracer traces the samples
+     * @return the samples of every pixel
+     */
+    public FrameBuffer render(int nX, int nY, List<Tile> tiles, TileScheduler scheduler,
+                              SampleTracer tracer) {
+        FrameBuffer frame = new FrameBuffer(nX, nY);
+        scheduler.run(tiles, tile -> forEachPixel(tile,
+                (x, y) -> frame.add(x, y, tracer.trace(x, y, 0.5, 0.5))));
+
+        if (maxSamples == 1 || tiles.isEmpty()) {
+            return frame;
+        }
+
+        /* Copy of the base pass over the bounding box of the tiles, the frame changes while the
+           neighbours are compared */
+        Tile box = bounds(tiles);
+        float[] base = new float[box.getPixelsCount() * 3];
+        boolean[] sampled = new boolean[box.getPixelsCount()];
+        for (Tile tile : tiles) {
+            forEachPixel(tile, (x, y) -> {
+                Color color = frame.getColor(x, y);
+                int index = (y - box.getY()) * box.getWidth() + x - box.getX();
+                sampled[index] = true;
+                base[index * 3] = (float) color.getRed();
+                base[index * 3 + 1] = (float) color.getGreen();
+                base[index * 3 + 2] = (float) color.getBlue();
+            });
+        }
+
+        scheduler.run(tiles, tile -> forEachPixel(tile, (x, y) -> {
+            if (contrast(base, sampled, box, x, y) > threshold) {
+                refine(frame, base, box, x, y, tracer);
+            }
+        }));
+        return frame;
+    }
+
+    /**
+     * Get the smallest tile that contains all the tiles.
+     */
+    private static Tile bounds(List<Tile> tiles) {
+        int left = Integer.MAX_VALUE;
+        int top = Integer.MAX_VALUE;
+        int right = 0;
+        int bottom = 0;
+        for (Tile tile : tiles) {
+            left = Math.min(left, tile.getX());
+            top = Math.min(top, tile.getY());
+            right = Math.max(right, tile.getX() + tile.getWidth());
+            bottom = Math.max(bottom, tile.getY() + tile.getHeight());
+        }
+        return new Tile(left, top, right - left, bottom - top);
+    }
+
+    /**
+     * Largest difference of a channel between a pixel and its sampled neighbours of the 8 around
+     * it.
+     */
+    private static double contrast(float[] base, boolean[] sampled, Tile box, int x, int y) {
+        int width = box.getWidth();
+        int column = x - box.getX();
+        int row = y - box.getY();
+        int pixel = (row * width + column) * 3;
+        double result = 0;
+        for (int ny = Math.max(0, row - 1); ny <= Math.min(box.getHeight() - 1, row + 1); ny++) {
+            for (int nx = Math.max(0, column - 1); nx <= Math.min(width - 1, column + 1); nx++) {
+                if (!sampled[ny * width + nx]) {
+                    continue;
+                }
+                int neighbour = (ny * width + nx) * 3;
+                for (int channel = 0; channel < 3; channel++) {
+                    result = Math.max(result,
+                            Math.abs(base[pixel + channel] - base[neighbour + channel]));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Add batches of samples to a pixel until the standard error of its mean is small enough,
+     * the mean and variance are updated on the fly (Welford).
+     */
+    private void refine(FrameBuffer frame, float[] base, Tile box, int x, int y,
+                        SampleTracer tracer) {
+        int pixel = ((y - box.getY()) * box.getWidth() + x - box.getX()) * 3;
+        double[] mean = {base[pixel], base[pixel + 1], base[pixel + 2]};
+        double[] m2 = new double[3];
+        int count = 1;
+        while (count < maxSamples) {
+            int end = Math.min(maxSamples, count + batchSize);
+            for (; count < end; count++) {
+                Color color = tracer.trace(x, y, sampler.get(x, y, count, maxSamples, 0),
+                        sampler.get(x, y, count, maxSamples, 1));
+                frame.add(x, y, color);
+                double[] sample = {color.getRed(), color.getGreen(), color.getBlue()};
+                for (int channel = 0; channel < 3; channel++) {
+                    double delta = sample[channel] - mean[channel];
+                    mean[channel] += delta / (count + 1);
+                    m2[channel] += delta * (sample[channel] - mean[channel]);
+                }
+            }
+            double error = 0;
+            for (int channel = 0; channel < 3; channel++) {
+                error = Math.max(error, Math.sqrt(m2[channel] / (count - 1) / count));
+            }
+            if (error <= threshold) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Visitor of pixels by their column and row.
+     */
+    @FunctionalInterface
+    private interface PixelAction {
+        void accept(int x, int y);
+    }
+
+    private static void forEachPixel(Tile tile, PixelAction action) {
+        for (int y = tile.getY(); y < tile.getY() + tile.getHeight(); y++) {
+            for (int x = tile.getX(); x < tile.getX() + tile.getWidth(); x++) {
+                action.accept(x, y);
+            }
+        }
+    }
+}
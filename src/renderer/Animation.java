@@ -0,0 +1,173 @@
+package renderer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.DoubleFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+import primitives.Vector;
+import scene.Scene;
+
+/**
+ * Renders the frames of an animation on a {@link RenderPipeline}. The camera path is keyframed
+ * by a shift and rotations of the camera, and the objects by a factory that builds the scene of
+ * any time, e.g. from keyframes of their own. Every frame's scene is built and prepared while
+ * the previous frame is traced and the one before it is written.
+ */
+public class Animation {
+    private static final Logger LOGGER = Logger.getLogger(Animation.class.getName());
+
+    private final Supplier<Camera> camera;
+    private final DoubleFunction<Scene> sceneAtTime;
+    private Function<Scene, RayTracerBase> rayTracer = RayTracerBasic::new;
+    private Keyframes cameraShift;
+    private Keyframes cameraRotation;
+    private double frameRate = 24;
+    private int nX = 500;
+    private int nY = 500;
+
+    /**
+     * Constructor.
+     * @param camera builds the camera at its rest position, with its view plane set
+     * @param sceneAtTime builds the scene at a time in seconds, a new scene for every call
+     */
+    public Animation(Supplier<Camera> camera, DoubleFunction<Scene> sceneAtTime) {
+        this.camera = camera;
+        this.sceneAtTime = sceneAtTime;
+    }
+
+    /**
+     * Setter of the ray tracer of the frames.
+     * @param rayTracer builds the ray tracer of a frame's scene
+     * @return the animation itself
+     */
+    public Animation setRayTracer(Function<Scene, RayTracerBase> rayTracer) {
+        this.rayTracer = rayTracer;
+        return this;
+    }
+
+    /**
+     * Setter of the camera path.
+     * @param cameraShift x, y and z of the shift of the camera from its rest position
+     * @return the animation itself
+     */
+    public Animation setCameraShift(Keyframes cameraShift) {
+        this.cameraShift = cameraShift;
+        return this;
+    }
+
+    /**
+     * Setter of the camera rotation, as angles about the axes of the camera itself (not of the
+     * world) in the {@link Axis} order of {@link Camera#rotation}: X about its view direction
+     * (roll), Y about its right vector (pitch) and Z about its up vector (yaw). Every angle is
+     * interpolated on its own, and in a frame they are applied yaw first, then pitch about the
+     * turned right vector and roll last about the final view direction, so the view direction
+     * depends only on the yaw and the pitch and the roll only turns the image about it.
+     * @param cameraRotation radians of the roll, the pitch and the yaw of the camera
+     * @return the animation itself
+     */
+    public Animation setCameraRotation(Keyframes cameraRotation) {
+        this.cameraRotation = cameraRotation;
+        return this;
+    }
+
+    /**
+     * Setter of the frame rate.
+     * @param frameRate frames per second
+     * @return the animation itself
+     * @throws IllegalArgumentException if the rate isn't positive
+     */
+    public Animation setFrameRate(double frameRate) {
+        if (frameRate <= 0) {
+            throw new IllegalArgumentException("ERROR: frame rate must be positive");
+        }
+        this.frameRate = frameRate;
+        return this;
+    }
+
+    /**
+     * Setter of the resolution of the frames.
+     * @param nX amount of columns
+     * @param nY amount of rows
+     * @return the animation itself
+     */
+    public Animation setResolution(int nX, int nY) {
+        this.nX = nX;
+        this.nY = nY;
+        return this;
+    }
+
+    /**
+     * Render the frames and write their images, named by the image name and the frame number.
+     * @param imageName the name of the images
+     * @param framesCount amount of frames
+     * @param pipeline the pipeline that renders the frames
+     * @return the stage times of every frame
+     */
+    public List<FrameTimes> render(String imageName, int framesCount, RenderPipeline pipeline) {
+        return render(imageName, framesCount, pipeline, Camera::writeToImage);
+    }
+
+    /**
+     * Render the frames and hand them to an output stage.
+     * @param imageName the name of the images, the frame number is added to it
+     * @param framesCount amount of frames
+     * @param pipeline the pipeline that renders the frames
+     * @param frameOutput encodes and writes a rendered frame
+     * @return the stage times of every frame
+     * @throws java.util.concurrent.CompletionException if a frame failed
+     */
+    public List<FrameTimes> render(String imageName, int framesCount, RenderPipeline pipeline,
+                                   Consumer<Camera> frameOutput) {
+        List<CompletableFuture<FrameTimes>> futures = new ArrayList<>(framesCount);
+        for (int frame = 0; frame < framesCount; frame++) {
+            int number = frame;
+            futures.add(pipeline.submit(() -> setUp(imageName, number), frameOutput));
+        }
+        List<FrameTimes> times = new ArrayList<>(framesCount);
+        Duration setup = Duration.ZERO;
+        Duration trace = Duration.ZERO;
+        Duration output = Duration.ZERO;
+        for (CompletableFuture<FrameTimes> future : futures) {
+            FrameTimes frameTimes = future.join();
+            times.add(frameTimes);
+            setup = setup.plus(frameTimes.getSetup());
+            trace = trace.plus(frameTimes.getTrace());
+            output = output.plus(frameTimes.getOutput());
+        }
+        LOGGER.info(String.format("%s: %d frames, setup %d ms, trace %d ms, output %d ms",
+                imageName, framesCount, setup.toMillis(), trace.toMillis(), output.toMillis()));
+        return times;
+    }
+
+    /**
+     * Build the camera of a frame, with the prepared scene and the camera path of its time.
+     */
+    private Camera setUp(String imageName, int frame) {
+        double time = frame / frameRate;
+        Scene scene = sceneAtTime.apply(time);
+        RayTracerBase tracer = rayTracer.apply(scene).setPreparedScene(scene.prepare());
+        Camera frameCamera = camera.get()
+                .setRayTracer(tracer)
+                .setImageWriter(new ImageWriter(String.format("%s%04d", imageName, frame), nX, nY));
+        if (cameraShift != null) {
+            double[] shift = cameraShift.valueAt(time);
+            if (shift[0] != 0 || shift[1] != 0 || shift[2] != 0) {
+                frameCamera.shift(new Vector(shift[0], shift[1], shift[2]));
+            }
+        }
+        if (cameraRotation != null) {
+            double[] rotation = cameraRotation.valueAt(time);
+            for (int i = Axis.values().length - 1; i >= 0; i--) {
+                if (rotation[i] != 0) {
+                    frameCamera.rotation(Math.toDegrees(rotation[i]), Axis.values()[i]);
+                }
+            }
+        }
+        return frameCamera;
+    }
+}
@@ -0,0 +1,142 @@
+package renderer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Writes an image to a file band by band, for images that don't fit in memory. A band of rows is
+ * written as soon as it is rendered, so the memory used is bounded by the band and not by the
+ * image. The bands may be written in any order.
+ */
+public class BandWriter implements AutoCloseable {
+    private final Logger logger = Logger.getLogger("BandWriter");
+
+    private final Format format;
+    private final int nX;
+    private final int nY;
+    private final FileChannel channel;
+    private final long headerLength;
+
+    /**
+     * Formats of the file.
+     */
+    public enum Format {
+        /** Binary portable pixmap, 8 bits per channel truncated to 0 to 255 */
+        PPM,
+        /**
+         * Portable float map, 32 bit little endian floats per channel, rows from the bottom. The
+         * colors are divided by 255, so 1 is the white of the 8 bit image.
+         */
+        PFM
+    }
+
+    /**
+     * Constructor, creates the file and writes its header.
+     * @param file the file, replaced if it exists
+     * @param format the format of the file
+     * @param nX amount of columns
+     * @param nY amount of rows
+     * @throws IllegalArgumentException if the resolution isn't positive
+     * @throws IllegalStateException if the file can't be created
+     */
+    public BandWriter(Path file, Format format, int nX, int nY) {
+        if (nX < 1 || nY < 1) {
+            throw new IllegalArgumentException("ERROR: resolution must be positive");
+        }
+        this.format = format;
+        this.nX = nX;
+        this.nY = nY;
+        String header = format == Format.PPM
+                ? "P6\n" + nX + " " + nY + "\n255\n"
+                : "PF\n" + nX + " " + nY + "\n-1.0\n";
+        byte[] bytes = header.getBytes(StandardCharsets.US_ASCII);
+        headerLength = bytes.length;
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            writeFully(ByteBuffer.wrap(bytes), 0);
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "I/O error", e);
+            throw new IllegalStateException("I/O error - can't create " + file, e);
+        }
+    }
+
+    public int getNx() {
+        return nX;
+    }
+
+    public int getNy() {
+        return nY;
+    }
+
+    public Format getFormat() {
+        return format;
+    }
+
+    /**
+     * Write a band of rows.
+     * @param firstRow the top row of the band
+     * @param rows amount of rows in the band
+     * @param pixels red, green and blue of every pixel of the band, row after row
+     * @throws IllegalArgumentException if the band is out of the image or the pixels are missing
+     * @throws IllegalStateException if the file can't be written
+     */
+    public void writeBand(int firstRow, int rows, float[] pixels) {
+        if (firstRow < 0 || rows < 0 || firstRow + rows > nY) {
+            throw new IllegalArgumentException("ERROR: band is out of the image");
+        }
+        if (pixels.length < rows * nX * 3) {
+            throw new IllegalArgumentException("ERROR: pixels are missing from the band");
+        }
+        try {
+            if (format == Format.PPM) {
+                ByteBuffer buffer = ByteBuffer.allocate(rows * nX * 3);
+                for (int i = 0; i < rows * nX * 3; i++) {
+                    int value = (int) pixels[i];
+                    buffer.put((byte) (value > 255 ? 255 : Math.max(value, 0)));
+                }
+                writeFully(buffer.flip(), headerLength + (long) firstRow * nX * 3);
+            } else {
+                ByteBuffer buffer = ByteBuffer.allocate(nX * 12).order(ByteOrder.LITTLE_ENDIAN);
+                for (int row = 0; row < rows; row++) {
+                    buffer.clear();
+                    for (int i = row * nX * 3; i < (row + 1) * nX * 3; i++) {
+                        buffer.putFloat(pixels[i] / 255);
+                    }
+                    buffer.flip();
+                    writeFully(buffer, headerLength + (long) (nY - 1 - firstRow - row) * nX * 12);
+                }
+            }
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "I/O error", e);
+            throw new IllegalStateException("I/O error - can't write the band", e);
+        }
+    }
+
+    /**
+     * Close the file.
+     * @throws IllegalStateException if the file can't be closed
+     */
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "I/O error", e);
+            throw new IllegalStateException("I/O error - can't close the file", e);
+        }
+    }
+
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package renderer;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.MissingResourceException;
+import java.util.function.Consumer;
+import scene.PreparedScene;
+import scene.Scene;
+
+/**
+ * Renders a scene from several cameras at once, e.g. the frames of a turntable or a stereo pair.
+ * The scene is prepared once and all the ray tracers of the cameras share it, and the tiles of
+ * all the views are interleaved on one pool of workers, so a view with expensive tiles doesn't
+ * leave the workers of the other views waiting.
+ */
+public class BatchRenderer implements AutoCloseable {
+    private final TileScheduler scheduler;
+
+    /**
+     * Constructor.
+     * @param threadsCount amount of worker threads
+     * @throws IllegalArgumentException if the amount isn't positive
+     */
+    public BatchRenderer(int threadsCount) {
+        scheduler = new TileScheduler(threadsCount);
+    }
+
+    /**
+     * Prepare the scene once and render the images of all the cameras.
+     * @param scene the scene that all the cameras look at
+     * @param cameras the cameras, each with an image writer of its own
+     * @throws MissingResourceException if some resource of the scene or of a camera is missing
+     */
+    public void render(Scene scene, List<Camera> cameras) throws MissingResourceException {
+        render(scene.prepare(), cameras);
+    }
+
+    /**
+     * Render the images of all the cameras over a prepared scene. The ray tracers of the cameras
+     * are set to the prepared scene during the render, and afterwards they go back to the
+     * prepared scene they had, or to preparing the scene on every render.
+     * Cameras with the adaptive sampler are rendered after the others, one at a time.
+     * @param scene the prepared scene that all the cameras look at
+     * @param cameras the cameras, each with an image writer of its own
+     * @throws MissingResourceException if some resource of a camera is missing
+     */
+    public void render(PreparedScene scene, List<Camera> cameras)
+            throws MissingResourceException {
+        Map<RayTracerBase, PreparedScene> pinned = new IdentityHashMap<>();
+        try {
+            for (Camera camera : cameras) {
+                RayTracerBase tracer = camera.getRayTracer();
+                if (tracer != null && !pinned.containsKey(tracer)) {
+                    pinned.put(tracer, tracer.getPinnedScene());
+                    tracer.setPreparedScene(scene);
+                }
+            }
+            render(cameras);
+        } finally {
+            pinned.forEach((tracer, previous) -> {
+                if (previous == null) {
+                    tracer.clearPreparedScene();
+                } else {
+                    tracer.setPreparedScene(previous);
+                }
+            });
+        }
+    }
+
+    /**
+     * Render the images of the cameras, whose ray tracers were set to the prepared scene.
+     */
+    private void render(List<Camera> cameras) {
+        List<List<Tile>> views = new ArrayList<>();
+        Map<Tile, Consumer<Tile>> renderers = new IdentityHashMap<>();
+        List<Camera> adaptive = new ArrayList<>();
+        for (Camera camera : cameras) {
+            List<Tile> tiles = new ArrayList<>();
+            Consumer<Tile> renderer = camera.prepareTiles(tiles);
+            if (renderer == null) {
+                adaptive.add(camera);
+                continue;
+            }
+            for (Tile tile : tiles) {
+                renderers.put(tile, renderer);
+            }
+            views.add(tiles);
+        }
+
+        /* A tile of every view in turn, so every half of the list has a share of each view */
+        List<Tile> tiles = new ArrayList<>(renderers.size());
+        for (int i = 0; tiles.size() < renderers.size(); i++) {
+            for (List<Tile> view : views) {
+                if (i < view.size()) {
+                    tiles.add(view.get(i));
+                }
+            }
+        }
+        scheduler.run(tiles, tile -> renderers.get(tile).accept(tile));
+
+        for (Camera camera : adaptive) {
+            camera.renderImage(scheduler);
+        }
+    }
+
+    /**
+     * Stop the worker threads.
+     */
+    @Override
+    public void close() {
+        scheduler.close();
+    }
+}
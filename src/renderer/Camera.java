@@ -10,17 +10,31 @@ import primitives.Ray;
 import primitives.Vector;
 import renderer.ImageWriter;
 import renderer.RayTracerBase;
+import scene.PreparedScene;
 
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.MissingResourceException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.stream.IntStream;
 
 public class Camera {
     private static final double ERROR_VALUE_DOUBLE = -1d;
     private static final double ERROR_VALUE_INT = -1;
+    private static final int DEFAULT_TILE_SIZE = 16;
+    private static final int[] PREVIEW_SCALES = {8, 4}; // block sides of the coarse passes
+    private static final int PREVIEW_MAX_LEVEL = 2; // recursion of the coarse passes
 
     // Camera vectors for movement and rotation
     private Vector vectorTo; // vector pointing to direction of camera
@@ -33,6 +47,14 @@ public class Camera {
     private ImageWriter imageWriter; // used to write the final image
     private RayTracerBase rayTracer; // used to perform ray tracing
     private int lineBeamRays;
+    private int tileSize = DEFAULT_TILE_SIZE; // width and height of a render tile in pixels
+    private int threadsCount = Runtime.getRuntime().availableProcessors(); // render workers
+    private PixelOrder pixelOrder = PixelOrder.TILED; // order of tracing the pixels
+    private AdaptiveSampler adaptiveSampler; // samples by the error of each pixel, if set
+    private SharedCornerSampler cornerSampler; // samples shared pixel corners, if set
+    private Sampler sampler = Sampler.REGULAR; // positions of the beam rays in a pixel
+    private Tile region; // the only pixels to render, all of them if null
+    private PreviewListener previewListener; // renders coarse passes first, if set
 
 
     /**
@@ -64,6 +86,124 @@ public class Camera {
         return this;
     }
 
+    /**
+     * @return amount of beam rays per pixel, the requested amount rounded up to a square
+     */
+    public int getBeamRays() {
+        return lineBeamRays * lineBeamRays;
+    }
+
+    /**
+     * Render only a rectangle of the pixels of the image writer, the rays are the same as in the
+     * render of the whole image and the other pixels are left as they are, so the rectangle is
+     * merged into the image that is already in the writer (see {@link ImageWriter#readImage()}).
+     * The streaming render ignores the region.
+     * @param region the rectangle, null to render the whole image
+     * @return the camera itself
+     * @throws IllegalArgumentException if the rectangle is empty or starts at a negative pixel
+     */
+    public Camera setRegion(Tile region) {
+        if (region != null && (region.getX() < 0 || region.getY() < 0 || region.getWidth() < 1
+                || region.getHeight() < 1)) {
+            throw new IllegalArgumentException("ERROR: region must be a non empty rectangle");
+        }
+        this.region = region;
+        return this;
+    }
+
+    /**
+     * Render coarse passes before the image, for a quick look at its composition. The first pass
+     * traces one ray per block of 8x8 pixels and the second per block of 4x4, without
+     * anti-aliasing and with the recursion of reflections and refractions capped. Every block is
+     * filled with its color and the listener is called, then the image is rendered as usual over
+     * it.
+     * @param previewListener called after every coarse pass, null to render without them
+     * @return the camera itself
+     */
+    public Camera setPreview(PreviewListener previewListener) {
+        this.previewListener = previewListener;
+        return this;
+    }
+
+    /**
+     * Set the size of the tiles that the render workers take, small tiles balance the load
+     * better and big tiles keep more of the scene in the cache.
+     * @param tileSize width and height of a tile in pixels, MUST be positive
+     * @return the camera itself
+     * @throws IllegalArgumentException if the size isn't positive
+     */
+    public Camera setTileSize(int tileSize) {
+        if (tileSize < 1) {
+            throw new IllegalArgumentException("ERROR: tile size must be positive");
+        }
+        this.tileSize = tileSize;
+        return this;
+    }
+
+    /**
+     * Set the amount of render worker threads, the default is the amount of processors.
+     * @param threadsCount amount of threads, MUST be positive
+     * @return the camera itself
+     * @throws IllegalArgumentException if the amount isn't positive
+     */
+    public Camera setThreadsCount(int threadsCount) {
+        if (threadsCount < 1) {
+            throw new IllegalArgumentException("ERROR: threads count must be positive");
+        }
+        this.threadsCount = threadsCount;
+        return this;
+    }
+
+    /**
+     * Set the order of tracing the pixels, see {@link PixelOrder}.
+     * @param pixelOrder the order
+     * @return the camera itself
+     */
+    public Camera setPixelOrder(PixelOrder pixelOrder) {
+        if (pixelOrder == null) {
+            throw new IllegalArgumentException("ERROR: pixel order can't be null");
+        }
+        this.pixelOrder = pixelOrder;
+        return this;
+    }
+
+    /**
+     * Set the positions of the beam rays inside a pixel, see {@link Sampler}. The adaptive beam of
+     * the ray tracer subdivides the grid of the beam, so it works best with the grid samplers.
+     * @param sampler the sampler
+     * @return the camera itself
+     */
+    public Camera setSampler(Sampler sampler) {
+        if (sampler == null) {
+            throw new IllegalArgumentException("ERROR: sampler can't be null");
+        }
+        this.sampler = sampler;
+        return this;
+    }
+
+    /**
+     * Sample every pixel by its estimated error instead of the fixed beam of rays, see
+     * {@link AdaptiveSampler}.
+     * @param adaptiveSampler the sampler, null to go back to the beam rays
+     * @return the camera itself
+     */
+    public Camera setAdaptiveSampler(AdaptiveSampler adaptiveSampler) {
+        this.adaptiveSampler = adaptiveSampler;
+        return this;
+    }
+
+    /**
+     * Anti-alias by adaptive subdivision of the pixels with corner samples that are shared
+     * between neighbouring pixels, see {@link SharedCornerSampler}. It's used instead of the beam
+     * rays and of the adaptive sampler.
+     * @param cornerSampler the sampler, null to stop using it
+     * @return the camera itself
+     */
+    public Camera setCornerSampler(SharedCornerSampler cornerSampler) {
+        this.cornerSampler = cornerSampler;
+        return this;
+    }
+
     public Point getP0() {
         return p0;
     }
@@ -136,6 +276,18 @@ public class Camera {
      * @throws MissingResourceException if some resource is missing
      */
     private void checkAndThrowIfMissingResources() throws MissingResourceException {
+        if (imageWriter == null) {
+            throw new MissingResourceException("ERROR: Missing resource name: imageWriter",
+                    ImageWriter.class.getName(), "");
+        }
+        checkAndThrowIfMissingViewResources();
+    }
+
+    /**
+     * Check the resources that are needed to trace, without the image writer.
+     * @throws MissingResourceException if some resource is missing
+     */
+    private void checkAndThrowIfMissingViewResources() throws MissingResourceException {
         String errorMessage = "ERROR: Missing resource name: ";
         String key = "";
 
@@ -143,10 +295,6 @@ public class Camera {
             throw new MissingResourceException(errorMessage + "rayTracer",
                     RayTracerBase.class.getName(), key);
         }
-        if (imageWriter == null) {
-            throw new MissingResourceException(errorMessage + "imageWriter",
-                    ImageWriter.class.getName(), key);
-        }
         if (p0 == null) {
             throw new MissingResourceException(errorMessage + "p0", Point.class.getName(), key);
         }
@@ -163,26 +311,27 @@ public class Camera {
     }
 
     /**
-     * Rotating the camera by degree in radians.
-     * @param radians the degrees in radians
+     * Rotating the camera about one of its own axes: X is its view direction, Y its right vector
+     * and Z its up vector.
+     * @param degrees the angle in degrees
      * @param axis to which axis to rotate
      * @return the camera itself
      */
-    public Camera rotation(double radians, Axis axis) {
+    public Camera rotation(double degrees, Axis axis) {
         switch (axis) {
             case X:
-                return rotateAxisX(radians);
+                return rotateAxisX(degrees);
             case Y:
-                return rotateAxisY(radians);
+                return rotateAxisY(degrees);
             case Z:
-                return rotateAxisZ(radians);
+                return rotateAxisZ(degrees);
         }
         return this;
     }
 
     /**
      * Helper for {@link #rotation(double, Axis)}.
-     * @param theta an angle in radians
+     * @param theta an angle in degrees
      * @return the result vector after the rotation
      */
     public Camera rotateAxisX(double theta) {
@@ -194,7 +343,7 @@ public class Camera {
 
     /**
      * Helper for {@link #rotation(double, Axis)}.
-     * @param theta an angle in radians
+     * @param theta an angle in degrees
      * @return the result vector after the rotation
      */
     public Camera rotateAxisY(double theta) {
@@ -207,7 +356,7 @@ public class Camera {
 
     /**
      * Helper for {@link #rotation(double, Axis)}.
-     * @param theta an angle in radians
+     * @param theta an angle in degrees
      * @return the result vector after the rotation
      */
     public Camera rotateAxisZ(double theta) {
@@ -308,6 +457,41 @@ public class Camera {
             return new Ray(p0, dir);
         }
 
+    /**
+     * Find a ray from p0 through a point inside a pixel.
+     * @param nX the number of the columns
+     * @param nY the number of the rows
+     * @param column column of the pixel
+     * @param row row of the pixel
+     * @param u offset to the right inside the pixel, from 0 to 1 (0.5 is the center)
+     * @param v offset down inside the pixel, from 0 to 1 (0.5 is the center)
+     * @return ray from p0 through the point
+     */
+    public Ray constructSampleRay(int nX, int nY, int column, int row, double u, double v) {
+        Point point = p0.add(vectorTo.scale(distance));
+        double xJ = alignZero((column + u - nX / 2d) * width / nX);
+        double yI = alignZero(-(row + v - nY / 2d) * height / nY);
+        if (!isZero(xJ)) {
+            point = point.add(vectorRight.scale(xJ));
+        }
+        if (!isZero(yI)) {
+            point = point.add(vectorUp.scale(yI));
+        }
+        return new Ray(p0, point.subtract(p0));
+    }
+
+    /**
+     * Set up the view plane of the camera for a resolution, to make many rays without
+     * recomputing it, see {@link ViewPlane}. The plane doesn't follow later changes of the camera.
+     * @param nX amount of columns
+     * @param nY amount of rows
+     * @return the view plane
+     * @throws IllegalArgumentException if the resolution isn't positive
+     */
+    public ViewPlane getViewPlane(int nX, int nY) {
+        return new ViewPlane(p0, vectorTo, vectorUp, vectorRight, distance, width, height, nX, nY);
+    }
+
     /**
      * Find all the intersection points with the plan view and geometry.
      * @param nX row count pixels
@@ -334,87 +518,475 @@ public class Camera {
 
 
     /**
-     * Find a ray from p0 to the center of the pixel from the given resolution.
+     * Find the rays from p0 through the samples of the beam of the pixel.
      * @param nX the number of the rows
      * @param nY the number of the columns
      * @param column column
      * @param row row
-     * @return ray from p0 the center to the center of the pixel in row column
+     * @return the rays through the samples, placed by the sampler of the camera
      */
-    public List<Ray> constructBeamRays(int nX, int nY, int column, int row)
-    {
-        // If there is only one ray per pixel, use the constructRay function to create it.
+    public List<Ray> constructBeamRays(int nX, int nY, int column, int row) {
+        List<Ray> rays = new ArrayList<>(lineBeamRays * lineBeamRays);
+        for (int index = 0; index < lineBeamRays * lineBeamRays; index++) {
+            rays.add(constructBeamRay(nX, nY, column, row, index));
+        }
+        return rays;
+    }
+
+    /**
+     * Find the ray from p0 through one sample of the beam of the pixel, so the rays of a beam are
+     * made only when they are traced.
+     * @param nX the number of the rows
+     * @param nY the number of the columns
+     * @param column column
+     * @param row row
+     * @param index index of the sample, for the grid samplers the cell (row * beam side + column)
+     * @return ray through the sample
+     */
+    public Ray constructBeamRay(int nX, int nY, int column, int row, int index) {
         if (lineBeamRays == 1) {
-            return List.of(constructRay(nX, nY, column, row, width, height));
+            return constructRay(nX, nY, column, row, width, height);
         }
-        // Variables used in the function.
-        Vector dir;
-        Point pointCenter, pointCenterPixel;
-        Ray ray;
-        double ratioY, ratioX, yI, xJ;
-        List<Ray> rays = new LinkedList<>();
-        // Compute the center point of the pixel.
-        pointCenter = p0.add(vectorTo.scale(distance));
-        ratioY = height / nY;
-        ratioX = width / nX;
-        // Compute the position of the pixel in the camera coordinate system.
-        pointCenterPixel = pointCenter;
-        yI = -1 * (row - (nY - 1) / 2d) * ratioY;
-        xJ = (column - (nX - 1) / 2d) * ratioX;
-        if (!isZero(xJ)) {
-            pointCenterPixel = pointCenterPixel.add(vectorRight.scale(xJ));
+        int count = lineBeamRays * lineBeamRays;
+        return constructSampleRay(nX, nY, column, row,
+                sampler.get(column, row, index, count, 0), sampler.get(column, row, index, count, 1));
+    }
+
+    /**
+     * Render the image tile by tile on a dedicated pool of workers, in the pixel order of the
+     * camera.
+     * @return the camera itself
+     * @throws MissingResourceException if some resource is missing
+     */
+    public Camera renderImage() throws MissingResourceException {
+        checkAndThrowIfMissingResources();
+        try (TileScheduler scheduler = new TileScheduler(threadsCount)) {
+            return renderImage(scheduler);
         }
-        if (!isZero(yI)) {
-            pointCenterPixel = pointCenterPixel.add(vectorUp.scale(yI));
-        }
-        // For each sub-pixel in the pixel, compute the ray that passes through it.
-        for (int internalRow = 0; internalRow < lineBeamRays; internalRow++) {
-            for (int internalColumn = 0; internalColumn < lineBeamRays; internalColumn++) {
-                // Compute the position of the sub-pixel.
-                double rY = ratioY / lineBeamRays;
-                double rX = ratioX / lineBeamRays;
-                double ySampleI = -1 * (internalRow - (rY - 1) / 2d) * rY;
-                double xSampleJ = (internalColumn - (rX - 1) / 2d) * rX;
-                Point pIJ = pointCenterPixel;
-                if (!isZero(xSampleJ)) {
-                    pIJ = pIJ.add(vectorRight.scale(xSampleJ));
-                }
-                if (!isZero(ySampleI)) {
-                    pIJ = pIJ.add(vectorUp.scale(-ySampleI));
+    }
+
+    /**
+     * Render the image on the workers of a scheduler that is shared with other renders, the
+     * threads count of the camera isn't used.
+     * @param scheduler the scheduler
+     * @return the camera itself
+     * @throws MissingResourceException if some resource is missing
+     */
+    public Camera renderImage(TileScheduler scheduler) throws MissingResourceException {
+        checkAndThrowIfMissingResources();
+        rayTracer.prepare();
+        int nX = imageWriter.getNx();
+        int nY = imageWriter.getNy();
+        ViewPlane plane = getViewPlane(nX, nY);
+        List<Tile> tiles = renderTiles(nX, nY);
+        if (previewListener != null) {
+            for (int scale : PREVIEW_SCALES) {
+                renderPreview(scheduler, plane, scale);
+                previewListener.preview(imageWriter, scale);
+            }
+        }
+        if (cornerSampler != null || adaptiveSampler == null) {
+            scheduler.run(tiles, tile -> renderTile(plane, tile, imageWriter::writePixel));
+        } else {
+            adaptiveSampler.render(nX, nY, tiles, scheduler, (x, y, u, v) ->
+                    rayTracer.traceRay(plane.constructRay(x, y, u, v)))
+                    .writeTo(imageWriter);
+        }
+        return this;
+    }
+
+    /**
+     * Render the image and keep its progress in a checkpoint file. If the file is of an earlier
+     * run of the same render, its finished tiles are copied to the image writer and only the
+     * other tiles are traced, so a render that died goes on from where it stopped. The adaptive
+     * sampler, which needs the whole image, isn't used.
+     * @param checkpointFile the checkpoint file, created if it doesn't exist
+     * @return the camera itself
+     * @throws MissingResourceException if some resource is missing
+     * @throws IllegalStateException if the file is of a different render or can't be used
+     */
+    public Camera renderImage(Path checkpointFile) throws MissingResourceException {
+        checkAndThrowIfMissingResources();
+        rayTracer.prepare();
+        int nX = imageWriter.getNx();
+        int nY = imageWriter.getNy();
+        ViewPlane plane = getViewPlane(nX, nY);
+        List<Tile> tiles = renderTiles(nX, nY);
+        try (RenderCheckpoint checkpoint = new RenderCheckpoint(checkpointFile, nX, nY, tiles,
+                checkpointView());
+             TileScheduler scheduler = new TileScheduler(threadsCount)) {
+            checkpoint.restore(imageWriter);
+            Map<Tile, Integer> indexes = new IdentityHashMap<>();
+            List<Tile> remaining = new ArrayList<>();
+            for (int i = 0; i < tiles.size(); i++) {
+                if (!checkpoint.isDone(i)) {
+                    indexes.put(tiles.get(i), i);
+                    remaining.add(tiles.get(i));
                 }
-                // Compute the ray that passes through the sub-pixel.
-                ray = new Ray(p0, pIJ.subtract(p0));
+            }
+            scheduler.run(remaining, tile -> {
+                renderTile(plane, tile, imageWriter::writePixel);
+                checkpoint.save(indexes.get(tile), imageWriter);
+            });
+        }
+        return this;
+    }
 
-                // Add the ray to the list of rays.
-                rays.add(ray);
+    /**
+     * Get what decides the pixels of a checkpoint render besides its tiles: the view, the corner
+     * sampler and the identity of the prepared scene, its source file if it was loaded from one.
+     */
+    byte[] checkpointView() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            writeView(output);
+            output.writeInt(cornerSampler == null ? 0 : cornerSampler.getDepth());
+            PreparedScene scene = rayTracer.getPreparedScene();
+            output.writeUTF(String.valueOf(scene.name));
+            output.writeUTF(String.valueOf(scene.source));
+            for (Color color : new Color[]{scene.background, scene.ambientIntensity}) {
+                output.writeDouble(color.getRed());
+                output.writeDouble(color.getGreen());
+                output.writeDouble(color.getBlue());
+            }
+            output.writeInt(scene.geometries.getBoundedCount());
+            output.writeInt(scene.geometries.getUnboundedCount());
+            output.writeInt(scene.lights.size());
+            output.writeInt(scene.materials.size());
+            double[] bounds = scene.geometries.getBounds();
+            for (double value : bounds == null ? new double[0] : bounds) {
+                output.writeDouble(value);
             }
+        } catch (IOException e) {
+            throw new IllegalStateException("I/O error - can't write the view", e);
         }
-        // Return the list of rays.
-        return rays;
+        return bytes.toByteArray();
     }
 
-    public Camera renderImage() throws MissingResourceException
-    {
+    /**
+     * Render the image in the background. The returned handle cancels the render, reports its
+     * progress and waits for it. Once the time limit passes the workers stop taking tiles and the
+     * handle fails with a {@link java.util.concurrent.TimeoutException}, the finished tiles stay
+     * in the image writer.
+     * @param timeLimit the longest time to render, null for no limit
+     * @return the handle of the render
+     * @throws MissingResourceException if some resource is missing
+     */
+    public RenderHandle renderAsync(Duration timeLimit) throws MissingResourceException {
         checkAndThrowIfMissingResources();
-        IntStream.range(0, imageWriter.getNx())//rows
-                .parallel().//threads
-                forEach(row -> {
-                                IntStream
-                                .range(0, imageWriter.getNy())
-                                .parallel()
-                                .forEach(column -> {
-                                                    Ray ray = constructRay
-                                                    (imageWriter.getNx(),
-                                                    imageWriter.getNy(),
-                                                    row, column);
-                                                    List<Ray> rays = constructBeamRays(imageWriter.getNx(),
-                                                    imageWriter.getNy(), row, column);
-                                                    Color color = rayTracer.traceRay(rays);
-                                                    imageWriter.writePixel(row, column, color);
-                                                    });
-                                });
+        RenderHandle handle = new RenderHandle(timeLimit);
+        Thread thread = new Thread(() -> {
+            try (TileScheduler scheduler = new TileScheduler(threadsCount)) {
+                rayTracer.prepare();
+                ViewPlane plane = getViewPlane(imageWriter.getNx(), imageWriter.getNy());
+                List<Tile> tiles = renderTiles(plane.getNx(), plane.getNy());
+                handle.start(tiles.size());
+                scheduler.run(tiles, tile -> {
+                    renderTile(plane, tile, imageWriter::writePixel);
+                    handle.tileDone();
+                }, handle::shouldStop);
+                handle.finish(this);
+            } catch (RuntimeException e) {
+                handle.fail(e);
+            } catch (Throwable e) {
+                /* The handle fails also on an error, otherwise get() would wait forever */
+                handle.fail(e);
+                throw e;
+            }
+        }, "render");
+        thread.setDaemon(true);
+        thread.start();
+        return handle;
+    }
+
+    /**
+     * Render the image in passes of one sample per pixel, accumulating the samples. After every
+     * pass the average so far is written to the image writer and handed to the listener, so a
+     * rough image is ready after the first pass and it gets refined by the next ones.
+     * The first sample of a pixel is in its center and the next ones are spread over it by the
+     * sampler of the camera, or by the Halton sampler if it's the regular grid, which would fill
+     * the pixel row by row. The beam rays of the camera aren't used.
+     * @param maxSamples amount of samples per pixel to stop at
+     * @param budget time to stop after, checked between the passes, null for no limit
+     * @param listener called after every pass, may be null
+     * @return the accumulated samples
+     * @throws MissingResourceException if some resource is missing
+     * @throws IllegalArgumentException if the amount of samples isn't positive
+     */
+    public FrameBuffer renderProgressive(int maxSamples, Duration budget,
+                                         SnapshotListener listener)
+            throws MissingResourceException {
+        if (maxSamples < 1) {
+            throw new IllegalArgumentException("ERROR: samples count must be positive");
+        }
+        checkAndThrowIfMissingResources();
+        rayTracer.prepare();
+        long start = System.nanoTime();
+        int nX = imageWriter.getNx();
+        int nY = imageWriter.getNy();
+        FrameBuffer frame = new FrameBuffer(nX, nY);
+        ViewPlane plane = getViewPlane(nX, nY);
+        List<Tile> tiles = renderTiles(nX, nY);
+        Sampler sequence = sampler == Sampler.REGULAR ? Sampler.HALTON : sampler;
+        try (TileScheduler scheduler = new TileScheduler(threadsCount)) {
+            for (int sample = 0; sample < maxSamples; sample++) {
+                int index = sample;
+                scheduler.run(tiles, tile -> {
+                    int tileWidth = tile.getWidth();
+                    for (int pixel : pixelOrder.pixels(tileWidth, tile.getHeight())) {
+                        int x = tile.getX() + pixel % tileWidth;
+                        int y = tile.getY() + pixel / tileWidth;
+                        double u = index == 0 ? 0.5 : sequence.get(x, y, index, maxSamples, 0);
+                        double v = index == 0 ? 0.5 : sequence.get(x, y, index, maxSamples, 1);
+                        frame.add(x, y, rayTracer.traceRay(plane.constructRay(x, y, u, v)));
+                    }
+                });
+                frame.writeTo(imageWriter);
+                if (listener != null) {
+                    listener.snapshot(frame, sample + 1);
+                }
+                if (budget != null && System.nanoTime() - start >= budget.toNanos()) {
+                    break;
+                }
+            }
+        }
+        return frame;
+    }
+
+    /**
+     * Render an image that is too large for the image writer straight to a file, in bands of
+     * rows. Every band is rendered tile by tile and written as soon as it is done, so the memory
+     * used is bounded by the band. The resolution is taken from the output and the image writer
+     * isn't used, neither is the adaptive sampler, which compares pixels across the whole image.
+     * @param output the file to write
+     * @param bandHeight amount of rows in a band
+     * @return the camera itself
+     * @throws MissingResourceException if some resource is missing
+     * @throws IllegalArgumentException if the band height isn't positive
+     */
+    public Camera renderStreaming(BandWriter output, int bandHeight)
+            throws MissingResourceException {
+        if (bandHeight < 1) {
+            throw new IllegalArgumentException("ERROR: band height must be positive");
+        }
+        checkAndThrowIfMissingViewResources();
+        rayTracer.prepare();
+        int nX = output.getNx();
+        int nY = output.getNy();
+        ViewPlane plane = getViewPlane(nX, nY);
+        float[] band = new float[nX * Math.min(bandHeight, nY) * 3];
+        try (TileScheduler scheduler = new TileScheduler(threadsCount)) {
+            for (int top = 0; top < nY; top += bandHeight) {
+                int first = top;
+                int rows = Math.min(bandHeight, nY - top);
+                SharedCornerSampler.PixelWriter writer = (x, y, color) -> {
+                    int index = ((y - first) * nX + x) * 3;
+                    band[index] = (float) color.getRed();
+                    band[index + 1] = (float) color.getGreen();
+                    band[index + 2] = (float) color.getBlue();
+                };
+                List<Tile> tiles = new ArrayList<>();
+                for (Tile tile : pixelOrder.tiles(nX, rows, tileSize)) {
+                    tiles.add(tile.move(0, top));
+                }
+                scheduler.run(tiles, tile -> renderTile(plane, tile, writer));
+                output.writeBand(top, rows, band);
+            }
+        }
         return this;
     }
+
+    /**
+     * Render a coarse pass, one ray through the center of every block of pixels fills the block.
+     * @param scheduler runs the tiles
+     * @param plane the view plane of the render
+     * @param scale width and height of a block in pixels
+     */
+    private void renderPreview(TileScheduler scheduler, ViewPlane plane, int scale) {
+        Tile area = region == null ? new Tile(0, 0, plane.getNx(), plane.getNy()) : region;
+        List<Tile> tiles = new ArrayList<>();
+        for (Tile tile : Tile.split(area.getWidth(), area.getHeight(),
+                scale * Math.max(1, tileSize / scale))) {
+            tiles.add(tile.move(area.getX(), area.getY()));
+        }
+        scheduler.run(tiles, tile -> {
+            int right = tile.getX() + tile.getWidth();
+            int bottom = tile.getY() + tile.getHeight();
+            for (int y = tile.getY(); y < bottom; y += scale) {
+                for (int x = tile.getX(); x < right; x += scale) {
+                    int width = Math.min(scale, right - x);
+                    int height = Math.min(scale, bottom - y);
+                    Color color = rayTracer.traceRay(plane.constructRay(x + width / 2,
+                            y + height / 2, width % 2 * 0.5, height % 2 * 0.5), PREVIEW_MAX_LEVEL);
+                    for (int row = y; row < y + height; row++) {
+                        for (int column = x; column < x + width; column++) {
+                            imageWriter.writePixel(column, row, color);
+                        }
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * The tiles of a render in the pixel order, only of the region if it's set.
+     * @param nX amount of columns of the image
+     * @param nY amount of rows of the image
+     * @return the tiles
+     * @throws IllegalArgumentException if the region is out of the image
+     */
+    private List<Tile> renderTiles(int nX, int nY) {
+        if (region == null) {
+            return pixelOrder.tiles(nX, nY, tileSize);
+        }
+        if (region.getX() + region.getWidth() > nX || region.getY() + region.getHeight() > nY) {
+            throw new IllegalArgumentException("ERROR: region is out of the image");
+        }
+        List<Tile> tiles = new ArrayList<>();
+        for (Tile tile : pixelOrder.tiles(region.getWidth(), region.getHeight(), tileSize)) {
+            tiles.add(tile.move(region.getX(), region.getY()));
+        }
+        return tiles;
+    }
+
+    /**
+     * Prepare a render whose tiles run on workers that are shared with other renders. The adaptive
+     * sampler compares pixels across the whole image, so a camera that uses it can't be prepared.
+     * @param tiles receives the tiles of the image
+     * @return renders a tile of the image, null if the camera uses the adaptive sampler
+     * @throws MissingResourceException if some resource is missing
+     */
+    Consumer<Tile> prepareTiles(List<Tile> tiles) throws MissingResourceException {
+        checkAndThrowIfMissingResources();
+        if (cornerSampler == null && adaptiveSampler != null) {
+            return null;
+        }
+        rayTracer.prepare();
+        ViewPlane plane = getViewPlane(imageWriter.getNx(), imageWriter.getNy());
+        tiles.addAll(renderTiles(plane.getNx(), plane.getNy()));
+        return tile -> renderTile(plane, tile, imageWriter::writePixel);
+    }
+
+    RayTracerBase getRayTracer() {
+        return rayTracer;
+    }
+
+    ImageWriter getImageWriter() {
+        return imageWriter;
+    }
+
+    /**
+     * The tiles of a render whose pixels are traced by other processes, so the ray tracer of the
+     * camera isn't needed.
+     * @return the tiles of the image
+     * @throws MissingResourceException if the image writer or the view plane is missing
+     */
+    List<Tile> prepareRemoteTiles() throws MissingResourceException {
+        if (imageWriter == null) {
+            throw new MissingResourceException("ERROR: Missing resource name: imageWriter",
+                    ImageWriter.class.getName(), "");
+        }
+        if (p0 == null || distance == ERROR_VALUE_INT || isZero(width - ERROR_VALUE_DOUBLE)
+                || isZero(height - ERROR_VALUE_DOUBLE)) {
+            throw new MissingResourceException("ERROR: Missing resource name: view plane",
+                    ViewPlane.class.getName(), "");
+        }
+        return renderTiles(imageWriter.getNx(), imageWriter.getNy());
+    }
+
+    /**
+     * Prepare a render whose pixels are handed to a writer instead of the image writer, e.g. to
+     * send them to another process. The image writer isn't needed.
+     * @param nX amount of columns of the image
+     * @param nY amount of rows of the image
+     * @return renders a tile of the image to a writer
+     * @throws MissingResourceException if some resource is missing
+     */
+    BiConsumer<Tile, SharedCornerSampler.PixelWriter> prepareView(int nX, int nY)
+            throws MissingResourceException {
+        checkAndThrowIfMissingViewResources();
+        rayTracer.prepare();
+        ViewPlane plane = getViewPlane(nX, nY);
+        return (tile, writer) -> renderTile(plane, tile, writer);
+    }
+
+    /**
+     * Write the view of the camera: its position, view plane, beam and pixel order, to be built
+     * again by {@link #readView(DataInput)} in another process. The image writer, the ray tracer
+     * and the samplers that keep state across pixels aren't written.
+     * @param output the output
+     * @throws IOException on I/O error
+     */
+    void writeView(DataOutput output) throws IOException {
+        for (double value : new double[]{p0.getX(), p0.getY(), p0.getZ(),
+                vectorTo.getX(), vectorTo.getY(), vectorTo.getZ(),
+                vectorUp.getX(), vectorUp.getY(), vectorUp.getZ(), distance, width, height}) {
+            output.writeDouble(value);
+        }
+        output.writeInt(lineBeamRays);
+        output.writeInt(tileSize);
+        output.writeUTF(sampler.name());
+        output.writeUTF(pixelOrder.name());
+    }
+
+    /**
+     * Build a camera of a view written by {@link #writeView(DataOutput)}.
+     * @param input the input
+     * @return the camera, without an image writer and a ray tracer
+     * @throws IOException on I/O error
+     */
+    static Camera readView(DataInput input) throws IOException {
+        double[] values = new double[12];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = input.readDouble();
+        }
+        Camera camera = new Camera(new Point(values[0], values[1], values[2]),
+                new Vector(values[3], values[4], values[5]),
+                new Vector(values[6], values[7], values[8]))
+                .setVPDistance(values[9])
+                .setVPSize(values[10], values[11]);
+        int beamRays = input.readInt();
+        return camera.setBeamRays(beamRays * beamRays)
+                .setTileSize(input.readInt())
+                .setSampler(Sampler.valueOf(input.readUTF()))
+                .setPixelOrder(PixelOrder.valueOf(input.readUTF()));
+    }
+
+    /**
+     * Trace and write all the pixels of a tile. With the shared corner sampler the tile is
+     * sampled by it, with a single ray per pixel the directions of the whole tile are filled at
+     * once, otherwise every pixel traces its beam.
+     * @param plane the view plane of the render
+     * @param tile the tile
+     * @param writer receives the color of every pixel
+     */
+    private void renderTile(ViewPlane plane, Tile tile, SharedCornerSampler.PixelWriter writer) {
+        if (cornerSampler != null) {
+            cornerSampler.renderTile(tile, (x, y, u, v) ->
+                    rayTracer.traceRay(plane.constructRay(x, y, u, v)), writer);
+            return;
+        }
+        int width = tile.getWidth();
+        int[] pixels = pixelOrder.pixels(width, tile.getHeight());
+        if (lineBeamRays == 1) {
+            double[] directions = new double[pixels.length * 3];
+            plane.fillDirections(tile, 0.5, 0.5, directions);
+            for (int pixel : pixels) {
+                writer.write(tile.getX() + pixel % width, tile.getY() + pixel / width,
+                        rayTracer.traceRay(plane.constructRay(directions, pixel)));
+            }
+            return;
+        }
+        int count = lineBeamRays * lineBeamRays;
+        for (int pixel : pixels) {
+            int x = tile.getX() + pixel % width;
+            int y = tile.getY() + pixel / width;
+            writer.write(x, y, rayTracer.traceBeam(lineBeamRays,
+                    index -> plane.constructRay(x, y, sampler.get(x, y, index, count, 0),
+                            sampler.get(x, y, index, count, 1))));
+        }
+    }
+
     /**
      * Print grid with line as color param.
      * @param interval how many unit size to color (in height and width)
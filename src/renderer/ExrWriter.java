@@ -0,0 +1,179 @@
+package renderer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Writes OpenEXR files with half float red, green and blue channels, cut into uncompressed tiles
+ * of one resolution level. The values are the colors of the renderer divided by 255, so 1 is the
+ * white of the 8 bit image and brighter values are kept for later exposure changes.
+ */
+public class ExrWriter {
+    /** Default width and height of a tile */
+    public static final int DEFAULT_TILE_SIZE = 64;
+
+    private static final int MAGIC = 20000630;
+    private static final int TILED_VERSION = 2 | 0x200;
+    private static final int HALF = 1;
+    private static final int TILE_HEADER_BYTES = 20;
+
+    private final int tileSize;
+
+    /**
+     * Constructor.
+     * @param tileSize width and height of a tile
+     * @throws IllegalArgumentException if the size isn't positive
+     */
+    public ExrWriter(int tileSize) {
+        if (tileSize < 1) {
+            throw new IllegalArgumentException("ERROR: tile size must be positive");
+        }
+        this.tileSize = tileSize;
+    }
+
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    /**
+     * Write an image.
+     * @param file the file, replaced if it exists
+     * @param nX amount of columns
+     * @param nY amount of rows
+     * @param pixels red, green and blue of every pixel, row after row, in color units (0 to 255)
+     * @throws IOException if writing fails
+     * @throws IllegalArgumentException if pixels are missing
+     */
+    public void write(Path file, int nX, int nY, float[] pixels) throws IOException {
+        if (pixels.length < nX * nY * 3) {
+            throw new IllegalArgumentException("ERROR: pixels are missing from the image");
+        }
+        List<Tile> tiles = Tile.split(nX, nY, tileSize);
+        ByteBuffer header = header(nX, nY);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(channel, header);
+
+            /* Offsets of the tiles, row of tiles after row of tiles as Tile.split cuts them */
+            ByteBuffer offsets = ByteBuffer.allocate(tiles.size() * 8).order(ByteOrder.LITTLE_ENDIAN);
+            long offset = header.limit() + offsets.capacity();
+            for (Tile tile : tiles) {
+                offsets.putLong(offset);
+                offset += TILE_HEADER_BYTES + tile.getPixelsCount() * 6L;
+            }
+            writeFully(channel, offsets.flip());
+
+            for (Tile tile : tiles) {
+                int width = tile.getWidth();
+                ByteBuffer data = ByteBuffer.allocate(TILE_HEADER_BYTES + tile.getPixelsCount() * 6)
+                        .order(ByteOrder.LITTLE_ENDIAN);
+                data.putInt(tile.getX() / tileSize).putInt(tile.getY() / tileSize)
+                        .putInt(0).putInt(0).putInt(tile.getPixelsCount() * 6);
+                for (int y = tile.getY(); y < tile.getY() + tile.getHeight(); y++) {
+                    int row = (y * nX + tile.getX()) * 3;
+                    for (int color = 2; color >= 0; color--) { // B, G, R by name
+                        for (int x = 0; x < width; x++) {
+                            data.putShort(toHalf(pixels[row + x * 3 + color] / 255));
+                        }
+                    }
+                }
+                writeFully(channel, data.flip());
+            }
+        }
+    }
+
+    /**
+     * Attributes of the file, after the magic number and the version.
+     */
+    private ByteBuffer header(int nX, int nY) {
+        ByteBuffer buffer = ByteBuffer.allocate(512).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(TILED_VERSION);
+
+        attribute(buffer, "channels", "chlist", 3 * 18 + 1);
+        for (String name : new String[]{"B", "G", "R"}) {
+            string(buffer, name);
+            buffer.putInt(HALF).put(new byte[4]).putInt(1).putInt(1);
+        }
+        buffer.put((byte) 0);
+
+        attribute(buffer, "compression", "compression", 1);
+        buffer.put((byte) 0);
+        attribute(buffer, "dataWindow", "box2i", 16);
+        buffer.putInt(0).putInt(0).putInt(nX - 1).putInt(nY - 1);
+        attribute(buffer, "displayWindow", "box2i", 16);
+        buffer.putInt(0).putInt(0).putInt(nX - 1).putInt(nY - 1);
+        attribute(buffer, "lineOrder", "lineOrder", 1);
+        buffer.put((byte) 0);
+        attribute(buffer, "pixelAspectRatio", "float", 4);
+        buffer.putFloat(1);
+        attribute(buffer, "screenWindowCenter", "v2f", 8);
+        buffer.putFloat(0).putFloat(0);
+        attribute(buffer, "screenWindowWidth", "float", 4);
+        buffer.putFloat(1);
+        attribute(buffer, "tiles", "tiledesc", 9);
+        buffer.putInt(tileSize).putInt(tileSize).put((byte) 0); // one level
+        buffer.put((byte) 0);
+        return buffer.flip();
+    }
+
+    private static void attribute(ByteBuffer buffer, String name, String type, int size) {
+        string(buffer, name);
+        string(buffer, type);
+        buffer.putInt(size);
+    }
+
+    private static void string(ByteBuffer buffer, String value) {
+        buffer.put(value.getBytes(StandardCharsets.US_ASCII)).put((byte) 0);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Convert a float to the bits of a half float, rounding to the nearest even.
+     * @param value the float
+     * @return the half float bits
+     */
+    static short toHalf(float value) {
+        int bits = Float.floatToIntBits(value);
+        int sign = bits >>> 16 & 0x8000;
+        int exponent = (bits >>> 23 & 0xFF) - 127 + 15;
+        int mantissa = bits & 0x7FFFFF;
+        if ((bits & 0x7FFFFFFF) >= 0x7F800000) { // infinity or not a number
+            return (short) (sign | 0x7C00 | (mantissa != 0 ? 0x200 : 0));
+        }
+        if (exponent >= 31) { // too large, infinity
+            return (short) (sign | 0x7C00);
+        }
+        int half;
+        int rest;
+        int halfway;
+        if (exponent <= 0) { // subnormal half
+            if (exponent < -10) {
+                return (short) sign;
+            }
+            mantissa |= 0x800000;
+            int shift = 14 - exponent;
+            half = mantissa >> shift;
+            rest = mantissa & (1 << shift) - 1;
+            halfway = 1 << shift - 1;
+        } else {
+            half = exponent << 10 | mantissa >> 13;
+            rest = mantissa & 0x1FFF;
+            halfway = 0x1000;
+        }
+        if (rest > halfway || rest == halfway && (half & 1) != 0) {
+            half++; // a carry into the exponent is still the right value
+        }
+        return (short) (sign | half);
+    }
+}
@@ -0,0 +1,89 @@
+package renderer;
+
+import primitives.Color;
+
+/**
+ * Accumulates the samples of every pixel over rendering passes in float precision, the color
+ * of a pixel is the average of its samples. Different threads may add samples to different
+ * pixels at the same time.
+ */
+public class FrameBuffer {
+    private final int nX;
+    private final int nY;
+    private final float[] sums;
+    private final int[] samples;
+
+    /**
+     * Constructor.
+     * @param nX amount of columns
+     * @param nY amount of rows
+     */
+    public FrameBuffer(int nX, int nY) {
+        this.nX = nX;
+        this.nY = nY;
+        sums = new float[nX * nY * 3];
+        samples = new int[nX * nY];
+    }
+
+    public int getNx() {
+        return nX;
+    }
+
+    public int getNy() {
+        return nY;
+    }
+
+    /**
+     * Add a sample to a pixel.
+     * @param x column of the pixel
+     * @param y row of the pixel
+     * @param color color of the sample
+     */
+    public void add(int x, int y, Color color) {
+        int pixel = y * nX + x;
+        sums[pixel * 3] += (float) color.getRed();
+        sums[pixel * 3 + 1] += (float) color.getGreen();
+        sums[pixel * 3 + 2] += (float) color.getBlue();
+        samples[pixel]++;
+    }
+
+    /**
+     * Get the amount of samples of a pixel.
+     * @param x column of the pixel
+     * @param y row of the pixel
+     * @return the amount of samples
+     */
+    public int getSamples(int x, int y) {
+        return samples[y * nX + x];
+    }
+
+    /**
+     * Get the average color of a pixel.
+     * @param x column of the pixel
+     * @param y row of the pixel
+     * @return the average of the samples, black if there are none
+     */
+    public Color getColor(int x, int y) {
+        int pixel = y * nX + x;
+        int count = samples[pixel];
+        if (count == 0) {
+            return Color.BLACK;
+        }
+        return new Color(sums[pixel * 3] / count, sums[pixel * 3 + 1] / count,
+                sums[pixel * 3 + 2] / count);
+    }
+
+    /**
+     * Write the average color of every pixel that has samples.
+     * @param imageWriter the image, of the same resolution
+     */
+    public void writeTo(ImageWriter imageWriter) {
+        for (int y = 0; y < nY; y++) {
+            for (int x = 0; x < nX; x++) {
+                if (samples[y * nX + x] > 0) {
+                    imageWriter.writePixel(x, y, getColor(x, y));
+                }
+            }
+        }
+    }
+}
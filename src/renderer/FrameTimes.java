@@ -0,0 +1,43 @@
+package renderer;
+
+import java.time.Duration;
+
+/**
+ * Time that every stage of a frame took in a {@link RenderPipeline}, to find the stage that holds
+ * the frames back.
+ */
+public final class FrameTimes {
+    private final Duration setup;
+    private final Duration trace;
+    private final Duration output;
+
+    /**
+     * Constructor.
+     * @param setupNanos time of building and preparing the scene and the camera
+     * @param traceNanos time of tracing the image
+     * @param outputNanos time of encoding and writing the image
+     */
+    FrameTimes(long setupNanos, long traceNanos, long outputNanos) {
+        setup = Duration.ofNanos(setupNanos);
+        trace = Duration.ofNanos(traceNanos);
+        output = Duration.ofNanos(outputNanos);
+    }
+
+    public Duration getSetup() {
+        return setup;
+    }
+
+    public Duration getTrace() {
+        return trace;
+    }
+
+    public Duration getOutput() {
+        return output;
+    }
+
+    @Override
+    public String toString() {
+        return "setup " + setup.toMillis() + " ms, trace " + trace.toMillis() + " ms, output "
+                + output.toMillis() + " ms";
+    }
+}
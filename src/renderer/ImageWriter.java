@@ -4,8 +4,14 @@ import primitives.Color;
 
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.zip.Deflater;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -14,6 +20,11 @@ import java.util.logging.Logger;
  * producing a non-optimized jpeg image from this matrix. The class although is
  * responsible of holding image related parameters of View Plane - pixel matrix
  * size and resolution
+ * <p>
+ * The colors are kept in a float buffer, so they aren't truncated before the image is written
+ * and passes may be accumulated. Different threads may write different pixels without locks,
+ * every pixel is owned by the one tile that renders it. The buffer is quantized to 8 bits only
+ * when the image is asked for or written.
  *
  * @author Dan
  */
@@ -22,7 +33,9 @@ public class ImageWriter {
     private final int nX;
     private final int nY;
     private final BufferedImage image;
+    private final float[] pixels; // red, green and blue of every pixel, row after row
     private final String imageName;
+    private PngEncoder encoder = new PngEncoder(Deflater.DEFAULT_COMPRESSION);
 
     private final Logger logger = Logger.getLogger("ImageWriter");
 
@@ -39,9 +52,27 @@ public class ImageWriter {
         this.nY = nY;
 
         image = new BufferedImage(nX, nY, BufferedImage.TYPE_INT_RGB);
+        pixels = new float[nX * nY * 3];
     }
 
+    /**
+     * Set the compression level of the written PNG file, lower levels are faster and higher ones
+     * make smaller files.
+     * @param compressionLevel from 0 to 9, or -1 for the default level
+     * @return the image writer itself
+     * @throws IllegalArgumentException if the level is out of range
+     */
+    public ImageWriter setCompressionLevel(int compressionLevel) {
+        encoder = new PngEncoder(compressionLevel);
+        return this;
+    }
+
+    /**
+     * Get the image with the current colors of the pixels.
+     * @return the image, quantized to 8 bits per channel
+     */
     public BufferedImage getImage() {
+        quantize();
         return image;
     }
 
@@ -62,14 +93,15 @@ public class ImageWriter {
     }
 
     /**
-     * Function writeToImage produces unoptimized png file of the image according to
-     * pixel color matrix in the directory of the project.
+     * Function writeToImage produces png file of the image according to pixel color matrix in
+     * the directory of the project, the rows are compressed in parallel by {@link PngEncoder}.
      * @throws IllegalStateException if the directory is missing
      */
     public void writeToImage() throws IllegalStateException {
-        try {
-            File file = new File(FOLDER_PATH + '/' + imageName + ".png");
-            ImageIO.write(image, "png", file);
+        quantize();
+        try (OutputStream out = new BufferedOutputStream(
+                new FileOutputStream(FOLDER_PATH + '/' + imageName + ".png"))) {
+            encoder.encode(image, out);
         } catch (IOException e) {
             logger.log(Level.SEVERE, "I/O error", e);
             throw new IllegalStateException("I/O error - may be missing directory " + FOLDER_PATH,
@@ -77,6 +109,83 @@ public class ImageWriter {
         }
     }
 
+    /**
+     * Read the png file of the image from the directory of the project into the pixels, to
+     * render a region of it again and merge the region into it.
+     * @return the image writer itself
+     * @throws IllegalStateException if the file is missing or of another resolution
+     */
+    public ImageWriter readImage() throws IllegalStateException {
+        BufferedImage file;
+        try {
+            file = ImageIO.read(new File(FOLDER_PATH + '/' + imageName + ".png"));
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "I/O error", e);
+            throw new IllegalStateException("I/O error - may be missing file " + imageName, e);
+        }
+        if (file == null || file.getWidth() != nX || file.getHeight() != nY) {
+            throw new IllegalStateException("ERROR: image file " + imageName
+                    + " isn't a png of the same resolution");
+        }
+        for (int y = 0; y < nY; y++) {
+            for (int x = 0; x < nX; x++) {
+                int rgb = file.getRGB(x, y);
+                int index = (y * nX + x) * 3;
+                pixels[index] = rgb >> 16 & 0xFF;
+                pixels[index + 1] = rgb >> 8 & 0xFF;
+                pixels[index + 2] = rgb & 0xFF;
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Copy a rectangle of the pixels to a new image writer, to write a region by itself.
+     * @param imageName the name of the new image
+     * @param region the rectangle
+     * @return the new image writer, of the size of the rectangle
+     * @throws IllegalArgumentException if the rectangle is out of the image
+     */
+    public ImageWriter crop(String imageName, Tile region) {
+        if (region.getX() < 0 || region.getY() < 0 || region.getX() + region.getWidth() > nX
+                || region.getY() + region.getHeight() > nY) {
+            throw new IllegalArgumentException("ERROR: region is out of the image");
+        }
+        ImageWriter result = new ImageWriter(imageName, region.getWidth(), region.getHeight());
+        for (int y = 0; y < region.getHeight(); y++) {
+            System.arraycopy(pixels, ((region.getY() + y) * nX + region.getX()) * 3,
+                    result.pixels, y * region.getWidth() * 3, region.getWidth() * 3);
+        }
+        return result;
+    }
+
+    /**
+     * Write the colors without truncating them to a portable float map file in the directory of
+     * the project, see {@link BandWriter.Format#PFM}.
+     * @throws IllegalStateException if the directory is missing
+     */
+    public void writeToPfm() throws IllegalStateException {
+        try (BandWriter writer = new BandWriter(Path.of(FOLDER_PATH, imageName + ".pfm"),
+                BandWriter.Format.PFM, nX, nY)) {
+            writer.writeBand(0, nY, pixels);
+        }
+    }
+
+    /**
+     * Write the colors without truncating them to a half float tiled OpenEXR file in the
+     * directory of the project, see {@link ExrWriter}.
+     * @throws IllegalStateException if the directory is missing
+     */
+    public void writeToExr() throws IllegalStateException {
+        try {
+            new ExrWriter(ExrWriter.DEFAULT_TILE_SIZE)
+                    .write(Path.of(FOLDER_PATH, imageName + ".exr"), nX, nY, pixels);
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "I/O error", e);
+            throw new IllegalStateException("I/O error - may be missing directory " + FOLDER_PATH,
+                    e);
+        }
+    }
 
     /**
      * The function writePixel writes a color of a specific pixel into pixel color matrix.
@@ -85,7 +194,58 @@ public class ImageWriter {
      * @param color final color of the pixel
      */
     public void writePixel(int xIndex, int yIndex, Color color) {
-        image.setRGB(xIndex, yIndex, color.getColor().getRGB());
+        int index = (yIndex * nX + xIndex) * 3;
+        pixels[index] = (float) color.getRed();
+        pixels[index + 1] = (float) color.getGreen();
+        pixels[index + 2] = (float) color.getBlue();
+    }
+
+    /**
+     * Add a color to the color of a pixel, to accumulate passes of a render.
+     * @param xIndex X axis index of the pixel
+     * @param yIndex Y axis index of the pixel
+     * @param color the color to add
+     */
+    public void addPixel(int xIndex, int yIndex, Color color) {
+        int index = (yIndex * nX + xIndex) * 3;
+        pixels[index] += (float) color.getRed();
+        pixels[index + 1] += (float) color.getGreen();
+        pixels[index + 2] += (float) color.getBlue();
+    }
+
+    /**
+     * Get the color of a pixel, without truncating it.
+     * @param xIndex X axis index of the pixel
+     * @param yIndex Y axis index of the pixel
+     * @return the color of the pixel
+     */
+    public Color getPixel(int xIndex, int yIndex) {
+        int index = (yIndex * nX + xIndex) * 3;
+        return new Color(pixels[index], pixels[index + 1], pixels[index + 2]);
+    }
+
+    /**
+     * The colors of the pixels, for writers of high dynamic range formats.
+     * @return red, green and blue of every pixel, row after row
+     */
+    float[] getPixels() {
+        return pixels;
+    }
+
+    /**
+     * Write the float buffer to the image, every channel is truncated to 0 to 255.
+     */
+    private void quantize() {
+        int[] rgb = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        for (int pixel = 0, index = 0; pixel < rgb.length; pixel++, index += 3) {
+            rgb[pixel] = channel(pixels[index]) << 16 | channel(pixels[index + 1]) << 8
+                    | channel(pixels[index + 2]);
+        }
+    }
+
+    private static int channel(float value) {
+        int result = (int) value;
+        return result > 255 ? 255 : Math.max(result, 0);
     }
 
 
@@ -0,0 +1,57 @@
+package renderer;
+
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Values that change over time, e.g. the position of a camera or of an object in an animation.
+ * The values are given at key times and interpolated linearly between them, before the first key
+ * and after the last one they stay as in that key.
+ */
+public class Keyframes {
+    private final NavigableMap<Double, double[]> keys = new TreeMap<>();
+    private int dimensions;
+
+    /**
+     * Add a key.
+     * @param time the time of the key, in seconds
+     * @param values the values at the time, as many as in the other keys
+     * @return the keyframes themselves
+     * @throws IllegalArgumentException if there are no values or not as many as in the other keys
+     */
+    public Keyframes add(double time, double... values) {
+        if (values.length == 0 || !keys.isEmpty() && values.length != dimensions) {
+            throw new IllegalArgumentException("ERROR: all the keys must have the same values count");
+        }
+        dimensions = values.length;
+        keys.put(time, values.clone());
+        return this;
+    }
+
+    /**
+     * Get the values at a time.
+     * @param time the time, in seconds
+     * @return the interpolated values
+     * @throws IllegalStateException if there are no keys
+     */
+    public double[] valueAt(double time) {
+        if (keys.isEmpty()) {
+            throw new IllegalStateException("ERROR: no keys were added");
+        }
+        Map.Entry<Double, double[]> before = keys.floorEntry(time);
+        Map.Entry<Double, double[]> after = keys.ceilingEntry(time);
+        if (before == null) {
+            return after.getValue().clone();
+        }
+        if (after == null || before.getKey().equals(after.getKey())) {
+            return before.getValue().clone();
+        }
+        double t = (time - before.getKey()) / (after.getKey() - before.getKey());
+        double[] result = new double[dimensions];
+        for (int i = 0; i < dimensions; i++) {
+            result[i] = before.getValue()[i] + t * (after.getValue()[i] - before.getValue()[i]);
+        }
+        return result;
+    }
+}
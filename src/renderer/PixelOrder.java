@@ -0,0 +1,158 @@
+package renderer;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Order in which the pixels of an image are traced. Neighbouring pixels hit the same geometry,
+ * so tracing them one after the other keeps the hierarchy nodes and the geometry in the cache.
+ */
+public enum PixelOrder {
+    /** Whole rows, from left to right */
+    SCANLINE,
+    /** Square tiles row after row, the pixels of a tile row after row */
+    TILED,
+    /** Tiles and the pixels inside them along a Z-order (Morton) curve */
+    MORTON,
+    /** Tiles and the pixels inside them along a Hilbert curve */
+    HILBERT;
+
+    /**
+     * Cut the image into the units of work in the order they should be traced.
+     * @param nX amount of columns of the image
+     * @param nY amount of rows of the image
+     * @param tileSize width and height of a tile, ignored by {@link #SCANLINE}
+     * @return the tiles in order
+     */
+    public List<Tile> tiles(int nX, int nY, int tileSize) {
+        if (this == SCANLINE) {
+            List<Tile> rows = new ArrayList<>(nY);
+            for (int y = 0; y < nY; y++) {
+                rows.add(new Tile(0, y, nX, 1));
+            }
+            return rows;
+        }
+        List<Tile> tiles = Tile.split(nX, nY, tileSize);
+        if (this == TILED) {
+            return tiles;
+        }
+        int side = side((nX + tileSize - 1) / tileSize, (nY + tileSize - 1) / tileSize);
+        tiles.sort(Comparator.comparingLong(tile ->
+                curveIndex(tile.getX() / tileSize, tile.getY() / tileSize, side)));
+        return tiles;
+    }
+
+    /**
+     * Get the order of the pixels inside a tile.
+     * @param width amount of columns of the tile
+     * @param height amount of rows of the tile
+     * @return the offsets (row * width + column) of the pixels in order
+     */
+    public int[] pixels(int width, int height) {
+        int[] result = new int[width * height];
+        if (this == SCANLINE || this == TILED) {
+            for (int i = 0; i < result.length; i++) {
+                result[i] = i;
+            }
+            return result;
+        }
+        /* Walk the curve over the enclosing power of 2 square and skip what's outside */
+        int side = side(width, height);
+        int count = 0;
+        for (long d = 0; count < result.length; d++) {
+            int[] xy = curvePoint(d, side);
+            if (xy[0] < width && xy[1] < height) {
+                result[count++] = xy[1] * width + xy[0];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Smallest power of 2 that covers both dimensions.
+     */
+    private static int side(int width, int height) {
+        int side = 1;
+        while (side < width || side < height) {
+            side <<= 1;
+        }
+        return side;
+    }
+
+    /**
+     * Position of a cell along the curve of the order.
+     */
+    private long curveIndex(int x, int y, int side) {
+        if (this == MORTON) {
+            return spread(x) | spread(y) << 1;
+        }
+        long d = 0;
+        for (int s = side / 2; s > 0; s /= 2) {
+            int rx = (x & s) > 0 ? 1 : 0;
+            int ry = (y & s) > 0 ? 1 : 0;
+            d += (long) s * s * ((3 * rx) ^ ry);
+            if (ry == 0) {
+                if (rx == 1) {
+                    x = side - 1 - x;
+                    y = side - 1 - y;
+                }
+                int temp = x;
+                x = y;
+                y = temp;
+            }
+        }
+        return d;
+    }
+
+    /**
+     * Cell at a position along the curve of the order.
+     * @return the x and the y of the cell
+     */
+    private int[] curvePoint(long d, int side) {
+        if (this == MORTON) {
+            return new int[]{compact(d), compact(d >>> 1)};
+        }
+        int x = 0;
+        int y = 0;
+        for (int s = 1; s < side; s *= 2) {
+            int rx = (int) (1 & (d / 2));
+            int ry = (int) (1 & (d ^ rx));
+            if (ry == 0) {
+                if (rx == 1) {
+                    x = s - 1 - x;
+                    y = s - 1 - y;
+                }
+                int temp = x;
+                x = y;
+                y = temp;
+            }
+            x += s * rx;
+            y += s * ry;
+            d /= 4;
+        }
+        return new int[]{x, y};
+    }
+
+    /**
+     * Put the bits of the value in the even bits of the result.
+     */
+    private static long spread(int value) {
+        long result = 0;
+        for (int bit = 0; bit < 31; bit++) {
+            result |= (long) (value >>> bit & 1) << (2 * bit);
+        }
+        return result;
+    }
+
+    /**
+     * Collect the even bits of the value, the opposite of {@link #spread(int)}.
+     */
+    private static int compact(long value) {
+        int result = 0;
+        for (int bit = 0; bit < 31; bit++) {
+            result |= (int) (value >>> (2 * bit) & 1) << bit;
+        }
+        return result;
+    }
+}
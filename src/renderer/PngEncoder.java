@@ -0,0 +1,256 @@
+package renderer;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Encodes 8 bit RGB PNG images on several threads. The rows are cut into chunks that are
+ * filtered and deflated at the same time, every chunk but the last ends with a sync flush so the
+ * raw deflate streams are joined into one zlib stream, and the checksums of the chunks are
+ * combined. Every chunk is written as its own IDAT chunk.
+ */
+public class PngEncoder {
+    private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final int ADLER_BASE = 65521;
+    private static final int CHUNK_BYTES = 1 << 18; // raw bytes of a chunk of rows
+
+    private final int compressionLevel;
+
+    /**
+     * Constructor.
+     * @param compressionLevel from 0 (fastest) to 9 (smallest), or -1 for the default level
+     * @throws IllegalArgumentException if the level is out of range
+     */
+    public PngEncoder(int compressionLevel) {
+        if (compressionLevel < Deflater.DEFAULT_COMPRESSION
+                || compressionLevel > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("ERROR: compression level must be from -1 to 9");
+        }
+        this.compressionLevel = compressionLevel;
+    }
+
+    public int getCompressionLevel() {
+        return compressionLevel;
+    }
+
+    /**
+     * Encode an image, the chunks are deflated on the common fork join pool.
+     * @param image the image, its alpha is dropped
+     * @param out receives the PNG stream, it isn't closed
+     * @throws IOException if writing fails
+     */
+    public void encode(BufferedImage image, OutputStream out) throws IOException {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int rows = Math.max(1, Math.min(height, CHUNK_BYTES / (width * 3 + 1)));
+        List<CompletableFuture<Chunk>> chunks = new ArrayList<>();
+        for (int first = 0; first < height; first += rows) {
+            int start = first;
+            int count = Math.min(rows, height - first);
+            chunks.add(CompletableFuture.supplyAsync(
+                    () -> deflate(image, start, count, start + count == height),
+                    ForkJoinPool.commonPool()));
+        }
+
+        DataOutputStream data = new DataOutputStream(out);
+        data.write(SIGNATURE);
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        DataOutputStream headerData = new DataOutputStream(header);
+        headerData.writeInt(width);
+        headerData.writeInt(height);
+        headerData.write(new byte[]{8, 2, 0, 0, 0}); // 8 bit RGB, no interlace
+        writeChunk(data, "IHDR", header.toByteArray());
+
+        long adler = 1;
+        for (int i = 0; i < chunks.size(); i++) {
+            Chunk chunk;
+            try {
+                chunk = chunks.get(i).join();
+            } catch (CompletionException e) {
+                throw new IllegalStateException("ERROR: failed to encode the image", e.getCause());
+            }
+            adler = combineAdler(adler, chunk.adler, chunk.rawLength);
+            byte[] compressed = chunk.compressed;
+            if (i == 0) {
+                compressed = concat(new byte[]{0x78, (byte) 0x9C}, compressed); // zlib header
+            }
+            if (i == chunks.size() - 1) {
+                compressed = concat(compressed, new byte[]{(byte) (adler >>> 24),
+                        (byte) (adler >>> 16), (byte) (adler >>> 8), (byte) adler});
+            }
+            writeChunk(data, "IDAT", compressed);
+        }
+        writeChunk(data, "IEND", new byte[0]);
+        data.flush();
+    }
+
+    /**
+     * Rows of the image, filtered and deflated.
+     */
+    private static final class Chunk {
+        private final byte[] compressed;
+        private final long adler;
+        private final int rawLength;
+
+        private Chunk(byte[] compressed, long adler, int rawLength) {
+            this.compressed = compressed;
+            this.adler = adler;
+            this.rawLength = rawLength;
+        }
+    }
+
+    /**
+     * Filter and deflate a chunk of rows, to a raw deflate stream.
+     */
+    private Chunk deflate(BufferedImage image, int first, int count, boolean last) {
+        int width = image.getWidth();
+        int stride = width * 3;
+        int[] rgb = image.getRGB(0, Math.max(0, first - 1), width, first == 0 ? count : count + 1,
+                null, 0, width);
+        byte[] previous = new byte[stride];
+        byte[] current = new byte[stride];
+        int row = 0;
+        if (first > 0) {
+            toBytes(rgb, 0, previous);
+            row = 1;
+        }
+        byte[] raw = new byte[count * (stride + 1)];
+        for (int i = 0; i < count; i++, row++) {
+            toBytes(rgb, row * width, current);
+            filter(current, previous, raw, i * (stride + 1));
+            byte[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+
+        Adler32 adler = new Adler32();
+        adler.update(raw);
+        Deflater deflater = new Deflater(compressionLevel, true);
+        deflater.setInput(raw);
+        if (last) {
+            deflater.finish();
+        }
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(raw.length / 4 + 64);
+        byte[] buffer = new byte[1 << 16];
+        int length;
+        do {
+            length = last
+                    ? deflater.deflate(buffer)
+                    : deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+            compressed.write(buffer, 0, length);
+        } while (last ? !deflater.finished() : length == buffer.length);
+        deflater.end();
+        return new Chunk(compressed.toByteArray(), adler.getValue(), raw.length);
+    }
+
+    private static void toBytes(int[] rgb, int offset, byte[] row) {
+        for (int x = 0, i = 0; i < row.length; x++) {
+            int pixel = rgb[offset + x];
+            row[i++] = (byte) (pixel >>> 16);
+            row[i++] = (byte) (pixel >>> 8);
+            row[i++] = (byte) pixel;
+        }
+    }
+
+    /**
+     * Write a filtered row, choosing the filter with the smallest sum of absolute values.
+     * @param row the row
+     * @param previous the row above it, zeros for the first row
+     * @param raw receives the filter type and the filtered bytes
+     * @param offset position of the filter type in the raw bytes
+     */
+    private static void filter(byte[] row, byte[] previous, byte[] raw, int offset) {
+        int best = 0;
+        long bestSum = Long.MAX_VALUE;
+        for (int type = 0; type <= 4; type++) {
+            long sum = 0;
+            for (int i = 0; i < row.length && sum < bestSum; i++) {
+                sum += Math.abs(filtered(type, row, previous, i));
+            }
+            if (sum < bestSum) {
+                bestSum = sum;
+                best = type;
+            }
+        }
+        raw[offset] = (byte) best;
+        for (int i = 0; i < row.length; i++) {
+            raw[offset + 1 + i] = filtered(best, row, previous, i);
+        }
+    }
+
+    private static byte filtered(int type, byte[] row, byte[] previous, int i) {
+        int value = row[i] & 0xFF;
+        int left = i >= 3 ? row[i - 3] & 0xFF : 0;
+        int up = previous[i] & 0xFF;
+        int upLeft = i >= 3 ? previous[i - 3] & 0xFF : 0;
+        switch (type) {
+            case 1:
+                return (byte) (value - left);
+            case 2:
+                return (byte) (value - up);
+            case 3:
+                return (byte) (value - (left + up) / 2);
+            case 4:
+                return (byte) (value - paeth(left, up, upLeft));
+            default:
+                return (byte) value;
+        }
+    }
+
+    private static int paeth(int left, int up, int upLeft) {
+        int estimate = left + up - upLeft;
+        int toLeft = Math.abs(estimate - left);
+        int toUp = Math.abs(estimate - up);
+        int toUpLeft = Math.abs(estimate - upLeft);
+        if (toLeft <= toUp && toLeft <= toUpLeft) {
+            return left;
+        }
+        return toUp <= toUpLeft ? up : upLeft;
+    }
+
+    /**
+     * Adler-32 of two joined byte sequences from the checksums of each (as zlib's
+     * adler32_combine).
+     */
+    private static long combineAdler(long first, long second, int secondLength) {
+        long remainder = secondLength % ADLER_BASE;
+        long sum1 = first & 0xFFFF;
+        long sum2 = remainder * sum1 % ADLER_BASE;
+        sum1 += (second & 0xFFFF) + ADLER_BASE - 1;
+        sum2 += (first >>> 16) + (second >>> 16) + ADLER_BASE - remainder;
+        sum1 %= ADLER_BASE;
+        sum2 %= ADLER_BASE;
+        return sum1 | sum2 << 16;
+    }
+
+    private static byte[] concat(byte[] head, byte[] tail) {
+        byte[] result = new byte[head.length + tail.length];
+        System.arraycopy(head, 0, result, 0, head.length);
+        System.arraycopy(tail, 0, result, head.length, tail.length);
+        return result;
+    }
+
+    private static void writeChunk(DataOutputStream data, String type, byte[] content)
+            throws IOException {
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(content);
+        data.writeInt(content.length);
+        data.write(typeBytes);
+        data.write(content);
+        data.writeInt((int) crc.getValue());
+    }
+}
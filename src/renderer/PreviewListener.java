@@ -0,0 +1,14 @@
+package renderer;
+
+/**
+ * Receives the coarse passes of a render with a preview.
+ */
+@FunctionalInterface
+public interface PreviewListener {
+    /**
+     * Called after a coarse pass, the image writer holds it until the next pass replaces it.
+     * @param imageWriter the image writer, every block of pixels has the color of its center
+     * @param scale width and height of a block in pixels
+     */
+    void preview(ImageWriter imageWriter, int scale);
+}
@@ -2,15 +2,19 @@ package renderer;
 
 import primitives.Color;
 import primitives.Ray;
+import scene.PreparedScene;
 import scene.Scene;
 
 import java.util.List;
+import java.util.function.IntFunction;
 
 /**
  * The base class for ray tracing algorithms.
  */
 public abstract class RayTracerBase {
     protected Scene scene;
+    private volatile PreparedScene preparedScene;
+    private volatile boolean pinned; // written under the lock of the tracer
 
     /**
      * Constructor.
@@ -24,6 +28,76 @@ public abstract class RayTracerBase {
         this.scene = scene;
     }
 
+    /**
+     * Compile the scene before rendering, it's done once per render so edits of the scene
+     * between renders are seen. Does nothing if a prepared scene was given.
+     * @return the ray tracer itself
+     */
+    public RayTracerBase prepare() {
+        synchronized (this) {
+            if (!pinned) {
+                preparedScene = scene.prepare();
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Use a scene that was already prepared, e.g. shared by several cameras, instead of
+     * preparing the scene again on every render.
+     * @param preparedScene the prepared scene
+     * @return the ray tracer itself
+     */
+    public RayTracerBase setPreparedScene(PreparedScene preparedScene) {
+        if (preparedScene == null) {
+            throw new IllegalArgumentException("ERROR: prepared scene can't be null");
+        }
+        synchronized (this) {
+            this.preparedScene = preparedScene;
+            pinned = true;
+        }
+        return this;
+    }
+
+    /**
+     * Go back to preparing the scene on every render, after {@link #setPreparedScene}.
+     * @return the ray tracer itself
+     */
+    public RayTracerBase clearPreparedScene() {
+        synchronized (this) {
+            preparedScene = null;
+            pinned = false;
+        }
+        return this;
+    }
+
+    /**
+     * @return the prepared scene that was given to the tracer, null if it prepares the scene on
+     *     every render
+     */
+    PreparedScene getPinnedScene() {
+        synchronized (this) {
+            return pinned ? preparedScene : null;
+        }
+    }
+
+    /**
+     * Get the prepared scene to trace, preparing it first if no render prepared it yet.
+     * @return the prepared scene
+     */
+    protected PreparedScene getPreparedScene() {
+        PreparedScene prepared = preparedScene;
+        if (prepared == null) {
+            synchronized (this) {
+                if (preparedScene == null) {
+                    preparedScene = scene.prepare();
+                }
+                prepared = preparedScene;
+            }
+        }
+        return prepared;
+    }
+
     /**
      * Got a ray and return the color of the intersect geometries.
      * @param ray the ray
@@ -32,4 +106,29 @@ public abstract class RayTracerBase {
     public abstract Color traceRay(Ray ray);
     public abstract Color traceRay(List<Ray> ray);
 
+    /**
+     * Trace a ray with reflections and refractions only up to a level, for quick previews.
+     * Tracers that don't recurse trace it as usual.
+     * @param ray the ray
+     * @param maxLevel most levels of the recursion, 1 for only the local effects
+     * @return the color of the ray
+     */
+    public Color traceRay(Ray ray, int maxLevel) {
+        return traceRay(ray);
+    }
+
+    /**
+     * Trace a square beam of rays that are made on demand, and average their colors.
+     * @param n amount of rays in a side of the beam
+     * @param rays makes the ray of a cell of the beam by its index (row * n + column)
+     * @return the average color of the beam
+     */
+    public Color traceBeam(int n, IntFunction<Ray> rays) {
+        Color sum = Color.BLACK;
+        for (int index = 0; index < n * n; index++) {
+            sum = sum.add(traceRay(rays.apply(index)));
+        }
+        return sum.reduce(n * n);
+    }
+
 }
@@ -4,22 +4,19 @@ package renderer;
 import static primitives.Util.alignZero;
 
 import geometries.Intersectable;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.Deque;
 import java.util.List;
-import java.util.Map;
-import java.util.Stack;
-import java.util.stream.Collectors;
+import java.util.RandomAccess;
+import java.util.function.IntFunction;
 import lighting.LightSource;
 import primitives.Color;
 import primitives.Double3;
 import primitives.Material;
-import primitives.Pair;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
-import primitives.Wrapper;
 import scene.Scene;
 
 /**
@@ -64,10 +61,10 @@ public class RayTracerBasic extends RayTracerBase {
         Vector dir = ray.getDir();
 
         // קוטב הנורמלי לגיאומטריה בנקודת ההתנגשות
-        Vector normal = intersection.geometry.getNormal(intersection.point);
+        Vector normal = intersection.geometry.getNormal(intersection);
 
         // חומר הגיאומטריה שעליה הקרן מתנפקת
-        Material material = intersection.geometry.getMaterial();
+        Material material = getPreparedScene().getMaterial(intersection);
 
         // מחשב את המכפלה הסקלרית של הנורמל לקוטב הקרן
         double nv = alignZero(normal.dotProduct(dir));
@@ -78,7 +75,7 @@ public class RayTracerBasic extends RayTracerBase {
         }
 
         // עוברים על כל מקורות האור בסצנה
-        for (LightSource lightSource : scene.lights) {
+        for (LightSource lightSource : getPreparedScene().lights) {
             // מחשב את הקוטב של האור
             Vector dirLight = lightSource.getL(intersection.point);
 
@@ -99,7 +96,9 @@ public class RayTracerBasic extends RayTracerBase {
 
                     // מוסיף את ההשפעות של האור לצבע הכולל
                     color = color.add(calcDiffusive(material, dirLight, normal, intensity),
-                            calcSpecular(material, dirLight, normal, dir, intensity));
+                            material.hasSpecular()
+                                    ? calcSpecular(material, dirLight, normal, dir, intensity)
+                                    : Color.BLACK);
                 }
             }
         }
@@ -128,7 +127,7 @@ public class RayTracerBasic extends RayTracerBase {
 
         // אם t > 0 מחזירים את העצמה של האור מוכפלה בקפיצות השתקפות של החומר
         // ומועלה בחזקת הזוהר של החומר, אחרת מחזירים שחור
-        return t > 0 ? lightIntensity.scale(material.kS.scale(Math.pow(t, material.nShininess)))
+        return t > 0 ? lightIntensity.scale(material.getKs().scale(Math.pow(t, material.getShininess())))
                 : Color.BLACK;
     }
 
@@ -144,31 +143,34 @@ public class RayTracerBasic extends RayTracerBase {
     private Color calcDiffusive(Material material, Vector dirLight, Vector normal,
                                 Color lightIntensity) {
         double s = Math.abs(alignZero(dirLight.dotProduct(normal)));
-        return lightIntensity.scale(material.kD.scale(s));
+        return lightIntensity.scale(material.getKd().scale(s));
     }
 
     @Override
     public Color traceRay(List<Ray> rays) {
-        // מאתחלים את התוצאה
-        Color result;
-        // בדיקה אם המצלמה היא מצלמה שמתאימה את הרזולוציה באופן דינאמי ואם יש יותר מ-4 קרניים
-        if (isAdaptiveGrid && rays.size() > 4) {
-            // מאתחלים את העטיפה של הצבע כצבע שחור
-            Wrapper<Color> colorWrapper = new Wrapper<>(Color.BLACK);
-            // מאתחלים מפה שבה המפתח הוא הקרן והערך הוא הצבע של הפיקסל שאליו היא מצביעה
-            Map<Ray, Color> map = new HashMap<>();
-            // מפעילים פונקציה רקורסיבית שמחשבת את צבע הפיקסל של כל קרן
-            traceRayCube(colorWrapper, rays, map);
-            // מחשבים את הצבע הממוצע של הפיקסל
-            result = colorWrapper.variable.reduce(rays.size());
-        } else {
-            // יצירת רשימת צבעים על ידי חישוב הצבע של כל קרן באופן מקביל
-            List<Color> colors = rays.stream().map(this::traceRay).collect(Collectors.toList());
-            // מחשבים את הצבע הממוצע של הפיקסל
-            result = Color.average(colors, colors.size());
+        // גישה לפי אינדקס בזמן קבוע
+        List<Ray> indexed = rays instanceof RandomAccess ? rays : new ArrayList<>(rays);
+        int n = (int) Math.sqrt(indexed.size());
+        // רשת ריבועית מחושבת כאלומה, אחרת ממוצע של כל הקרניים
+        if (n * n == indexed.size()) {
+            return traceBeam(n, indexed::get);
         }
-        // מחזירים את הצבע שחושב לפיקסל
-        return result;
+        Color sum = Color.BLACK;
+        for (Ray ray : indexed) {
+            sum = sum.add(traceRay(ray));
+        }
+        return sum.reduce(indexed.size());
+    }
+
+    @Override
+    public Color traceRay(Ray ray, int maxLevel) {
+        Intersectable.GeoPoint closestPoint = findClosestIntersection(ray);
+        if (closestPoint == null) {
+            return getPreparedScene().background;
+        }
+        int level = Math.max(1, Math.min(maxLevel, MAX_CALC_COLOR_LEVEL));
+        return calcColor(closestPoint, ray, level, new Double3(DELTA))
+                .add(getPreparedScene().ambientIntensity);
     }
 
     @Override
@@ -181,10 +183,10 @@ public class RayTracerBasic extends RayTracerBase {
         Intersectable.GeoPoint closestPoint;
 
         // מוצאים את נקודות החיתוך של הקרן עם הגאומטריה
-        intersectPoints = scene.geometries.findGeoIntersections(ray);
+        intersectPoints = getPreparedScene().geometries.findGeoIntersections(ray);
         // אם אין נקודות חיתוך, הצבע של הפיקסל הוא צבע הרקע
         if (intersectPoints == null) {
-            color = scene.background;
+            color = getPreparedScene().background;
         } else {
             // אם יש נקודות חיתוך, מוצאים את הנקודה הקרובה ביותר
             closestPoint = ray.findClosestGeoPoint(intersectPoints);
@@ -198,95 +200,75 @@ public class RayTracerBasic extends RayTracerBase {
 
 
     /**
-     * Calculate the color of the point.
+     * Trace the beam, in adaptive grid mode only the corners of every sub-grid are traced and
+     * a sub-grid is divided to quarters only when its corners differ, up to the max level.
+     * The rays are made only when they are traced and every cell is traced once.
      *
-     * @param colorWrapper the color wrapper for hold the color
-     * @param allRays      the rays to calculate the color
-     * @param map          the map to hold the color and avoid calculate for the same ray
+     * @param n    amount of rays in a side of the beam
+     * @param rays makes the ray of a cell of the beam by its index (row * n + column)
+     * @return the average color of the beam
      */
-    public void traceRayCube(Wrapper<Color> colorWrapper, List<Ray> allRays, Map<Ray, Color> map)
-    {
-        // "color" will hold the color computed for a given ray
-        Color color = null;
-        // "rays" will be used to hold the current list of rays being processed
-        List<Ray> rays;
-        // "n" will be the square root of the number of rays (since rays are arranged in a grid)
-        // "level" will hold the current level of subdivision in the adaptive super-sampling process
-        int n, level;
-        // "pair" will hold the popped value from the stack, containing a list of rays and the associated subdivision level
-        Pair<List<Ray>, Integer> pair;
-        // A stack to keep track of all subdivisions, each entry contains a list of rays and their subdivision level
-        Stack<Pair<List<Ray>, Integer>> stack = new Stack<>();
-        // The initial list of rays and their subdivision level are added to the stack
-        stack.add(new Pair<>(allRays, maxLevel));
-
-        // Until the stack is empty, there are still rays that need to be processed
+    @Override
+    public Color traceBeam(int n, IntFunction<Ray> rays) {
+        if (!isAdaptiveGrid || n * n <= 4) {
+            return super.traceBeam(n, rays);
+        }
+        // צבעי התאים שכבר חושבו, לפי האינדקס של התא
+        Color[] memo = new Color[n * n];
+        Color sum = Color.BLACK;
+        // כל תת-רשת שמורה כשורה, עמודה, מספר שורות, מספר עמודות ורמה
+        Deque<int[]> stack = new ArrayDeque<>();
+        stack.push(new int[]{0, 0, n, n, maxLevel});
+
         while (!stack.isEmpty()) {
-            // Pop the top value from the stack, which contains the rays to be processed and their subdivision level
-            pair = stack.pop();
-            rays = pair.first;
-            level = pair.second;
-
-            // If subdivision level is <= 1, it means that rays can't be subdivided further
-            if (level <= 1) {
-                // Loop through the rays and calculate their color by calling the `traceRay` function
-                for (Ray ray : rays) {
-                    colorWrapper.variable = colorWrapper.variable.add(traceRay(ray));
+            int[] grid = stack.pop();
+            int row = grid[0], column = grid[1], rows = grid[2], columns = grid[3], level = grid[4];
+
+            // ברמה האחרונה או ברשת קטנה מחשבים את כל התאים
+            if (level <= 1 || rows * columns <= 4) {
+                for (int i = row; i < row + rows; i++) {
+                    for (int j = column; j < column + columns; j++) {
+                        sum = sum.add(traceCell(memo, i * n + j, rays));
+                    }
                 }
-                // Skip the rest of the loop and continue with the next iteration
                 continue;
             }
 
-            // Calculate the square root of the number of rays (assuming that rays are arranged in a square grid)
-            n = (int)Math.sqrt(rays.size());
-        /* Indexes of: topLeft, topRight, bottomLeft, bottomRight
-           these are the rays at the corners of the ray grid for the current level of subdivision */
-            int[] indexes = {0, (n - 1), (n * (n - 1)), (n * n - 1)};
-
-            // Create a list to store the colors of the corner rays
-            List<Color> cubeColors = new ArrayList<>(4);
-
-            // For each corner ray
-            for (int index : indexes) {
-                // Get the ray at the current index
-                Ray ray = rays.get(index);
-                // Check if the color of the ray is already calculated and stored in the map
-                if (map.containsKey(ray)) {
-                    // If yes, get the color from the map
-                    color = map.get(ray);
-                } else {
-                    // If no, calculate the color of the ray using `traceRay` function and store it in the map for future reference
-                    color = traceRay(ray);
-                    map.put(ray, color);
-                }
-                // Add the color of the ray to the list of corner colors
-                cubeColors.add(color);
-            }
-
-            // If there are only 4 rays left or all corner colors are equal
-            if (rays.size() <= 4 || Color.allEquals(cubeColors)) {
-                // Add the color scaled by the number of rays to the color wrapper
-                colorWrapper.variable = colorWrapper.variable.add(color.scale(n * n));
-
+            // הפינות של תת-הרשת
+            List<Color> corners = List.of(
+                    traceCell(memo, row * n + column, rays),
+                    traceCell(memo, row * n + column + columns - 1, rays),
+                    traceCell(memo, (row + rows - 1) * n + column, rays),
+                    traceCell(memo, (row + rows - 1) * n + column + columns - 1, rays));
 
+            // אם כל הפינות שוות, כל התאים מקבלים את הצבע שלהן
+            if (Color.allEquals(corners)) {
+                sum = sum.add(corners.get(0).scale(rows * columns));
             } else {
-                // If not, the grid of rays needs to be subdivided further
-                for (int row = 0; row < n; row += n / 2) {
-                    for (int column = 0; column < n; column += n / 2) {
-                        // Create a list to store the rays in the current sub-grid
-                        List<Ray> rayList = new LinkedList<>();
-                        for (int i = row; i < row + n / 2; i++) {
-                            for (int j = column; j < column + n / 2; j++) {
-                                // Add the rays in the current sub-grid to the list
-                                rayList.add(rays.get(i * n + j));
-                            }
-                        }
-                        // Push the list of rays in the current sub-grid and the next level of subdivision to the stack
-                        stack.push(new Pair<>(rayList, level - 1));
-                    }
-                }
+                // אחרת מחלקים לרבעים, גם כשהגודל אי-זוגי
+                int halfRows = rows / 2, halfColumns = columns / 2;
+                stack.push(new int[]{row, column, halfRows, halfColumns, level - 1});
+                stack.push(new int[]{row, column + halfColumns, halfRows, columns - halfColumns,
+                        level - 1});
+                stack.push(new int[]{row + halfRows, column, rows - halfRows, halfColumns,
+                        level - 1});
+                stack.push(new int[]{row + halfRows, column + halfColumns, rows - halfRows,
+                        columns - halfColumns, level - 1});
             }
         }
+        return sum.reduce(n * n);
+    }
+
+    /**
+     * Get the color of a cell of the beam, tracing it on the first time.
+     */
+    private Color traceCell(Color[] memo, int index, IntFunction<Ray> rays) {
+        Color color = memo[index];
+        if (color == null) {
+            color = traceRay(rays.apply(index));
+            memo[index] = color;
+        }
+        return color;
     }
 
     /**
@@ -310,7 +292,8 @@ public class RayTracerBasic extends RayTracerBase {
         // The light ray is a new ray object that is cast from the intersection point (offset by delta), along the direction towards the light source
         Ray lightRay = new Ray(geoPoint.point, lightDirection, normal);
         // Intersections are computed between the shadow ray and all the geometries in the scene
-        List<Intersectable.GeoPoint> intersections = scene.geometries.findGeoIntersections(lightRay);
+        List<Intersectable.GeoPoint> intersections =
+                getPreparedScene().geometries.findGeoIntersections(lightRay);
         // The initial transparency is set to 1 (fully transparent)
         Double3 result = Double3.ONE;
         // If there are no intersections, then the light source isn't blocked and the method returns full transparency
@@ -325,7 +308,12 @@ public class RayTracerBasic extends RayTracerBase {
             // it means the light is blocked, so the transparency is decreased.
             // The transparency is decreased proportionally to the transparency coefficient of the intersected object material
             if (alignZero(gp.point.distance(geoPoint.point) - lightDistance) <= 0) {
-                result = gp.geometry.getMaterial().kT.product(result);
+                Material material = getPreparedScene().getMaterial(gp);
+                // An opaque blocker hides the light completely
+                if (!material.isTransparent()) {
+                    return Double3.ZERO;
+                }
+                result = material.getKt().product(result);
                 // If transparency drops below a certain threshold, it is set to zero and returned,
                 // as the light is effectively fully blocked
                 if (result.lowerThan(MIN_CALC_COLOR_K)) {
@@ -347,7 +335,7 @@ public class RayTracerBasic extends RayTracerBase {
      */
     private Color calcColor(Intersectable.GeoPoint intersection, Ray ray, int level, Double3 k) {
         if (intersection == null) {
-            return scene.background;
+            return getPreparedScene().background;
         }
         Color color = intersection.geometry.getEmission();
         color = color.add(calcLocalEffects(intersection, ray, k));
@@ -364,7 +352,7 @@ public class RayTracerBasic extends RayTracerBase {
         return calcColor(intersection,
                          ray,
                          MAX_CALC_COLOR_LEVEL,
-                         new Double3(DELTA)).add(scene.ambientLight.getIntensity());
+                         new Double3(DELTA)).add(getPreparedScene().ambientIntensity);
     }
 
     /**
@@ -395,45 +383,54 @@ public class RayTracerBasic extends RayTracerBase {
         Color color = Color.BLACK;
 
         // חומר הגיאומטריה שעליה הקרן מתנפקת
-        Material material = geoPoint.geometry.getMaterial();
+        Material material = getPreparedScene().getMaterial(geoPoint);
 
-        // יוצר מקדם של השתקפות החומר שמתאים לרמת הקינון של הקרן
-        Double3 kR = material.kR.product(k);
+        // משטח מפזר בלבד - אין השפעות גלובליות ואין צורך לחשב דבר
+        if (!material.isReflective() && !material.isTransparent()) {
+            return color;
+        }
 
         // מציאת וקטור הנורמלי לגיאומטריה בנקודת המסיחה
-        Vector normal = geoPoint.geometry.getNormal(geoPoint.point);
+        Vector normal = geoPoint.geometry.getNormal(geoPoint);
 
-        // אם ההשפעה של השתקפות החומר היא לא קטנה מהמינימום המוגדר
-        if (!kR.lowerThan(MIN_CALC_COLOR_K)) {
-            // בניית הקרן המשתקפת
-            Ray reflectedRay = constructReflectedRay(normal, geoPoint.point, ray);
+        if (material.isReflective()) {
+            // יוצר מקדם של השתקפות החומר שמתאים לרמת הקינון של הקרן
+            Double3 kR = material.getKr().product(k);
 
-            // מציאת הנקודה הקרובה ביותר שעליה הקרן המשתקפת מתנפקת
-            Intersectable.GeoPoint reflectedPoint = findClosestIntersection(reflectedRay);
+            // אם ההשפעה של השתקפות החומר היא לא קטנה מהמינימום המוגדר
+            if (!kR.lowerThan(MIN_CALC_COLOR_K)) {
+                // בניית הקרן המשתקפת
+                Ray reflectedRay = constructReflectedRay(normal, geoPoint.point, ray);
 
-            // הוספה של צבע ההשפעה של הקרן המשתקפת לצבע הכולל
-            color = color.add(calcColor(reflectedPoint,
-                    reflectedRay,
-                    level - 1,
-                    kR).scale(material.kR));
+                // מציאת הנקודה הקרובה ביותר שעליה הקרן המשתקפת מתנפקת
+                Intersectable.GeoPoint reflectedPoint = findClosestIntersection(reflectedRay);
+
+                // הוספה של צבע ההשפעה של הקרן המשתקפת לצבע הכולל
+                color = color.add(calcColor(reflectedPoint,
+                        reflectedRay,
+                        level - 1,
+                        kR).scale(material.getKr()));
+            }
         }
 
-        // יוצר מקדם של שקיפות החומר שמתאים לרמת הקינון של הקרן
-        Double3 kT = material.kT.product(k);
+        if (material.isTransparent()) {
+            // יוצר מקדם של שקיפות החומר שמתאים לרמת הקינון של הקרן
+            Double3 kT = material.getKt().product(k);
 
-        // אם ההשפעה של שקיפות החומר היא לא קטנה מהמינימום המוגדר
-        if (!kT.lowerThan(MIN_CALC_COLOR_K)) {
-            // בניית הקרן השקופה
-            Ray refractedRay = constructRefractedRay(normal, geoPoint.point, ray);
+            // אם ההשפעה של שקיפות החומר היא לא קטנה מהמינימום המוגדר
+            if (!kT.lowerThan(MIN_CALC_COLOR_K)) {
+                // בניית הקרן השקופה
+                Ray refractedRay = constructRefractedRay(normal, geoPoint.point, ray);
 
-            // מציאת הנקודה הקרובה ביותר שעליה הקרן השקופה מתנפקת
-            Intersectable.GeoPoint refractedPoint = findClosestIntersection(refractedRay);
+                // מציאת הנקודה הקרובה ביותר שעליה הקרן השקופה מתנפקת
+                Intersectable.GeoPoint refractedPoint = findClosestIntersection(refractedRay);
 
-            // הוספה של צבע ההשפעה של הקרן השקופה לצבע הכולל
-            color = color.add(calcColor(refractedPoint,
-                    refractedRay,
-                    level - 1,
-                    kT).scale(material.kT));
+                // הוספה של צבע ההשפעה של הקרן השקופה לצבע הכולל
+                color = color.add(calcColor(refractedPoint,
+                        refractedRay,
+                        level - 1,
+                        kT).scale(material.getKt()));
+            }
         }
 
         // החזרת הצבע הסופי שמייצג את כל ההשפעות
@@ -458,7 +455,8 @@ public class RayTracerBasic extends RayTracerBase {
      * @return the closest geo point
      */
     private Intersectable.GeoPoint findClosestIntersection(Ray ray) {
-        List<Intersectable.GeoPoint> intersections = scene.geometries.findGeoIntersections(ray);
+        List<Intersectable.GeoPoint> intersections =
+                getPreparedScene().geometries.findGeoIntersections(ray);
         boolean isNullOrEmpty = intersections == null || intersections.isEmpty();
         return isNullOrEmpty ? null : ray.findClosestGeoPoint(intersections);
     }
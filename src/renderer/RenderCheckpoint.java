@@ -0,0 +1,189 @@
+package renderer;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Progress of a render kept in a memory mapped file, so a render that dies can be resumed. The
+ * file holds a flag per tile and the float colors of every pixel, and a hash of the tiles in their
+ * order and of the view of the render, so a render of another pixel order, region, tile size,
+ * camera, sampling or scene can't use it. A finished tile costs a copy of its pixels to the
+ * mapped memory, which the operating system keeps even if the process dies,
+ * and the file is forced to the disk at most every few seconds.
+ */
+public final class RenderCheckpoint implements AutoCloseable {
+    private static final int MAGIC = 0x52434B50;
+    /* 2: hash of the tiles, 3: hash of the tiles and the view */
+    private static final int VERSION = 3;
+    private static final int HEADER_BYTES = 28;
+    private static final long FORCE_INTERVAL = TimeUnit.SECONDS.toNanos(10);
+
+    private final Logger logger = Logger.getLogger("RenderCheckpoint");
+
+    private final int nX;
+    private final int nY;
+    private final List<Tile> tiles;
+    private final int pixelsOffset;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final AtomicLong lastForce = new AtomicLong(System.nanoTime());
+
+    /**
+     * Constructor, opens the file of an earlier render or creates a new one.
+     * @param file the file
+     * @param nX amount of columns
+     * @param nY amount of rows
+     * @param tiles the tiles of the render, in its order
+     * @param view anything else that decides the pixels, e.g. the camera, its samplers and the
+     *     identity of the scene
+     * @throws IllegalArgumentException if the image is too large to map
+     * @throws IllegalStateException if the file belongs to a different render or can't be opened
+     */
+    public RenderCheckpoint(Path file, int nX, int nY, List<Tile> tiles, byte[] view) {
+        this.nX = nX;
+        this.nY = nY;
+        this.tiles = List.copyOf(tiles);
+        pixelsOffset = (HEADER_BYTES + tiles.size() + 3) & ~3;
+        long size = pixelsOffset + (long) nX * nY * 12;
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("ERROR: image is too large for a checkpoint");
+        }
+        try {
+            boolean resume = Files.exists(file) && Files.size(file) > 0;
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            if (resume && channel.size() != size) {
+                channel.close();
+                throw new IllegalStateException("ERROR: checkpoint " + file
+                        + " belongs to a different render");
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "I/O error", e);
+            throw new IllegalStateException("I/O error - can't open the checkpoint " + file, e);
+        }
+        long layout = layoutHash(tiles, view);
+        int[] header = {MAGIC, VERSION, nX, nY, tiles.size(), (int) (layout >>> 32), (int) layout};
+        if (buffer.getInt(0) == 0) {
+            for (int i = 0; i < header.length; i++) {
+                buffer.putInt(i * 4, header[i]);
+            }
+        } else {
+            for (int i = 0; i < header.length; i++) {
+                if (buffer.getInt(i * 4) != header[i]) {
+                    close();
+                    throw new IllegalStateException("ERROR: checkpoint " + file
+                            + " belongs to a different render");
+                }
+            }
+        }
+    }
+
+    /**
+     * Hash of the rectangles of the tiles in their order and of the view (FNV-1a of 64 bits).
+     */
+    private static long layoutHash(List<Tile> tiles, byte[] view) {
+        long hash = 0xCBF29CE484222325L;
+        for (Tile tile : tiles) {
+            for (int value : new int[]{tile.getX(), tile.getY(), tile.getWidth(), tile.getHeight()}) {
+                hash = (hash ^ value) * 0x100000001B3L;
+            }
+        }
+        for (byte value : view) {
+            hash = (hash ^ (value & 0xFF)) * 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Check if a tile was finished.
+     * @param index index of the tile in the order of the render
+     * @return true if the tile was finished
+     */
+    public boolean isDone(int index) {
+        return buffer.get(HEADER_BYTES + index) != 0;
+    }
+
+    /**
+     * @return amount of finished tiles
+     */
+    public int getDoneCount() {
+        int count = 0;
+        for (int i = 0; i < tiles.size(); i++) {
+            if (isDone(i)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Copy the pixels of the finished tiles to an image writer.
+     * @param imageWriter the image writer
+     */
+    void restore(ImageWriter imageWriter) {
+        float[] pixels = imageWriter.getPixels();
+        for (int i = 0; i < tiles.size(); i++) {
+            if (isDone(i)) {
+                copy(tiles.get(i), pixels, false);
+            }
+        }
+    }
+
+    /**
+     * Keep the pixels of a finished tile and mark it as done. Different threads may save
+     * different tiles at the same time.
+     * @param index index of the tile in the order of the render
+     * @param imageWriter the image writer with the pixels of the tile
+     */
+    void save(int index, ImageWriter imageWriter) {
+        copy(tiles.get(index), imageWriter.getPixels(), true);
+        buffer.put(HEADER_BYTES + index, (byte) 1);
+        long last = lastForce.get();
+        long now = System.nanoTime();
+        if (now - last >= FORCE_INTERVAL && lastForce.compareAndSet(last, now)) {
+            buffer.force();
+        }
+    }
+
+    /**
+     * Copy the pixels of a tile between the mapped file and the float buffer of an image writer.
+     */
+    private void copy(Tile tile, float[] pixels, boolean toFile) {
+        for (int y = tile.getY(); y < tile.getY() + tile.getHeight(); y++) {
+            int start = (y * nX + tile.getX()) * 3;
+            for (int i = start; i < start + tile.getWidth() * 3; i++) {
+                int position = pixelsOffset + i * 4;
+                if (toFile) {
+                    buffer.putFloat(position, pixels[i]);
+                } else {
+                    pixels[i] = buffer.getFloat(position);
+                }
+            }
+        }
+    }
+
+    /**
+     * Force the checkpoint to the disk and close the file.
+     * @throws IllegalStateException if the file can't be closed
+     */
+    @Override
+    public void close() {
+        try {
+            buffer.force();
+            channel.close();
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "I/O error", e);
+            throw new IllegalStateException("I/O error - can't close the checkpoint", e);
+        }
+    }
+}
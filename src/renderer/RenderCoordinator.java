@@ -0,0 +1,401 @@
+package renderer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.MissingResourceException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Renders images on worker processes, on this machine or on others, when one process isn't
+ * enough. Workers ({@link RenderWorker}) connect to the coordinator, load the scene file of the
+ * render and trace the tiles that the coordinator hands out, a few tiles ahead of every worker
+ * thread so no worker waits for the network. A worker that dies, fails or doesn't answer in time
+ * is dropped and its tiles are handed to the other workers. Workers may join at any time.
+ * <p>
+ * Protocol, over a socket per worker: the worker sends {@link #MAGIC} and its threads count. For
+ * every render the coordinator sends the scene file with its size and modification time, so the
+ * workers load it again when it changed, the resolution and the view of the camera,
+ * then tiles (index, x, y, width, height) and {@link #END} after the last one. The worker answers
+ * every tile with its index and the float colors of its pixels, or {@link #END} and a message
+ * when it fails.
+ */
+public class RenderCoordinator implements AutoCloseable {
+    static final int MAGIC = 0x52444E31; // "RDN1"
+    static final int END = -1;
+    private static final int TILES_PER_THREAD = 2;
+
+    private final Logger logger = Logger.getLogger("RenderCoordinator");
+
+    private final ServerSocket server;
+    private final Object lock = new Object();
+    private final List<Socket> workers = new ArrayList<>(); // guarded by lock
+    private Job job; // guarded by lock
+    private boolean closed; // guarded by lock
+    private volatile Duration workerTimeout = Duration.ofMinutes(1);
+    private volatile Duration renderTimeout = Duration.ofMinutes(10);
+
+    /**
+     * A render, its tiles are shared by all the workers.
+     */
+    private static final class Job {
+        private final Camera camera;
+        private final String sceneFile;
+        private final long sceneSize;
+        private final long sceneModified;
+        private final ImageWriter imageWriter;
+        private final List<Tile> tiles;
+        private final Deque<Integer> pending = new ArrayDeque<>();
+        private int remaining;
+
+        private Job(Camera camera, Path sceneFile, List<Tile> tiles) throws IOException {
+            this.camera = camera;
+            this.sceneFile = sceneFile.toAbsolutePath().toString();
+            sceneSize = Files.size(sceneFile);
+            sceneModified = Files.getLastModifiedTime(sceneFile).to(TimeUnit.NANOSECONDS);
+            this.imageWriter = camera.getImageWriter();
+            this.tiles = tiles;
+            for (int i = 0; i < tiles.size(); i++) {
+                pending.add(i);
+            }
+            remaining = tiles.size();
+        }
+    }
+
+    /**
+     * Constructor, listens for workers on all the network interfaces.
+     * @param port the port, 0 for any free port
+     * @throws IllegalStateException if the port can't be listened on
+     */
+    public RenderCoordinator(int port) {
+        try {
+            server = new ServerSocket(port);
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "I/O error", e);
+            throw new IllegalStateException("I/O error - can't listen on port " + port, e);
+        }
+        AtomicInteger count = new AtomicInteger();
+        Thread acceptor = new Thread(() -> {
+            while (!server.isClosed()) {
+                try {
+                    Socket socket = server.accept();
+                    Thread thread = new Thread(() -> serve(socket),
+                            "render-coordinator-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.start();
+                } catch (IOException e) {
+                    if (!server.isClosed()) {
+                        logger.log(Level.WARNING, "Can't accept a worker", e);
+                    }
+                }
+            }
+        }, "render-coordinator-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /**
+     * @return the port that the workers connect to
+     */
+    public int getPort() {
+        return server.getLocalPort();
+    }
+
+    /**
+     * @return amount of connected workers
+     */
+    public int getWorkersCount() {
+        synchronized (lock) {
+            return workers.size();
+        }
+    }
+
+    /**
+     * Setter of the time to wait for a result of a worker before it's dropped and its tiles are
+     * handed to the other workers. It should be longer than the slowest tile. The workers that
+     * are connected use it from their next render.
+     * @param workerTimeout the time
+     * @return the coordinator itself
+     */
+    public RenderCoordinator setWorkerTimeout(Duration workerTimeout) {
+        this.workerTimeout = workerTimeout;
+        return this;
+    }
+
+    /**
+     * Setter of the time a render waits while no tile is finished, e.g. when no worker is
+     * connected, before it fails.
+     * @param renderTimeout the time
+     * @return the coordinator itself
+     */
+    public RenderCoordinator setRenderTimeout(Duration renderTimeout) {
+        this.renderTimeout = renderTimeout;
+        return this;
+    }
+
+    /**
+     * Render the image of the camera on the workers and wait for it. Every worker loads the scene
+     * from the file, which must be at the same path on all the machines, and traces it with
+     * {@link RayTracerBasic}. The adaptive and the shared corner samplers aren't used.
+     * @param camera the camera, with an image writer
+     * @param sceneFile the scene, saved by {@link scene.SceneCache#save}
+     * @return the camera itself
+     * @throws MissingResourceException if some resource of the camera is missing
+     * @throws IllegalStateException if the scene file can't be read, another render is running,
+     *     no tile was finished within the render timeout, the coordinator was closed or
+     *     interrupted
+     */
+    public Camera render(Camera camera, Path sceneFile) throws MissingResourceException {
+        Job render;
+        try {
+            render = new Job(camera, sceneFile, camera.prepareRemoteTiles());
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "I/O error", e);
+            throw new IllegalStateException("I/O error - can't read the scene file " + sceneFile, e);
+        }
+        synchronized (lock) {
+            if (job != null && job.remaining > 0) {
+                throw new IllegalStateException("ERROR: another render is running");
+            }
+            job = render;
+            lock.notifyAll();
+            long timeout = renderTimeout.toNanos();
+            int remaining = render.remaining;
+            long deadline = System.nanoTime() + timeout;
+            try {
+                while (render.remaining > 0) {
+                    if (closed) {
+                        throw new IllegalStateException("ERROR: coordinator was closed");
+                    }
+                    if (render.remaining < remaining) {
+                        remaining = render.remaining;
+                        deadline = System.nanoTime() + timeout;
+                    }
+                    long left = deadline - System.nanoTime();
+                    if (left <= 0) {
+                        throw new IllegalStateException("ERROR: no tile was finished in "
+                                + renderTimeout + ", " + workers.size() + " workers are connected");
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(lock, left);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancel(render);
+                throw new IllegalStateException("ERROR: interrupted while waiting for the workers",
+                        e);
+            } catch (IllegalStateException e) {
+                cancel(render);
+                throw e;
+            }
+        }
+        return camera;
+    }
+
+    /**
+     * Drop the tiles of a render that failed, so the workers only finish the tiles in flight and
+     * another render can start. Called with the lock held.
+     */
+    private void cancel(Job render) {
+        render.pending.clear();
+        render.remaining = 0;
+        lock.notifyAll();
+    }
+
+    /**
+     * Serve the renders to a worker until it fails or the coordinator is closed.
+     */
+    private void serve(Socket socket) {
+        SocketAddress address = socket.getRemoteSocketAddress();
+        try (socket) {
+            socket.setTcpNoDelay(true);
+            DataInputStream input = new DataInputStream(
+                    new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream output = new DataOutputStream(
+                    new BufferedOutputStream(socket.getOutputStream()));
+            if (input.readInt() != MAGIC) {
+                logger.warning("Not a worker: " + address);
+                return;
+            }
+            int threads = input.readInt();
+            if (threads < 1) {
+                logger.warning("Worker " + address + " has no threads: " + threads);
+                return;
+            }
+            int window = threads * TILES_PER_THREAD;
+            synchronized (lock) {
+                if (closed) {
+                    return;
+                }
+                workers.add(socket);
+            }
+            logger.info("Worker " + address + " joined");
+            Job served = null;
+            while ((served = nextJob(served)) != null) {
+                socket.setSoTimeout((int) workerTimeout.toMillis());
+                serve(served, window, input, output);
+            }
+        } catch (IOException e) {
+            synchronized (lock) {
+                if (closed) {
+                    return;
+                }
+            }
+            logger.log(Level.WARNING, "Worker " + address + " was dropped, its tiles go to the others",
+                    e);
+        } finally {
+            synchronized (lock) {
+                workers.remove(socket);
+            }
+        }
+    }
+
+    /**
+     * Wait for a render that the worker didn't serve yet.
+     * @return the render, null if the coordinator was closed
+     */
+    private Job nextJob(Job served) {
+        synchronized (lock) {
+            try {
+                while (!closed && (job == null || job == served || job.remaining == 0)) {
+                    lock.wait();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            return closed ? null : job;
+        }
+    }
+
+    /**
+     * Hand the tiles of a render to a worker until all the tiles of the render are done. If the
+     * worker fails, the tiles it didn't finish go back to the others.
+     */
+    private void serve(Job render, int window, DataInputStream input, DataOutputStream output)
+            throws IOException {
+        ImageWriter imageWriter = render.imageWriter;
+        output.writeUTF(render.sceneFile);
+        output.writeLong(render.sceneSize);
+        output.writeLong(render.sceneModified);
+        output.writeInt(imageWriter.getNx());
+        output.writeInt(imageWriter.getNy());
+        render.camera.writeView(output);
+        Deque<Integer> inFlight = new ArrayDeque<>();
+        List<Integer> next = new ArrayList<>();
+        try {
+            while (true) {
+                synchronized (lock) {
+                    while (!closed && inFlight.isEmpty() && render.pending.isEmpty()
+                            && render.remaining > 0) {
+                        lock.wait();
+                    }
+                    if (closed) {
+                        throw new IOException("coordinator was closed");
+                    }
+                    if (inFlight.isEmpty() && render.remaining == 0) {
+                        break;
+                    }
+                    while (inFlight.size() < window && !render.pending.isEmpty()) {
+                        next.add(render.pending.peek());
+                        inFlight.add(render.pending.poll());
+                    }
+                }
+                for (int index : next) {
+                    Tile tile = render.tiles.get(index);
+                    output.writeInt(index);
+                    output.writeInt(tile.getX());
+                    output.writeInt(tile.getY());
+                    output.writeInt(tile.getWidth());
+                    output.writeInt(tile.getHeight());
+                }
+                next.clear();
+                output.flush();
+                receive(render, input, inFlight);
+            }
+            output.writeInt(END);
+            output.flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted", e);
+        } finally {
+            synchronized (lock) {
+                while (!inFlight.isEmpty()) {
+                    render.pending.addFirst(inFlight.pollLast());
+                }
+                lock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Read the pixels of a tile that a worker finished into the image writer of the render. The
+     * tile stays in flight until all its pixels were read, so a worker that dies while sending
+     * it doesn't lose it.
+     */
+    private void receive(Job render, DataInputStream input, Deque<Integer> inFlight)
+            throws IOException {
+        int index = input.readInt();
+        if (index == END) {
+            throw new IOException("worker failed: " + input.readUTF());
+        }
+        if (!inFlight.contains(index)) {
+            throw new IOException("worker sent tile " + index + " that it wasn't given");
+        }
+        Tile tile = render.tiles.get(index);
+        float[] received = new float[tile.getPixelsCount() * 3];
+        for (int i = 0; i < received.length; i++) {
+            received[i] = input.readFloat();
+        }
+        inFlight.remove(index);
+        float[] pixels = render.imageWriter.getPixels();
+        int nX = render.imageWriter.getNx();
+        int rowLength = tile.getWidth() * 3;
+        for (int row = 0; row < tile.getHeight(); row++) {
+            System.arraycopy(received, row * rowLength, pixels,
+                    ((tile.getY() + row) * nX + tile.getX()) * 3, rowLength);
+        }
+        synchronized (lock) {
+            if (render.remaining > 0 && --render.remaining == 0) {
+                lock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Stop listening and disconnect the workers, a render that is running fails.
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            closed = true;
+            lock.notifyAll();
+            for (Socket socket : workers) {
+                try {
+                    socket.close();
+                } catch (IOException e) {
+                    logger.log(Level.FINE, "Can't close a worker", e);
+                }
+            }
+        }
+        try {
+            server.close();
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Can't close the coordinator", e);
+        }
+    }
+}
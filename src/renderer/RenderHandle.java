@@ -0,0 +1,138 @@
+package renderer;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Handle of a render that runs in the background, see {@link Camera#renderAsync(Duration)}.
+ * The render can be cancelled, and it stops by itself at its deadline. The workers check
+ * between tiles, so they stop once their current tiles are done. The tiles that were finished
+ * stay in the image writer. A render that passed its deadline fails with a
+ * {@link TimeoutException}.
+ */
+public final class RenderHandle implements Future<Camera> {
+    private final CompletableFuture<Camera> result = new CompletableFuture<>();
+    private final CountDownLatch stopped = new CountDownLatch(1);
+    private final AtomicInteger tilesDone = new AtomicInteger();
+    private final boolean limited;
+    private final long deadline;
+    private volatile int tilesCount;
+    private volatile boolean cancelled;
+
+    /**
+     * Constructor.
+     * @param timeLimit time from now to stop the render at, null for no limit
+     */
+    RenderHandle(Duration timeLimit) {
+        limited = timeLimit != null;
+        deadline = limited ? System.nanoTime() + timeLimit.toNanos() : 0;
+    }
+
+    /**
+     * Check whether the workers should stop taking tiles.
+     * @return true if the render was cancelled or passed its deadline
+     */
+    boolean shouldStop() {
+        return cancelled || isDeadlineExceeded();
+    }
+
+    void start(int tilesCount) {
+        this.tilesCount = tilesCount;
+    }
+
+    void tileDone() {
+        tilesDone.incrementAndGet();
+    }
+
+    /**
+     * Complete the handle once the workers stopped.
+     * @param camera the camera that rendered
+     */
+    void finish(Camera camera) {
+        if (tilesDone.get() < tilesCount && isDeadlineExceeded()) {
+            result.completeExceptionally(new TimeoutException("Render passed its deadline after "
+                    + tilesDone.get() + " of " + tilesCount + " tiles"));
+        } else {
+            result.complete(camera);
+        }
+        stopped.countDown();
+    }
+
+    /**
+     * Fail the handle once the workers stopped.
+     * @param error what failed the render
+     */
+    void fail(Throwable error) {
+        result.completeExceptionally(error);
+        stopped.countDown();
+    }
+
+    /**
+     * Get how much of the image was rendered.
+     * @return percentage of the tiles that are done, from 0 to 100
+     */
+    public double getProgress() {
+        int count = tilesCount;
+        return count == 0 ? 0 : 100d * tilesDone.get() / count;
+    }
+
+    /**
+     * Check whether the deadline of the render has passed.
+     * @return true if the deadline passed
+     */
+    public boolean isDeadlineExceeded() {
+        return limited && System.nanoTime() - deadline > 0;
+    }
+
+    /**
+     * Wait for the workers to stop, after the render finished or was cancelled.
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void awaitTermination() throws InterruptedException {
+        stopped.await();
+    }
+
+    /**
+     * Cancel the render, the workers stop after their current tiles.
+     * @param mayInterruptIfRunning ignored, the workers are never interrupted
+     * @return false if the render was already done
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        cancelled = true;
+        return result.cancel(false);
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return result.isCancelled();
+    }
+
+    @Override
+    public boolean isDone() {
+        return result.isDone();
+    }
+
+    @Override
+    public Camera get() throws InterruptedException, ExecutionException {
+        return result.get();
+    }
+
+    @Override
+    public Camera get(long timeout, TimeUnit unit)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        return result.get(timeout, unit);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("RenderHandle{%.1f%%%s}", getProgress(),
+                isCancelled() ? ", cancelled" : isDone() ? ", done" : "");
+    }
+}
@@ -0,0 +1,154 @@
+package renderer;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Renders a sequence of frames and writes them in the background. Tracing runs on one bounded
+ * pool of platform threads, a frame at a time, and the output of every frame (encoding and
+ * writing, often to a slow disk) runs on a thread of its own, so writing frame N overlaps with
+ * tracing frame N+1. Frames may also be set up (building and preparing their scene) on a thread
+ * of their own, so frame N+1 is set up while frame N is traced and frame N-1 is written.
+ */
+public class RenderPipeline implements AutoCloseable {
+    private final TileScheduler scheduler;
+    private final ExecutorService setups;
+    private final ExecutorService frames;
+    private final ExecutorService output;
+    private final Semaphore pendingOutputs;
+
+    /**
+     * Constructor.
+     * @param computeThreads amount of tracing threads
+     * @param maxPendingOutputs amount of traced frames that may wait for their output before
+     *     {@link #submit(Camera)} blocks
+     * @throws IllegalArgumentException if an amount isn't positive
+     */
+    public RenderPipeline(int computeThreads, int maxPendingOutputs) {
+        if (maxPendingOutputs < 1) {
+            throw new IllegalArgumentException("ERROR: pending outputs must be positive");
+        }
+        scheduler = new TileScheduler(computeThreads);
+        setups = Executors.newSingleThreadExecutor(threadFactory("render-setups-"));
+        frames = Executors.newSingleThreadExecutor(threadFactory("render-frames-"));
+        output = newOutputExecutor();
+        pendingOutputs = new Semaphore(maxPendingOutputs);
+    }
+
+    /**
+     * Executor of the output stage, a thread per task since the tasks mostly wait for I/O. On a
+     * JDK with virtual threads this is the place for Executors.newVirtualThreadPerTaskExecutor().
+     */
+    private static ExecutorService newOutputExecutor() {
+        return Executors.newCachedThreadPool(threadFactory("render-output-"));
+    }
+
+    private static ThreadFactory threadFactory(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Render the frame of the camera and write its image.
+     * @param camera the camera of the frame, with an image writer of its own
+     * @return completes when the image was written
+     */
+    public CompletableFuture<Camera> submit(Camera camera) {
+        return submit(camera, Camera::writeToImage);
+    }
+
+    /**
+     * Render the frame of the camera and hand it to an output stage.
+     * @param camera the camera of the frame, with an image writer of its own
+     * @param frameOutput encodes and writes the rendered frame
+     * @return completes when the output of the frame is done
+     * @throws IllegalStateException if interrupted while waiting for a pending output
+     */
+    public CompletableFuture<Camera> submit(Camera camera, Consumer<Camera> frameOutput) {
+        try {
+            pendingOutputs.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a frame output", e);
+        }
+        return CompletableFuture.supplyAsync(() -> camera.renderImage(scheduler), frames)
+                .thenApplyAsync(rendered -> {
+                    frameOutput.accept(rendered);
+                    return rendered;
+                }, output)
+                .whenComplete((rendered, error) -> pendingOutputs.release());
+    }
+
+    /**
+     * Set up a frame, render it and hand it to an output stage, timing every stage. The setup of
+     * the next frame overlaps with the tracing of this one. The pending frames that block this
+     * method are counted from their setup to the end of their output.
+     * @param frameSetup builds the camera of the frame, with a prepared scene and an image writer
+     *     of its own
+     * @param frameOutput encodes and writes the rendered frame
+     * @return completes with the times of the stages when the output of the frame is done
+     * @throws IllegalStateException if interrupted while waiting for a pending frame
+     */
+    public CompletableFuture<FrameTimes> submit(Supplier<Camera> frameSetup,
+                                                Consumer<Camera> frameOutput) {
+        try {
+            pendingOutputs.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a frame output", e);
+        }
+        long[] nanos = new long[2];
+        return CompletableFuture.supplyAsync(() -> {
+                    long start = System.nanoTime();
+                    Camera camera = frameSetup.get();
+                    nanos[0] = System.nanoTime() - start;
+                    return camera;
+                }, setups)
+                .thenApplyAsync(camera -> {
+                    long start = System.nanoTime();
+                    camera.renderImage(scheduler);
+                    nanos[1] = System.nanoTime() - start;
+                    return camera;
+                }, frames)
+                .thenApplyAsync(camera -> {
+                    long start = System.nanoTime();
+                    frameOutput.accept(camera);
+                    return new FrameTimes(nanos[0], nanos[1], System.nanoTime() - start);
+                }, output)
+                .whenComplete((times, error) -> pendingOutputs.release());
+    }
+
+    /**
+     * Wait for all the submitted frames to be rendered and written, and stop the threads.
+     * @throws IllegalStateException if interrupted while waiting
+     */
+    @Override
+    public void close() {
+        try {
+            /* The trace tasks are all submitted once the last frame was set up, and the output
+               tasks once the last frame was traced */
+            setups.shutdown();
+            setups.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            frames.shutdown();
+            frames.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            output.shutdown();
+            output.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the frames", e);
+        } finally {
+            scheduler.close();
+        }
+    }
+}
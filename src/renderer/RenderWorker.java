@@ -0,0 +1,182 @@
+package renderer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiConsumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import primitives.Color;
+import scene.Scene;
+import scene.SceneCache;
+
+/**
+ * Worker process of a {@link RenderCoordinator}: connects to the coordinator, loads the scene
+ * file of every render and traces the tiles it's handed on a pool of threads, sending back the
+ * pixels of every tile as soon as it's done. A scene that is rendered again isn't loaded again,
+ * unless the size or the modification time of its file changed.
+ * Started from the command line by {@code java renderer.RenderWorker host port [threads]}.
+ */
+public class RenderWorker implements Runnable {
+    private final Logger logger = Logger.getLogger("RenderWorker");
+
+    private final String host;
+    private final int port;
+    private final int threadsCount;
+
+    /**
+     * Constructor.
+     * @param host host of the coordinator
+     * @param port port of the coordinator
+     * @param threadsCount amount of tracing threads
+     * @throws IllegalArgumentException if the amount isn't positive
+     */
+    public RenderWorker(String host, int port, int threadsCount) {
+        if (threadsCount < 1) {
+            throw new IllegalArgumentException("ERROR: threads count must be positive");
+        }
+        this.host = host;
+        this.port = port;
+        this.threadsCount = threadsCount;
+    }
+
+    /**
+     * Run a worker until its coordinator closes.
+     * @param args host and port of the coordinator, and optionally the amount of threads
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: java renderer.RenderWorker host port [threads]");
+            System.exit(2);
+        }
+        int threads = args.length > 2 ? Integer.parseInt(args[2])
+                : Runtime.getRuntime().availableProcessors();
+        new RenderWorker(args[0], Integer.parseInt(args[1]), threads).run();
+    }
+
+    /**
+     * Serve the renders of the coordinator until it closes.
+     * @throws IllegalStateException if the coordinator can't be reached or the connection failed
+     *     during a render
+     */
+    @Override
+    public void run() {
+        ExecutorService pool = Executors.newFixedThreadPool(threadsCount, runnable -> {
+            Thread thread = new Thread(runnable, "render-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try (Socket socket = new Socket(host, port)) {
+            socket.setTcpNoDelay(true);
+            DataInputStream input = new DataInputStream(
+                    new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream output = new DataOutputStream(
+                    new BufferedOutputStream(socket.getOutputStream()));
+            output.writeInt(RenderCoordinator.MAGIC);
+            output.writeInt(threadsCount);
+            output.flush();
+            String loadedScene = null;
+            Scene scene = null;
+            while (true) {
+                String sceneFile;
+                try {
+                    sceneFile = input.readUTF();
+                } catch (EOFException e) {
+                    return; // the coordinator closed between renders
+                }
+                String sceneKey = sceneFile + ':' + input.readLong() + ':' + input.readLong();
+                int nX = input.readInt();
+                int nY = input.readInt();
+                Camera camera = Camera.readView(input);
+                BiConsumer<Tile, SharedCornerSampler.PixelWriter> renderer;
+                try {
+                    if (!sceneKey.equals(loadedScene)) {
+                        scene = SceneCache.load(Path.of(sceneFile));
+                        loadedScene = sceneKey;
+                    }
+                    renderer = camera.setRayTracer(new RayTracerBasic(scene)).prepareView(nX, nY);
+                } catch (RuntimeException e) {
+                    fail(socket, output, e);
+                    return;
+                }
+                while (true) {
+                    int index;
+                    try {
+                        index = input.readInt();
+                    } catch (EOFException e) {
+                        return; // the coordinator closed, its render is done or failed
+                    }
+                    if (index == RenderCoordinator.END) {
+                        break;
+                    }
+                    int tileIndex = index;
+                    Tile tile = new Tile(input.readInt(), input.readInt(), input.readInt(),
+                            input.readInt());
+                    pool.execute(() -> render(socket, output, tileIndex, tile, renderer));
+                }
+            }
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "I/O error", e);
+            throw new IllegalStateException("I/O error - lost the coordinator " + host + ":" + port,
+                    e);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Trace a tile and send its pixels, row after row.
+     */
+    private void render(Socket socket, DataOutputStream output, int index, Tile tile,
+                        BiConsumer<Tile, SharedCornerSampler.PixelWriter> renderer) {
+        float[] pixels = new float[tile.getPixelsCount() * 3];
+        try {
+            renderer.accept(tile, (x, y, color) -> put(pixels, tile, x, y, color));
+        } catch (RuntimeException e) {
+            fail(socket, output, e);
+            return;
+        }
+        try {
+            synchronized (output) {
+                output.writeInt(index);
+                for (float value : pixels) {
+                    output.writeFloat(value);
+                }
+                output.flush();
+            }
+        } catch (IOException e) {
+            logger.log(Level.FINE, "Can't send a tile", e);
+        }
+    }
+
+    private static void put(float[] pixels, Tile tile, int x, int y, Color color) {
+        int index = ((y - tile.getY()) * tile.getWidth() + x - tile.getX()) * 3;
+        pixels[index] = (float) color.getRed();
+        pixels[index + 1] = (float) color.getGreen();
+        pixels[index + 2] = (float) color.getBlue();
+    }
+
+    /**
+     * Tell the coordinator that the worker failed and disconnect, so its tiles go to the others.
+     */
+    private void fail(Socket socket, DataOutputStream output, RuntimeException error) {
+        logger.log(Level.SEVERE, "Render failed", error);
+        try {
+            synchronized (output) {
+                output.writeInt(RenderCoordinator.END);
+                output.writeUTF(String.valueOf(error.getMessage()));
+                output.flush();
+            }
+            socket.close();
+        } catch (IOException e) {
+            logger.log(Level.FINE, "Can't report the failure", e);
+        }
+    }
+}
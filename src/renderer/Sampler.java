@@ -0,0 +1,106 @@
+package renderer;
+
+/**
+ * Positions of the samples inside a pixel. Every position is a pure function of the pixel, the
+ * sample index and the dimension, so the samples are the same on every run and the threads
+ * share no random generator.
+ */
+public enum Sampler {
+    /** Centers of the cells of a square grid, row after row */
+    REGULAR,
+    /** A random position inside every cell of a square grid */
+    STRATIFIED,
+    /** Halton sequence in bases 2 and 3, shifted by a different random offset in every pixel */
+    HALTON,
+    /** Sobol sequence with a different hash based Owen scrambling in every pixel */
+    SOBOL;
+
+    private static final double TO_UNIT = 1d / (1L << 32);
+
+    /**
+     * Get a coordinate of a sample.
+     * @param x column of the pixel
+     * @param y row of the pixel
+     * @param index index of the sample in the pixel
+     * @param count amount of samples of the pixel, used by the grid samplers
+     * @param dimension 0 for the offset to the right, 1 for the offset down
+     * @return the offset inside the pixel, from 0 to 1
+     */
+    public double get(int x, int y, int index, int count, int dimension) {
+        int seed = hash(x * 0x9E3779B9 ^ hash(y * 0x85EBCA6B ^ hash(dimension)));
+        switch (this) {
+            case REGULAR:
+            case STRATIFIED:
+                int side = (int) Math.ceil(Math.sqrt(count));
+                int cell = index % (side * side);
+                int position = dimension == 0 ? cell % side : cell / side;
+                double jitter = this == REGULAR ? 0.5 : unit(hash(seed ^ hash(index)));
+                return (position + jitter) / side;
+            case HALTON:
+                double value = radicalInverse(index, dimension == 0 ? 2 : 3) + unit(seed);
+                return value - Math.floor(value);
+            default:
+                int bits = dimension == 0 ? Integer.reverse(index) : sobol(index);
+                return unit(owenScramble(bits, seed));
+        }
+    }
+
+    /**
+     * Mirror the digits of the index in the base around the decimal point.
+     */
+    private static double radicalInverse(int index, int base) {
+        double result = 0;
+        double fraction = 1d / base;
+        for (int i = index; i > 0; i /= base) {
+            result += (i % base) * fraction;
+            fraction /= base;
+        }
+        return result;
+    }
+
+    /**
+     * Second dimension of the Sobol sequence, as the 32 bits of a fraction.
+     */
+    private static int sobol(int index) {
+        int result = 0;
+        for (int v = 1 << 31; index != 0; index >>>= 1, v ^= v >>> 1) {
+            if ((index & 1) != 0) {
+                result ^= v;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Nested uniform scrambling of the bits of a fraction, each bit is flipped by a hash of the
+     * bits above it (Laine-Karras permutation on the reversed bits).
+     */
+    private static int owenScramble(int bits, int seed) {
+        int x = Integer.reverse(bits);
+        x += seed;
+        x ^= x * 0x6c50b47c;
+        x ^= x * 0xb82f1e52;
+        x ^= x * 0xc7afe638;
+        x ^= x * 0x8d22f6e6;
+        return Integer.reverse(x);
+    }
+
+    /**
+     * Mix the bits of the value.
+     */
+    private static int hash(int value) {
+        value ^= value >>> 16;
+        value *= 0x7feb352d;
+        value ^= value >>> 15;
+        value *= 0x846ca68b;
+        value ^= value >>> 16;
+        return value;
+    }
+
+    /**
+     * The bits as an unsigned fraction from 0 to 1.
+     */
+    private static double unit(int bits) {
+        return (bits & 0xFFFFFFFFL) * TO_UNIT;
+    }
+}
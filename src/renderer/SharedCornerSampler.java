@@ -0,0 +1,162 @@
+package renderer;
+
+import java.util.Arrays;
+import primitives.Color;
+
+/**
+ * Adaptive anti-aliasing that samples the corners of sub-pixel squares and shares them. A tile
+ * keeps a lattice of the corner samples it traced, so a corner is traced once for all the pixels
+ * and the subdivision levels that touch it. A square whose 4 corners have the same color takes
+ * it, otherwise it's divided to quarters down to the max depth, where the square is the average
+ * of its corners.
+ */
+public class SharedCornerSampler {
+    private final int depth;
+    private final int cells;
+
+    /**
+     * Writes the color of a pixel.
+     */
+    @FunctionalInterface
+    public interface PixelWriter {
+        /**
+         * Write a pixel.
+         * @param x column of the pixel
+         * @param y row of the pixel
+         * @param color the color of the pixel
+         */
+        void write(int x, int y, Color color);
+    }
+
+    /**
+     * Constructor.
+     * @param depth most times a pixel is divided to quarters, 0 samples only the pixel corners
+     * @throws IllegalArgumentException if the depth is negative or over 8
+     */
+    public SharedCornerSampler(int depth) {
+        if (depth < 0 || depth > 8) {
+            throw new IllegalArgumentException("ERROR: depth must be from 0 to 8");
+        }
+        this.depth = depth;
+        cells = 1 << depth;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Sample all the pixels of a tile.
+     * @param tile the tile
+     * @param tracer traces a sample, the offsets are on the corners of the sub-pixel cells
+     * @param writer receives the color of every pixel
+     * @return amount of samples that were traced
+     */
+    public int renderTile(Tile tile, AdaptiveSampler.SampleTracer tracer, PixelWriter writer) {
+        Lattice lattice = new Lattice(tile, tracer);
+        for (int y = 0; y < tile.getHeight(); y++) {
+            for (int x = 0; x < tile.getWidth(); x++) {
+                writer.write(tile.getX() + x, tile.getY() + y,
+                        sample(lattice, x * cells, y * cells, cells));
+            }
+        }
+        return lattice.traced;
+    }
+
+    /**
+     * Color of a square of the lattice.
+     * @param gx lattice column of the top left corner
+     * @param gy lattice row of the top left corner
+     * @param size side of the square in lattice cells
+     */
+    private Color sample(Lattice lattice, int gx, int gy, int size) {
+        Color topLeft = lattice.get(gx, gy);
+        Color topRight = lattice.get(gx + size, gy);
+        Color bottomLeft = lattice.get(gx, gy + size);
+        Color bottomRight = lattice.get(gx + size, gy + size);
+        if (topLeft.equals(topRight) && topLeft.equals(bottomLeft)
+                && topLeft.equals(bottomRight)) {
+            return topLeft;
+        }
+        if (size == 1) {
+            return topLeft.add(topRight, bottomLeft, bottomRight).reduce(4);
+        }
+        int half = size / 2;
+        return sample(lattice, gx, gy, half)
+                .add(sample(lattice, gx + half, gy, half),
+                        sample(lattice, gx, gy + half, half),
+                        sample(lattice, gx + half, gy + half, half))
+                .reduce(4);
+    }
+
+    /**
+     * Corner samples of a tile, traced on the first use. Only the traced corners are kept, since
+     * at a large depth the full lattice is huge and mostly unused. They are kept in an open
+     * addressing table of primitive keys, so a lookup doesn't allocate.
+     */
+    private final class Lattice {
+        private static final long EMPTY = -1;
+
+        private final Tile tile;
+        private final AdaptiveSampler.SampleTracer tracer;
+        private final long columns;
+        private long[] keys;
+        private Color[] samples;
+        private int shift;
+        private int traced;
+
+        private Lattice(Tile tile, AdaptiveSampler.SampleTracer tracer) {
+            this.tile = tile;
+            this.tracer = tracer;
+            columns = (long) tile.getWidth() * cells + 1;
+            /* Room for the pixel corners and their centers at half load */
+            long corners = (tile.getWidth() + 1L) * (tile.getHeight() + 1L) * 2;
+            allocate(Math.max(4, Long.SIZE - Long.numberOfLeadingZeros(corners * 2 - 1)));
+        }
+
+        private void allocate(int bits) {
+            keys = new long[1 << bits];
+            samples = new Color[1 << bits];
+            Arrays.fill(keys, EMPTY);
+            shift = Long.SIZE - bits;
+        }
+
+        private int slot(long key) {
+            int mask = keys.length - 1;
+            int slot = (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+            while (keys[slot] != EMPTY && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private Color get(int gx, int gy) {
+            long key = gy * columns + gx;
+            int slot = slot(key);
+            if (keys[slot] == key) {
+                return samples[slot];
+            }
+            Color color = tracer.trace(tile.getX() + gx / cells, tile.getY() + gy / cells,
+                    (double) (gx % cells) / cells, (double) (gy % cells) / cells);
+            keys[slot] = key;
+            samples[slot] = color;
+            if (++traced * 2 > keys.length) {
+                grow();
+            }
+            return color;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            Color[] oldSamples = samples;
+            allocate(Long.SIZE - shift + 1);
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) {
+                    int slot = slot(oldKeys[i]);
+                    keys[slot] = oldKeys[i];
+                    samples[slot] = oldSamples[i];
+                }
+            }
+        }
+    }
+}
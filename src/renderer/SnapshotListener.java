@@ -0,0 +1,14 @@
+package renderer;
+
+/**
+ * Receives the image of a progressive render after every pass.
+ */
+@FunctionalInterface
+public interface SnapshotListener {
+    /**
+     * Called after a pass, on the rendering thread, before the next pass starts.
+     * @param frame the accumulated samples, don't keep it since the next pass changes it
+     * @param samples amount of samples per pixel so far
+     */
+    void snapshot(FrameBuffer frame, int samples);
+}
@@ -0,0 +1,88 @@
+package renderer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rectangle of pixels that is rendered as one unit of work.
+ */
+public final class Tile {
+    private final int x;
+    private final int y;
+    private final int width;
+    private final int height;
+
+    /**
+     * Constructor.
+     * @param x column of the top left pixel
+     * @param y row of the top left pixel
+     * @param width amount of columns
+     * @param height amount of rows
+     */
+    public Tile(int x, int y, int width, int height) {
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Cut the image into tiles, row after row. Tiles on the right and bottom edges are smaller
+     * when the size doesn't divide the resolution.
+     * @param nX amount of columns of the image
+     * @param nY amount of rows of the image
+     * @param size width and height of a tile
+     * @return the tiles
+     * @throws IllegalArgumentException if the size isn't positive
+     */
+    public static List<Tile> split(int nX, int nY, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("ERROR: tile size must be positive");
+        }
+        List<Tile> tiles = new ArrayList<>();
+        for (int y = 0; y < nY; y += size) {
+            for (int x = 0; x < nX; x += size) {
+                tiles.add(new Tile(x, y, Math.min(size, nX - x), Math.min(size, nY - y)));
+            }
+        }
+        return tiles;
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Get the same rectangle at another place.
+     * @param dx columns to move to the right
+     * @param dy rows to move down
+     * @return the moved tile
+     */
+    public Tile move(int dx, int dy) {
+        return new Tile(x + dx, y + dy, width, height);
+    }
+
+    /**
+     * @return amount of pixels in the tile
+     */
+    public int getPixelsCount() {
+        return width * height;
+    }
+
+    @Override
+    public String toString() {
+        return "Tile{" + x + ", " + y + ", " + width + "x" + height + "}";
+    }
+}
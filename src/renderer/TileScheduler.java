@@ -0,0 +1,100 @@
+package renderer;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Runs the tiles of a frame on a dedicated work stealing pool. The tiles are split in halves
+ * recursively, so idle workers steal whole ranges of tiles from busy ones and a region of
+ * expensive tiles doesn't leave the other workers waiting.
+ */
+public class TileScheduler implements AutoCloseable {
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructor.
+     * @param threadsCount amount of worker threads
+     * @throws IllegalArgumentException if the amount isn't positive
+     */
+    public TileScheduler(int threadsCount) {
+        if (threadsCount < 1) {
+            throw new IllegalArgumentException("ERROR: threads count must be positive");
+        }
+        pool = new ForkJoinPool(threadsCount);
+    }
+
+    public int getThreadsCount() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Render all the tiles and wait for them to finish.
+     * @param tiles the tiles
+     * @param action renders one tile
+     * @throws RuntimeException the first exception thrown by the action
+     */
+    public void run(List<Tile> tiles, Consumer<Tile> action) {
+        run(tiles, action, () -> false);
+    }
+
+    /**
+     * Render the tiles until they are all done or the render should stop, and wait for the
+     * workers. The stop condition is checked before every tile.
+     * @param tiles the tiles
+     * @param action renders one tile
+     * @param stop tells whether to skip the remaining tiles
+     * @throws RuntimeException the first exception thrown by the action
+     */
+    public void run(List<Tile> tiles, Consumer<Tile> action, BooleanSupplier stop) {
+        if (!tiles.isEmpty()) {
+            pool.invoke(new TilesTask(tiles, 0, tiles.size(), action, stop));
+        }
+    }
+
+    /**
+     * Stop the worker threads.
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    /**
+     * Range of tiles, forked in halves down to a single tile.
+     */
+    private static final class TilesTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Tile> tiles;
+        private final int from;
+        private final int to;
+        private final Consumer<Tile> action;
+        private final BooleanSupplier stop;
+
+        private TilesTask(List<Tile> tiles, int from, int to, Consumer<Tile> action,
+                          BooleanSupplier stop) {
+            this.tiles = tiles;
+            this.from = from;
+            this.to = to;
+            this.action = action;
+            this.stop = stop;
+        }
+
+        @Override
+        protected void compute() {
+            if (stop.getAsBoolean()) {
+                return;
+            }
+            if (to - from == 1) {
+                action.accept(tiles.get(from));
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new TilesTask(tiles, from, middle, action, stop),
+                    new TilesTask(tiles, middle, to, action, stop));
+        }
+    }
+}
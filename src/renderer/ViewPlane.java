@@ -0,0 +1,133 @@
+package renderer;
+
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+/**
+ * The view plane of a camera for one resolution, set up once per render. It keeps the corner of
+ * the first pixel and the steps of one pixel to the right and down as plain doubles, so a ray
+ * direction costs a few multiplications and a row of directions is made by adding the step.
+ */
+public final class ViewPlane {
+    private final Point p0;
+    private final int nX;
+    private final int nY;
+    // top left corner of the first pixel, relative to p0
+    private final double cornerX;
+    private final double cornerY;
+    private final double cornerZ;
+    // one pixel to the right
+    private final double rightX;
+    private final double rightY;
+    private final double rightZ;
+    // one pixel down
+    private final double downX;
+    private final double downY;
+    private final double downZ;
+
+    /**
+     * Constructor.
+     * @param p0 the location of the camera
+     * @param vectorTo the direction of the camera, normalized
+     * @param vectorUp the up direction of the camera, normalized
+     * @param vectorRight the right direction of the camera, normalized
+     * @param distance the distance from the camera to the view plane
+     * @param width the width of the view plane
+     * @param height the height of the view plane
+     * @param nX amount of columns
+     * @param nY amount of rows
+     * @throws IllegalArgumentException if the resolution isn't positive
+     */
+    ViewPlane(Point p0, Vector vectorTo, Vector vectorUp, Vector vectorRight, double distance,
+              double width, double height, int nX, int nY) {
+        if (nX < 1 || nY < 1) {
+            throw new IllegalArgumentException("ERROR: resolution must be positive");
+        }
+        this.p0 = p0;
+        this.nX = nX;
+        this.nY = nY;
+        double pixelWidth = width / nX;
+        double pixelHeight = height / nY;
+        rightX = vectorRight.getX() * pixelWidth;
+        rightY = vectorRight.getY() * pixelWidth;
+        rightZ = vectorRight.getZ() * pixelWidth;
+        downX = -vectorUp.getX() * pixelHeight;
+        downY = -vectorUp.getY() * pixelHeight;
+        downZ = -vectorUp.getZ() * pixelHeight;
+        cornerX = vectorTo.getX() * distance - rightX * nX / 2 - downX * nY / 2;
+        cornerY = vectorTo.getY() * distance - rightY * nX / 2 - downY * nY / 2;
+        cornerZ = vectorTo.getZ() * distance - rightZ * nX / 2 - downZ * nY / 2;
+    }
+
+    public int getNx() {
+        return nX;
+    }
+
+    public int getNy() {
+        return nY;
+    }
+
+    /**
+     * Find the ray from the camera through a point of a pixel.
+     * @param column column of the pixel
+     * @param row row of the pixel
+     * @param u offset to the right inside the pixel, from 0 to 1
+     * @param v offset down inside the pixel, from 0 to 1
+     * @return the ray
+     */
+    public Ray constructRay(int column, int row, double u, double v) {
+        double x = column + u;
+        double y = row + v;
+        return new Ray(p0, new Vector(cornerX + rightX * x + downX * y,
+                cornerY + rightY * x + downY * y,
+                cornerZ + rightZ * x + downZ * y));
+    }
+
+    /**
+     * Fill the normalized ray directions through the same point of every pixel of a tile. The
+     * first direction of a row is computed and the next ones are made by adding the step of a
+     * pixel.
+     * @param tile the tile
+     * @param u offset to the right inside the pixels, from 0 to 1
+     * @param v offset down inside the pixels, from 0 to 1
+     * @param directions receives x, y and z of every pixel of the tile, row after row
+     * @throws IllegalArgumentException if the buffer is too small for the tile
+     */
+    public void fillDirections(Tile tile, double u, double v, double[] directions) {
+        int width = tile.getWidth();
+        int height = tile.getHeight();
+        if (directions.length < width * height * 3) {
+            throw new IllegalArgumentException("ERROR: directions buffer is too small for the tile");
+        }
+        int index = 0;
+        for (int row = 0; row < height; row++) {
+            double x = tile.getX() + u;
+            double y = tile.getY() + row + v;
+            double dx = cornerX + rightX * x + downX * y;
+            double dy = cornerY + rightY * x + downY * y;
+            double dz = cornerZ + rightZ * x + downZ * y;
+            for (int column = 0; column < width; column++) {
+                double scale = 1 / Math.sqrt(dx * dx + dy * dy + dz * dz);
+                directions[index++] = dx * scale;
+                directions[index++] = dy * scale;
+                directions[index++] = dz * scale;
+                dx += rightX;
+                dy += rightY;
+                dz += rightZ;
+            }
+        }
+    }
+
+    /**
+     * Find the ray of a direction that was filled by {@link #fillDirections}.
+     * @param directions the filled directions
+     * @param pixel index of the pixel in the tile (row * tile width + column)
+     * @return the ray
+     */
+    public Ray constructRay(double[] directions, int pixel) {
+        int index = pixel * 3;
+        return new Ray(p0, new Vector(directions[index], directions[index + 1],
+                directions[index + 2]));
+    }
+}
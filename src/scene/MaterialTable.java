@@ -0,0 +1,60 @@
+package scene;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import primitives.Material;
+
+/**
+ * Table of the distinct materials of a scene. Equal materials are interned into one frozen
+ * instance, so geometries that look the same share it and can be referenced by a small index.
+ */
+public class MaterialTable {
+    private final Map<Material, Integer> indexes = new HashMap<>();
+    private final List<Material> materials = new ArrayList<>();
+
+    /**
+     * Get the shared frozen instance of the material, adding it to the table if needed.
+     * @param material the material to intern, it isn't changed
+     * @return frozen material equal to the given one
+     */
+    public Material intern(Material material) {
+        return materials.get(indexOf(material));
+    }
+
+    /**
+     * Get the index of the material in the table, adding it if needed.
+     * @param material the material to look for
+     * @return the index of the equal material in the table
+     */
+    public int indexOf(Material material) {
+        Integer index = indexes.get(material);
+        if (index == null) {
+            Material frozen = material.isFrozen() ? material : new Material()
+                    .setKd(material.getKd())
+                    .setKs(material.getKs())
+                    .setKt(material.getKt())
+                    .setKr(material.getKr())
+                    .setShininess(material.getShininess())
+                    .freeze();
+            index = materials.size();
+            materials.add(frozen);
+            indexes.put(frozen, index);
+        }
+        return index;
+    }
+
+    /**
+     * Get a material by its index.
+     * @param index index in the table
+     * @return the frozen material
+     */
+    public Material get(int index) {
+        return materials.get(index);
+    }
+
+    public int size() {
+        return materials.size();
+    }
+}
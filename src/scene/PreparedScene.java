@@ -0,0 +1,73 @@
+package scene;
+
+import geometries.BvhGeometries;
+import geometries.Intersectable;
+import java.util.List;
+import java.util.Map;
+import lighting.LightSource;
+import primitives.Color;
+import primitives.Material;
+
+/**
+ * Scene made ready for rendering by {@link Scene#prepare()}: the geometries are flattened into a
+ * bounding volume hierarchy, and the colors, frozen copies of the materials and snapshots of the
+ * lights ({@link LightSource#snapshot()}) are kept here, so adding geometries or lights to the
+ * scene or changing its materials or lights doesn't affect it. Lights of other classes that don't
+ * override the snapshot are shared with the scene. The geometry objects themselves are shared
+ * with the scene too: a changed shape or emission, or a material replaced on a geometry, is seen
+ * as is until the scene is prepared again.
+ * It's safe to share between render threads and cameras.
+ */
+public final class PreparedScene {
+    public final String name;
+    public final String source;
+    public final Color background;
+    public final Color ambientIntensity;
+    public final BvhGeometries geometries;
+    public final List<LightSource> lights;
+    public final MaterialTable materials;
+    private final Map<Material, Material> frozenMaterials;
+    private final long preparationNanos;
+
+    PreparedScene(String name, String source, Color background, Color ambientIntensity,
+                  BvhGeometries geometries, List<LightSource> lights, MaterialTable materials,
+                  Map<Material, Material> frozenMaterials, long preparationNanos) {
+        this.name = name;
+        this.source = source;
+        this.background = background;
+        this.ambientIntensity = ambientIntensity;
+        this.geometries = geometries;
+        this.lights = lights.stream().map(LightSource::snapshot).toList();
+        this.materials = materials;
+        this.frozenMaterials = frozenMaterials;
+        this.preparationNanos = preparationNanos;
+    }
+
+    /**
+     * Get the material of an intersection as it was when the scene was prepared.
+     * @param point the intersection
+     * @return the frozen copy of the material, or the material itself if it was set after the
+     *     preparation
+     */
+    public Material getMaterial(Intersectable.GeoPoint point) {
+        Material material = point.getMaterial();
+        Material frozen = frozenMaterials.get(material);
+        return frozen == null ? material : frozen;
+    }
+
+    /**
+     * Get how long the preparation took.
+     * @return the time in milliseconds
+     */
+    public double getPreparationMillis() {
+        return preparationNanos / 1e6;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s prepared in %.2f ms: %d bounded and %d unbounded geometries, "
+                        + "%d lights, %d materials", name, getPreparationMillis(),
+                geometries.getBoundedCount(), geometries.getUnboundedCount(), lights.size(),
+                materials.size());
+    }
+}
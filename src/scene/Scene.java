@@ -1,25 +1,39 @@
 package scene;
 
+import geometries.BvhGeometries;
 import geometries.Geometries;
 import geometries.Geometry;
 import geometries.Intersectable;
+import geometries.Mesh;
+import geometries.SphereSet;
 import lighting.AmbientLight;
 import lighting.LightSource;
 import primitives.Color;
 import primitives.Double3;
+import primitives.Material;
 
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.MissingResourceException;
+import java.util.logging.Logger;
 
 /**
  * Represents a scene containing geometries and lighting information.
+ * The scene owns the off-heap buffers of its meshes, close it when done rendering.
  */
-public class Scene {
+public class Scene implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(Scene.class.getName());
+
     public String name;
     public Color background;
     public AmbientLight ambientLight;
     public Geometries geometries;
     public List<LightSource> lights;
+    public MaterialTable materials;
+    public String source; // the file the scene was loaded from with its size and time, or null
 
     public Scene(String name) {
         this.name = name;
@@ -27,6 +41,7 @@ public class Scene {
         ambientLight = new AmbientLight();
         geometries = new Geometries();
         lights = new LinkedList<>();
+        materials = new MaterialTable();
     }
 
 
@@ -41,6 +56,16 @@ public class Scene {
         return this;
     }
 
+    /**
+     * Set where the scene came from, so renders that keep their progress can tell scenes apart.
+     * @param source e.g. the path of the scene file with its size and modification time
+     * @return the scene itself
+     */
+    public Scene setSource(String source) {
+        this.source = source;
+        return this;
+    }
+
     public Scene addGeometry(Intersectable geometries) {
         if (geometries != null) {
             this.geometries.add(geometries);
@@ -54,4 +79,113 @@ public class Scene {
         }
         return this;
     }
-}
\ No newline at end of file
+
+    /**
+     * Replace the material of every geometry (and every mesh or sphere set palette entry) by its interned
+     * frozen instance from the scene material table. The materials of the scene can't be changed
+     * afterwards, {@link #prepare()} doesn't need it.
+     * @return the scene itself
+     */
+    public Scene internMaterials() {
+        internMaterials(geometries);
+        return this;
+    }
+
+    private void internMaterials(Intersectable intersectable) {
+        if (intersectable instanceof Geometries group) {
+            for (Intersectable item : group.getGeometries()) {
+                internMaterials(item);
+            }
+        } else if (intersectable instanceof Geometry geometry) {
+            geometry.setMaterial(materials.intern(geometry.getMaterial()));
+            Material[] palette = geometry instanceof Mesh mesh ? mesh.getMaterials()
+                    : geometry instanceof SphereSet set ? set.getMaterials() : null;
+            if (palette != null) {
+                for (int i = 0; i < palette.length; i++) {
+                    palette[i] = materials.intern(palette[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Validate the scene and compile it for rendering: flatten the geometry tree, build a bounding
+     * volume hierarchy over it and intern frozen copies of the materials into a table of the
+     * prepared scene. The scene itself isn't changed, see {@link PreparedScene} for which later
+     * edits the result sees.
+     * @return the prepared scene
+     * @throws MissingResourceException if a field of the scene, a light or a geometry material is
+     *     missing
+     * @throws IllegalStateException if a mesh of the scene was closed
+     */
+    public PreparedScene prepare() throws MissingResourceException {
+        long start = System.nanoTime();
+        String errorMessage = "ERROR: Missing resource name: ";
+        if (background == null) {
+            throw new MissingResourceException(errorMessage + "background",
+                    Color.class.getName(), "");
+        }
+        if (ambientLight == null) {
+            throw new MissingResourceException(errorMessage + "ambientLight",
+                    AmbientLight.class.getName(), "");
+        }
+        if (geometries == null) {
+            throw new MissingResourceException(errorMessage + "geometries",
+                    Geometries.class.getName(), "");
+        }
+        if (lights == null || lights.contains(null)) {
+            throw new MissingResourceException(errorMessage + "lights",
+                    LightSource.class.getName(), "");
+        }
+
+        List<Intersectable> flat = new ArrayList<>();
+        MaterialTable table = new MaterialTable();
+        Map<Material, Material> frozen = new IdentityHashMap<>();
+        flatten(geometries, flat, table, frozen);
+        BvhGeometries accelerated = new BvhGeometries(flat);
+        PreparedScene prepared = new PreparedScene(name, source, background,
+                ambientLight.getIntensity(), accelerated, lights, table, frozen, System.nanoTime() - start);
+        LOGGER.info(prepared::toString);
+        return prepared;
+    }
+
+    /**
+     * Collect the leaves of the geometry tree, checking they can be rendered, and map each of their
+     * materials to its interned frozen copy.
+     */
+    private void flatten(Intersectable intersectable, List<Intersectable> result, MaterialTable table,
+                         Map<Material, Material> frozen) {
+        if (intersectable instanceof Geometries group) {
+            for (Intersectable item : group.getGeometries()) {
+                flatten(item, result, table, frozen);
+            }
+            return;
+        }
+        if (intersectable instanceof Geometry geometry) {
+            if (geometry.getMaterial() == null || geometry.getEmission() == null) {
+                throw new MissingResourceException("ERROR: Missing resource name: material",
+                        Material.class.getName(), "");
+            }
+            if (geometry instanceof Mesh mesh && mesh.isClosed()) {
+                throw new IllegalStateException("ERROR: The mesh was closed");
+            }
+            frozen.computeIfAbsent(geometry.getMaterial(), table::intern);
+            Material[] palette = geometry instanceof Mesh mesh ? mesh.getMaterials()
+                    : geometry instanceof SphereSet set ? set.getMaterials() : null;
+            if (palette != null) {
+                for (Material material : palette) {
+                    frozen.computeIfAbsent(material, table::intern);
+                }
+            }
+        }
+        result.add(intersectable);
+    }
+
+    /**
+     * Release the storage of the scene geometries, meshes can't be rendered afterwards.
+     */
+    @Override
+    public void close() {
+        geometries.close();
+    }
+}
@@ -0,0 +1,596 @@
+package scene;
+
+import geometries.Cylinder;
+import geometries.DoubleArray;
+import geometries.FlatBvh;
+import geometries.Geometries;
+import geometries.Geometry;
+import geometries.IntArray;
+import geometries.Intersectable;
+import geometries.Mesh;
+import geometries.Plane;
+import geometries.Polygon;
+import geometries.Sphere;
+import geometries.SphereSet;
+import geometries.Triangle;
+import geometries.Tube;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import lighting.AmbientLight;
+import lighting.DirectionalLight;
+import lighting.LightSource;
+import lighting.PointLight;
+import lighting.SpotLight;
+import primitives.Color;
+import primitives.Double3;
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+/**
+ * Compact binary cache of a prepared scene. The file is loaded through a memory mapping, mesh
+ * vertices, indexes and their hierarchies are used straight from the mapped file, so a scene
+ * that was saved once is ready to trace without rebuilding anything. Sphere sets are copied to
+ * the heap and their hierarchy is rebuilt, since they keep plain arrays.
+ * A single file is limited to 2GB, the size of one mapping.
+ */
+public final class SceneCache {
+    private static final int MAGIC = 0x53434E31; // "SCN1"
+    /* 2: mesh palettes with short indexes, 3: sphere sets */
+    private static final int VERSION = 3;
+    private static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    private static final byte GEOMETRIES = 0;
+    private static final byte SPHERE = 1;
+    private static final byte PLANE = 2;
+    private static final byte TRIANGLE = 3;
+    private static final byte POLYGON = 4;
+    private static final byte TUBE = 5;
+    private static final byte CYLINDER = 6;
+    private static final byte MESH = 7;
+    private static final byte SPHERE_SET = 8;
+
+    private static final byte DIRECTIONAL_LIGHT = 0;
+    private static final byte POINT_LIGHT = 1;
+    private static final byte SPOT_LIGHT = 2;
+
+    private static final Logger logger = Logger.getLogger("SceneCache");
+
+    /**
+     * Empty private constructor to hide the public one
+     */
+    private SceneCache() {
+    }
+
+    /**
+     * Load the scene from the cache file, or build it and save it to the file when there is no
+     * cache yet.
+     * @param file the cache file
+     * @param builder builds the scene when there is no cache
+     * @return the scene
+     * @throws IllegalStateException on I/O error
+     */
+    public static Scene loadOrBuild(Path file, Supplier<Scene> builder) throws IllegalStateException {
+        if (Files.isRegularFile(file)) {
+            return load(file);
+        }
+        Scene scene = builder.get();
+        save(scene, file);
+        return scene;
+    }
+
+    /**
+     * Save the scene: geometries with their materials, lights and the mesh hierarchies.
+     * @param scene the scene to save
+     * @param file the cache file
+     * @throws IllegalArgumentException if the scene contains a type the cache doesn't know
+     * @throws IllegalStateException on I/O error
+     */
+    public static void save(Scene scene, Path file) throws IllegalStateException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            Output output = new Output(channel);
+            output.putInt(MAGIC);
+            output.putInt(VERSION);
+            output.putString(scene.name);
+            output.putColor(scene.background);
+            output.putColor(scene.ambientLight.getIntensity());
+
+            output.putInt(scene.lights.size());
+            for (LightSource light : scene.lights) {
+                putLight(output, light);
+            }
+
+            /* Materials are written once and referenced by index */
+            Map<Material, Integer> materials = new IdentityHashMap<>();
+            List<Material> materialsList = new ArrayList<>();
+            collectMaterials(scene.geometries, materials, materialsList);
+            output.putInt(materialsList.size());
+            for (Material material : materialsList) {
+                output.putDouble3(material.getKd());
+                output.putDouble3(material.getKs());
+                output.putDouble3(material.getKt());
+                output.putDouble3(material.getKr());
+                output.putInt(material.getShininess());
+            }
+
+            putIntersectable(output, scene.geometries, materials);
+            output.flush();
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "I/O error", e);
+            throw new IllegalStateException("I/O error - can't write scene cache " + file, e);
+        }
+    }
+
+    /**
+     * Load a scene saved by {@link #save(Scene, Path)}.
+     * @param file the cache file
+     * @return the loaded scene, its source is the file with its size and modification time
+     * @throws IllegalArgumentException if the file isn't a scene cache of this version or it's
+     *     corrupt
+     * @throws IllegalStateException on I/O error
+     */
+    public static Scene load(Path file) throws IllegalStateException {
+        ByteBuffer input;
+        String source;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            input = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ORDER);
+            source = file.toAbsolutePath() + ":" + channel.size() + ":"
+                    + Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "I/O error", e);
+            throw new IllegalStateException("I/O error - can't read scene cache " + file, e);
+        }
+        if (input.remaining() < 8 || input.getInt() != MAGIC) {
+            throw new IllegalArgumentException("ERROR: Not a scene cache file " + file);
+        }
+        int version = input.getInt();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("ERROR: Scene cache file " + file + " is of version "
+                    + version + " instead of " + VERSION + ", it must be saved again");
+        }
+        try {
+            return getScene(input).setSource(source);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException
+                 | ClassCastException e) {
+            throw new IllegalArgumentException("ERROR: Corrupt scene cache file " + file, e);
+        }
+    }
+
+    private static Scene getScene(ByteBuffer input) {
+        Scene scene = new Scene(getString(input));
+        scene.setBackground(getColor(input));
+        scene.setAmbientLight(new AmbientLight(getColor(input), Double3.ONE));
+
+        int lightsCount = input.getInt();
+        for (int i = 0; i < lightsCount; i++) {
+            scene.lights.add(getLight(input));
+        }
+
+        Material[] materials = new Material[input.getInt()];
+        for (int i = 0; i < materials.length; i++) {
+            materials[i] = new Material()
+                    .setKd(getDouble3(input))
+                    .setKs(getDouble3(input))
+                    .setKt(getDouble3(input))
+                    .setKr(getDouble3(input))
+                    .setShininess(input.getInt());
+        }
+
+        scene.geometries = (Geometries) getIntersectable(input, materials);
+        return scene;
+    }
+
+    private static void collectMaterials(Intersectable intersectable, Map<Material, Integer> materials,
+                                         List<Material> materialsList) {
+        if (intersectable instanceof Geometries group) {
+            for (Intersectable item : group.getGeometries()) {
+                collectMaterials(item, materials, materialsList);
+            }
+        } else if (intersectable instanceof Geometry geometry) {
+            collectMaterial(geometry.getMaterial(), materials, materialsList);
+            Material[] palette = geometry instanceof Mesh mesh ? mesh.getMaterials()
+                    : geometry instanceof SphereSet set ? set.getMaterials() : null;
+            if (palette != null) {
+                for (Material material : palette) {
+                    collectMaterial(material, materials, materialsList);
+                }
+            }
+        }
+    }
+
+    private static void collectMaterial(Material material, Map<Material, Integer> materials,
+                                        List<Material> materialsList) {
+        if (!materials.containsKey(material)) {
+            materials.put(material, materialsList.size());
+            materialsList.add(material);
+        }
+    }
+
+    private static void putLight(Output output, LightSource light) throws IOException {
+        if (light instanceof SpotLight spot) {
+            output.putByte(SPOT_LIGHT);
+            putPointLight(output, spot);
+            output.putPoint(spot.getDirection());
+        } else if (light instanceof PointLight point) {
+            output.putByte(POINT_LIGHT);
+            putPointLight(output, point);
+        } else if (light instanceof DirectionalLight directional) {
+            output.putByte(DIRECTIONAL_LIGHT);
+            output.putColor(directional.getIntensity());
+            output.putPoint(directional.getDirection());
+        } else {
+            throw new IllegalArgumentException("ERROR: Can't cache light " + light.getClass().getName());
+        }
+    }
+
+    private static void putPointLight(Output output, PointLight light) throws IOException {
+        output.putColor(light.getIntensity());
+        output.putPoint(light.getPosition());
+        output.putDouble(light.getKc());
+        output.putDouble(light.getKl());
+        output.putDouble(light.getKq());
+    }
+
+    private static LightSource getLight(ByteBuffer input) {
+        byte type = input.get();
+        switch (type) {
+            case DIRECTIONAL_LIGHT:
+                return new DirectionalLight(getColor(input), getVector(input));
+            case POINT_LIGHT:
+                return new PointLight(getColor(input), getPoint(input))
+                        .setKc(input.getDouble())
+                        .setKl(input.getDouble())
+                        .setKq(input.getDouble());
+            case SPOT_LIGHT:
+                Color intensity = getColor(input);
+                Point position = getPoint(input);
+                double kC = input.getDouble();
+                double kL = input.getDouble();
+                double kQ = input.getDouble();
+                return new SpotLight(intensity, position, getVector(input))
+                        .setKc(kC)
+                        .setKl(kL)
+                        .setKq(kQ);
+            default:
+                throw new IllegalArgumentException("ERROR: Unknown light type " + type);
+        }
+    }
+
+    private static void putIntersectable(Output output, Intersectable intersectable,
+                                         Map<Material, Integer> materials) throws IOException {
+        if (intersectable instanceof Geometries group) {
+            List<Intersectable> items = group.getGeometries();
+            output.putByte(GEOMETRIES);
+            output.putInt(items.size());
+            for (Intersectable item : items) {
+                putIntersectable(output, item, materials);
+            }
+            return;
+        }
+        Geometry geometry = (Geometry) intersectable;
+        if (geometry instanceof Sphere sphere) {
+            output.putByte(SPHERE);
+            output.putPoint(sphere.getCenter());
+            output.putDouble(sphere.getRadius());
+        } else if (geometry instanceof Plane plane) {
+            output.putByte(PLANE);
+            output.putPoint(plane.getP0());
+            output.putPoint(plane.getNormal());
+        } else if (geometry instanceof Triangle || geometry instanceof Polygon) {
+            List<Point> vertices = ((Polygon) geometry).getVertices();
+            output.putByte(geometry instanceof Triangle ? TRIANGLE : POLYGON);
+            output.putInt(vertices.size());
+            for (Point vertex : vertices) {
+                output.putPoint(vertex);
+            }
+        } else if (geometry instanceof Cylinder cylinder) {
+            output.putByte(CYLINDER);
+            output.putRay(cylinder.getAxisRay());
+            output.putDouble(cylinder.getRadius());
+            output.putDouble(cylinder.getHeight());
+        } else if (geometry instanceof Tube tube) {
+            output.putByte(TUBE);
+            output.putRay(tube.getAxisRay());
+            output.putDouble(tube.getRadius());
+        } else if (geometry instanceof Mesh mesh) {
+            FlatBvh bvh = mesh.getBvh();
+            output.putByte(MESH);
+            output.putDoubles(mesh.getVertices());
+            output.putInts(mesh.getIndices());
+            output.putDoubles(bvh.getBounds());
+            output.putInts(bvh.getNodes());
+            output.putInts(bvh.getOrder());
+            Material[] palette = mesh.getMaterials();
+            output.putInt(palette == null ? 0 : palette.length);
+            if (palette != null) {
+                for (Material material : palette) {
+                    output.putInt(materials.get(material));
+                }
+                for (short index : mesh.getTriangleMaterials()) {
+                    output.putShort(index);
+                }
+            }
+        } else if (geometry instanceof SphereSet set) {
+            output.putByte(SPHERE_SET);
+            output.putDoubles(DoubleArray.wrap(DoubleBuffer.wrap(set.getCenters())));
+            output.putDoubles(DoubleArray.wrap(DoubleBuffer.wrap(set.getRadii())));
+            Material[] palette = set.getMaterials();
+            output.putInt(palette == null ? 0 : palette.length);
+            if (palette != null) {
+                for (Material material : palette) {
+                    output.putInt(materials.get(material));
+                }
+                for (short index : set.getSphereMaterials()) {
+                    output.putShort(index);
+                }
+            }
+        } else {
+            throw new IllegalArgumentException("ERROR: Can't cache geometry " + geometry.getClass().getName());
+        }
+        output.putColor(geometry.getEmission());
+        output.putInt(materials.get(geometry.getMaterial()));
+    }
+
+    private static Intersectable getIntersectable(ByteBuffer input, Material[] materials) {
+        byte type = input.get();
+        Geometry geometry;
+        switch (type) {
+            case GEOMETRIES:
+                Geometries group = new Geometries();
+                int count = input.getInt();
+                for (int i = 0; i < count; i++) {
+                    group.add(getIntersectable(input, materials));
+                }
+                return group;
+            case SPHERE:
+                geometry = new Sphere(getPoint(input), input.getDouble());
+                break;
+            case PLANE:
+                geometry = new Plane(getPoint(input), getVector(input));
+                break;
+            case TRIANGLE:
+            case POLYGON:
+                Point[] vertices = new Point[input.getInt()];
+                for (int i = 0; i < vertices.length; i++) {
+                    vertices[i] = getPoint(input);
+                }
+                geometry = type == TRIANGLE ? new Triangle(vertices[0], vertices[1], vertices[2])
+                        : new Polygon(vertices);
+                break;
+            case CYLINDER:
+                Ray axisRay = getRay(input);
+                double radius = input.getDouble();
+                geometry = new Cylinder(radius, axisRay, input.getDouble());
+                break;
+            case TUBE:
+                geometry = new Tube(getRay(input), input.getDouble());
+                break;
+            case MESH:
+                DoubleArray meshVertices = DoubleArray.wrap(getDoubles(input));
+                IntArray indices = IntArray.wrap(getInts(input));
+                FlatBvh bvh = new FlatBvh(DoubleArray.wrap(getDoubles(input)),
+                        IntArray.wrap(getInts(input)), IntArray.wrap(getInts(input)));
+                Mesh mesh = new Mesh(meshVertices, indices, bvh);
+                Material[] palette = new Material[input.getInt()];
+                if (palette.length > 0) {
+                    for (int i = 0; i < palette.length; i++) {
+                        palette[i] = materials[input.getInt()];
+                    }
+                    short[] triangleMaterials = new short[mesh.getTrianglesCount()];
+                    input.asShortBuffer().get(triangleMaterials);
+                    input.position(input.position() + triangleMaterials.length * Short.BYTES);
+                    mesh.setMaterials(palette, triangleMaterials);
+                }
+                geometry = mesh;
+                break;
+            case SPHERE_SET:
+                DoubleBuffer centers = getDoubles(input);
+                DoubleBuffer radii = getDoubles(input);
+                double[] centersArray = new double[centers.remaining()];
+                double[] radiiArray = new double[radii.remaining()];
+                centers.get(centersArray);
+                radii.get(radiiArray);
+                SphereSet set = new SphereSet(centersArray, radiiArray);
+                Material[] setPalette = new Material[input.getInt()];
+                if (setPalette.length > 0) {
+                    for (int i = 0; i < setPalette.length; i++) {
+                        setPalette[i] = materials[input.getInt()];
+                    }
+                    short[] sphereMaterials = new short[set.getCount()];
+                    input.asShortBuffer().get(sphereMaterials);
+                    input.position(input.position() + sphereMaterials.length * Short.BYTES);
+                    set.setMaterials(setPalette, sphereMaterials);
+                }
+                geometry = set;
+                break;
+            default:
+                throw new IllegalArgumentException("ERROR: Unknown geometry type " + type);
+        }
+        geometry.setEmission(getColor(input));
+        geometry.setMaterial(materials[input.getInt()]);
+        return geometry;
+    }
+
+    private static String getString(ByteBuffer input) {
+        byte[] bytes = new byte[input.getInt()];
+        input.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static Color getColor(ByteBuffer input) {
+        return new Color(input.getDouble(), input.getDouble(), input.getDouble());
+    }
+
+    private static Double3 getDouble3(ByteBuffer input) {
+        return new Double3(input.getDouble(), input.getDouble(), input.getDouble());
+    }
+
+    private static Point getPoint(ByteBuffer input) {
+        return new Point(input.getDouble(), input.getDouble(), input.getDouble());
+    }
+
+    private static Vector getVector(ByteBuffer input) {
+        return new Vector(input.getDouble(), input.getDouble(), input.getDouble());
+    }
+
+    private static Ray getRay(ByteBuffer input) {
+        return new Ray(getPoint(input), getVector(input));
+    }
+
+    /**
+     * View of an aligned array in the mapping, without copying it.
+     */
+    private static ByteBuffer getArray(ByteBuffer input, int elementBytes) {
+        int count = input.getInt();
+        input.position(align(input.position(), elementBytes));
+        ByteBuffer array = input.slice().order(ORDER);
+        array.limit(count * elementBytes);
+        input.position(input.position() + count * elementBytes);
+        return array;
+    }
+
+    private static DoubleBuffer getDoubles(ByteBuffer input) {
+        return getArray(input, Double.BYTES).asDoubleBuffer();
+    }
+
+    private static IntBuffer getInts(ByteBuffer input) {
+        return getArray(input, Integer.BYTES).asIntBuffer();
+    }
+
+    private static int align(int position, int alignment) {
+        return (position + alignment - 1) / alignment * alignment;
+    }
+
+    /**
+     * Buffered writer to the cache file, keeps track of the file position for alignment.
+     */
+    private static final class Output {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16).order(ORDER);
+        private long position;
+
+        private Output(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        private void putByte(byte value) throws IOException {
+            ensure(1);
+            buffer.put(value);
+            position++;
+        }
+
+        private void putInt(int value) throws IOException {
+            ensure(Integer.BYTES);
+            buffer.putInt(value);
+            position += Integer.BYTES;
+        }
+
+        private void putShort(short value) throws IOException {
+            ensure(Short.BYTES);
+            buffer.putShort(value);
+            position += Short.BYTES;
+        }
+
+        private void putDouble(double value) throws IOException {
+            ensure(Double.BYTES);
+            buffer.putDouble(value);
+            position += Double.BYTES;
+        }
+
+        private void putString(String value) throws IOException {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            putInt(bytes.length);
+            for (byte b : bytes) {
+                putByte(b);
+            }
+        }
+
+        private void putColor(Color color) throws IOException {
+            putDouble(color.getRed());
+            putDouble(color.getGreen());
+            putDouble(color.getBlue());
+        }
+
+        private void putDouble3(Double3 value) throws IOException {
+            putDouble(value.getD1());
+            putDouble(value.getD2());
+            putDouble(value.getD3());
+        }
+
+        private void putPoint(Point point) throws IOException {
+            putDouble(point.getX());
+            putDouble(point.getY());
+            putDouble(point.getZ());
+        }
+
+        private void putRay(Ray ray) throws IOException {
+            putPoint(ray.getP0());
+            putPoint(ray.getDir());
+        }
+
+        private void pad(int alignment) throws IOException {
+            while (position % alignment != 0) {
+                putByte((byte) 0);
+            }
+        }
+
+        private void putDoubles(DoubleArray values) throws IOException {
+            putLength(values.length());
+            pad(Double.BYTES);
+            for (DoubleBuffer chunk : values.getChunks()) {
+                while (chunk.hasRemaining()) {
+                    putDouble(chunk.get());
+                }
+            }
+        }
+
+        private void putInts(IntArray values) throws IOException {
+            putLength(values.length());
+            pad(Integer.BYTES);
+            for (IntBuffer chunk : values.getChunks()) {
+                while (chunk.hasRemaining()) {
+                    putInt(chunk.get());
+                }
+            }
+        }
+
+        private void putLength(long length) throws IOException {
+            if (length > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("ERROR: Array too big for a scene cache file");
+            }
+            putInt((int) length);
+        }
+    }
+}
@@ -23,11 +23,11 @@ public final class Main {
     public static final int DEFAULT_BEAM_RAYS = 64;
 
     /**
-     * Main program to test initial functionality of the 1st stage.
+     * Build the scene of the 1st stage, shared by the main program and the benchmarks.
      *
-     * @param args irrelevant here
+     * @return the scene
      */
-    public static void main(String[] args) {
+    public static Scene buildScene() {
 
         Material materialDefault = new Material().setKd(0.5).setKs(0.5).setShininess(30);
         Material glassMaterial = new Material().setKs(0).setKr(1).setShininess(30);
@@ -35,12 +35,6 @@ public final class Main {
         Color cubeColor = new Color(255, 105, 180);
 
         Scene scene = new Scene("Test scene");
-        Camera camera = new Camera(new Point(0, 0, -1000),
-                new Vector(0, 0, 1),
-                new Vector(0, -1, 0))
-                .setSize(200, 200)
-                .setDistance(1000)
-                .setRayTracer(new RayTracerBasic(scene));
 
 
         scene.geometries.add
@@ -132,6 +126,22 @@ public final class Main {
 
         scene.setBackground(new Color(java.awt.Color.black));
         scene.setAmbientLight(new AmbientLight(Color.BLACK, new Double3(0)));
+        return scene;
+    }
+
+    /**
+     * Main program to test initial functionality of the 1st stage.
+     *
+     * @param args irrelevant here
+     */
+    public static void main(String[] args) {
+        Scene scene = buildScene();
+        Camera camera = new Camera(new Point(0, 0, -1000),
+                new Vector(0, 0, 1),
+                new Vector(0, -1, 0))
+                .setSize(200, 200)
+                .setDistance(1000)
+                .setRayTracer(new RayTracerBasic(scene));
         camera.setImageWriter(new ImageWriter("MiniProjectLevel1", 600, 600)).renderImage();
         camera.setImageWriter(new ImageWriter("MiniProjectLevel1", 600, 600));
         camera.setBeamRays(DEFAULT_BEAM_RAYS);
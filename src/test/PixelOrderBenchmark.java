@@ -0,0 +1,58 @@
+package test;
+
+import primitives.Point;
+import primitives.Vector;
+import renderer.Camera;
+import renderer.ImageWriter;
+import renderer.PixelOrder;
+import renderer.RayTracerBasic;
+import scene.Scene;
+
+/**
+ * Benchmark of the pixel orders, renders the scene of {@link Main} in full HD with every order
+ * and prints the primary rays per second of the best of a few runs. It runs on a single thread
+ * unless another amount is given, so the orders are compared without contention on the caches.
+ */
+public final class PixelOrderBenchmark {
+    private static final int NX = 1920;
+    private static final int NY = 1080;
+    private static final int RUNS = 3;
+
+    private PixelOrderBenchmark() {
+    }
+
+    /**
+     * Run the benchmark.
+     *
+     * @param args optional amount of beam rays per pixel, 1 by default, and amount of threads,
+     *     1 by default
+     */
+    public static void main(String[] args) {
+        int beamRays = args.length > 0 ? Integer.parseInt(args[0]) : 1;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        Scene scene = Main.buildScene();
+        Camera camera = new Camera(new Point(0, 0, -1000), new Vector(0, 0, 1),
+                new Vector(0, -1, 0))
+                .setSize(200d * NX / NY, 200)
+                .setDistance(1000)
+                .setBeamRays(beamRays)
+                .setThreadsCount(threads)
+                .setRayTracer(new RayTracerBasic(scene))
+                .setImageWriter(new ImageWriter("PixelOrderBenchmark", NX, NY));
+
+        /* Warm up the JIT before measuring */
+        camera.setPixelOrder(PixelOrder.TILED).renderImage();
+
+        for (PixelOrder order : PixelOrder.values()) {
+            camera.setPixelOrder(order);
+            long best = Long.MAX_VALUE;
+            for (int run = 0; run < RUNS; run++) {
+                long start = System.nanoTime();
+                camera.renderImage();
+                best = Math.min(best, System.nanoTime() - start);
+            }
+            double raysPerSecond = (double) NX * NY * camera.getBeamRays() / (best / 1e9);
+            System.out.printf("%-8s %8.1f ms %12.0f rays/sec%n", order, best / 1e6, raysPerSecond);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package geometries;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.DoubleBuffer;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+/**
+ * Testing Mesh.
+ */
+class MeshTests {
+
+    /* Tetrahedron with a corner in the origin and the others on the axes */
+    private static final double[] VERTICES = {0, 0, 0, 1, 0, 0, 0, 1, 0, 0, 0, 1};
+    private static final int[] INDICES = {0, 2, 1, 0, 1, 3, 0, 3, 2, 1, 2, 3};
+
+    /**
+     * Test method for {@link Mesh#findGeoIntersections(Ray)}.
+     */
+    @Test
+    void testFindIntersections() {
+        for (Storage storage : Storage.values()) {
+            Mesh mesh = new Mesh(VERTICES, INDICES, storage);
+
+            /* ============ Equivalence Partitions Tests ============== */
+
+            /* TC01: Ray crosses the tetrahedron (2 points) */
+            List<Point> result = mesh.findIntersections(
+                    new Ray(new Point(0.2, 0.2, -1), new Vector(0, 0, 1)));
+            assertEquals(2, result.size(), "ERROR: Wrong number of points " + storage);
+            assertTrue(result.contains(new Point(0.2, 0.2, 0)), "ERROR: Missing bottom point");
+            assertTrue(result.contains(new Point(0.2, 0.2, 0.6)), "ERROR: Missing slanted point");
+
+            /* TC02: Ray misses the tetrahedron */
+            assertNull(mesh.findIntersections(new Ray(new Point(2, 2, -1), new Vector(0, 0, 1))),
+                    "ERROR: Ray outside the mesh");
+
+            /* TC03: Ray starts inside the tetrahedron (1 point) */
+            result = mesh.findIntersections(new Ray(new Point(0.1, 0.1, 0.1), new Vector(0, 0, 1)));
+            assertEquals(1, result.size(), "ERROR: Ray from inside the mesh " + storage);
+        }
+    }
+
+    /**
+     * Test method for {@link Mesh#getNormal(Intersectable.GeoPoint)}.
+     */
+    @Test
+    void testGetNormal() {
+        Mesh mesh = new Mesh(VERTICES, INDICES);
+        Ray ray = new Ray(new Point(0.2, 0.2, -1), new Vector(0, 0, 1));
+        Intersectable.GeoPoint bottom = ray.findClosestGeoPoint(mesh.findGeoIntersections(ray));
+
+        /* TC01: The normal of the hit triangle */
+        assertEquals(new Vector(0, 0, -1), mesh.getNormal(bottom), "ERROR: Bad normal");
+
+        /* TC02: Search the triangle by the point alone */
+        assertEquals(new Vector(0, 0, -1), mesh.getNormal(bottom.point), "ERROR: Bad normal");
+    }
+
+    /**
+     * Test method for {@link Mesh#close()}.
+     */
+    @Test
+    void testClose() {
+        Mesh mesh = new Mesh(VERTICES, INDICES, Storage.OFF_HEAP);
+        DoubleBuffer vertices = mesh.getVertices().getChunks()[0];
+        Geometries geometries = new Geometries(mesh);
+        geometries.close();
+
+        /* TC01: Closed mesh can't be intersected */
+        assertTrue(mesh.isClosed(), "ERROR: Mesh isn't closed");
+        assertThrows(IllegalStateException.class,
+                () -> mesh.findIntersections(new Ray(new Point(0.2, 0.2, -1), new Vector(0, 0, 1))),
+                "ERROR: Closed mesh was intersected");
+
+        /* TC02: A view taken before the close still reads the off-heap memory */
+        assertEquals(1, vertices.get(3), "ERROR: View of a closed mesh was freed");
+    }
+
+    /**
+     * Test method for {@link Mesh.Builder}.
+     */
+    @Test
+    void testBuilder() {
+        Mesh.Builder builder = new Mesh.Builder(4, 4, Storage.OFF_HEAP);
+        for (int i = 0; i < VERTICES.length; i += 3) {
+            builder.addVertex(VERTICES[i], VERTICES[i + 1], VERTICES[i + 2]);
+        }
+
+        /* TC01: Index out of the vertices */
+        assertThrows(IllegalArgumentException.class, () -> builder.addTriangle(0, 1, 4),
+                "ERROR: Bad index was accepted");
+
+        /* TC02: Triangles are missing */
+        builder.addTriangle(INDICES[0], INDICES[1], INDICES[2]);
+        assertThrows(IllegalStateException.class, builder::build, "ERROR: Partial mesh was built");
+
+        /* TC03: Same intersections as a mesh of whole arrays */
+        for (int i = 3; i < INDICES.length; i += 3) {
+            builder.addTriangle(INDICES[i], INDICES[i + 1], INDICES[i + 2]);
+        }
+        Mesh mesh = builder.build();
+        Ray ray = new Ray(new Point(0.2, 0.2, -1), new Vector(0, 0, 1));
+        assertEquals(new Mesh(VERTICES, INDICES).findIntersections(ray), mesh.findIntersections(ray),
+                "ERROR: Wrong intersections");
+
+        /* TC04: Too many vertices, and a builder that was built already */
+        assertThrows(IllegalStateException.class, () -> builder.addVertex(0, 0, 0),
+                "ERROR: Vertex added after the build");
+        assertThrows(IllegalStateException.class,
+                () -> new Mesh.Builder(1, 1, Storage.HEAP).addVertex(0, 0, 0).addVertex(1, 0, 0),
+                "ERROR: Extra vertex was added");
+        mesh.close();
+    }
+
+    /**
+     * Test method for {@link Mesh#Mesh(DoubleArray, IntArray, FlatBvh)} with arrays split in
+     * chunks.
+     */
+    @Test
+    void testChunks() {
+        Mesh reference = new Mesh(VERTICES, INDICES);
+        DoubleArray vertices = Storage.OFF_HEAP.allocateDoubles(VERTICES.length, 2);
+        for (int i = 0; i < VERTICES.length; i++) {
+            vertices.put(i, VERTICES[i]);
+        }
+        IntArray indices = Storage.OFF_HEAP.allocateInts(INDICES.length, 2);
+        for (int i = 0; i < INDICES.length; i++) {
+            indices.put(i, INDICES[i]);
+        }
+        Mesh mesh = new Mesh(vertices, indices, reference.getBvh());
+
+        /* TC01: The triangles across chunks are intersected as in a single buffer */
+        for (Ray ray : List.of(new Ray(new Point(0.2, 0.2, -1), new Vector(0, 0, 1)),
+                new Ray(new Point(-1, 0.2, 0.2), new Vector(1, 0, 0)),
+                new Ray(new Point(0.2, -1, 0.2), new Vector(0, 1, 0)))) {
+            assertEquals(reference.findIntersections(ray), mesh.findIntersections(ray),
+                    "ERROR: Wrong intersections across chunks");
+        }
+        assertEquals(3, vertices.getChunks().length, "ERROR: Wrong chunks");
+    }
+
+    /**
+     * Test method for {@link Mesh#Mesh(double[], int[])}.
+     */
+    @Test
+    void testConstructor() {
+        /* TC01: Index out of the vertices */
+        assertThrows(IllegalArgumentException.class, () -> new Mesh(VERTICES, new int[]{0, 1, 4}),
+                "ERROR: Bad index was accepted");
+    }
+}
@@ -0,0 +1,127 @@
+package geometries;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import primitives.Double3;
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+/**
+ * Testing SphereSet.
+ */
+class SphereSetTests {
+
+    /* Row of 10 spheres on the x axis, 3 units apart */
+    private static final int COUNT = 10;
+
+    private static SphereSet row() {
+        double[] centers = new double[COUNT * 3];
+        double[] radii = new double[COUNT];
+        for (int i = 0; i < COUNT; i++) {
+            centers[i * 3] = i * 3;
+            radii[i] = 1;
+        }
+        return new SphereSet(centers, radii);
+    }
+
+    /**
+     * Test method for {@link SphereSet#findGeoIntersections(Ray)}.
+     */
+    @Test
+    void testFindIntersections() {
+        SphereSet set = row();
+
+        /* ============ Equivalence Partitions Tests ============== */
+
+        /* TC01: Ray crosses one sphere (2 points) */
+        List<Point> result = set.findIntersections(new Ray(new Point(9, 0, -5), new Vector(0, 0, 1)));
+        assertEquals(List.of(new Point(9, 0, -1), new Point(9, 0, 1)), result,
+                "ERROR: Wrong points");
+
+        /* TC02: Ray along the row crosses all the spheres */
+        result = set.findIntersections(new Ray(new Point(-5, 0, 0), new Vector(1, 0, 0)));
+        assertEquals(COUNT * 2, result.size(), "ERROR: Wrong number of points");
+
+        /* TC03: Ray starts inside a sphere (1 point) */
+        result = set.findIntersections(new Ray(new Point(6, 0, 0), new Vector(0, 1, 0)));
+        assertEquals(List.of(new Point(6, 1, 0)), result, "ERROR: Ray from inside a sphere");
+
+        /* TC04: Ray misses the set */
+        assertNull(set.findIntersections(new Ray(new Point(1.5, 0, -5), new Vector(0, 0, 1))),
+                "ERROR: Ray between the spheres");
+
+        /* =============== Boundary Values Tests ================== */
+
+        /* TC10: Ray tangent to a sphere */
+        assertNull(set.findIntersections(new Ray(new Point(3, 1, -5), new Vector(0, 0, 1))),
+                "ERROR: Tangent ray");
+    }
+
+    /**
+     * Test method for {@link SphereSet#getNormal(Intersectable.GeoPoint)}.
+     */
+    @Test
+    void testGetNormal() {
+        SphereSet set = row();
+        Ray ray = new Ray(new Point(12, 0, -5), new Vector(0, 0, 1));
+        Intersectable.GeoPoint hit = ray.findClosestGeoPoint(set.findGeoIntersections(ray));
+
+        /* TC01: Normal by the hit sphere */
+        assertEquals(new Vector(0, 0, -1), set.getNormal(hit), "ERROR: Bad normal");
+
+        /* TC02: Search the sphere by the point alone */
+        assertEquals(new Vector(0, 0, -1), set.getNormal(hit.point), "ERROR: Bad normal");
+    }
+
+    /**
+     * Test method for {@link SphereSet#setMaterials(Material[], short[])}.
+     */
+    @Test
+    void testSetMaterials() {
+        SphereSet set = row();
+        Material[] palette = {new Material(), new Material().setKr(new Double3(0.5))};
+        short[] sphereMaterials = new short[COUNT];
+        sphereMaterials[4] = 1;
+        set.setMaterials(palette, sphereMaterials);
+
+        /* TC01: Materials follow the given order of the spheres */
+        Ray ray = new Ray(new Point(12, 0, -5), new Vector(0, 0, 1));
+        assertSame(palette[1], ray.findClosestGeoPoint(set.findGeoIntersections(ray)).getMaterial(),
+                "ERROR: Wrong sphere material");
+        assertArrayEquals(sphereMaterials, set.getSphereMaterials(), "ERROR: Wrong indexes");
+
+        /* TC02: Index out of the palette */
+        sphereMaterials[0] = 2;
+        assertThrows(IllegalArgumentException.class, () -> set.setMaterials(palette, sphereMaterials),
+                "ERROR: Bad index was accepted");
+    }
+
+    /**
+     * Test method for {@link SphereSet#SphereSet(double[], double[])}.
+     */
+    @Test
+    void testConstructor() {
+        SphereSet set = row();
+
+        /* TC01: Getters give the spheres by the given order */
+        assertEquals(12, set.getCenters()[12], "ERROR: Wrong center");
+
+        /* TC02: Radius per center is missing */
+        assertThrows(IllegalArgumentException.class,
+                () -> new SphereSet(new double[]{0, 0, 0, 1, 1, 1}, new double[]{1}),
+                "ERROR: Missing radius was accepted");
+
+        /* TC03: Zero radius */
+        assertThrows(IllegalArgumentException.class,
+                () -> new SphereSet(new double[]{0, 0, 0}, new double[]{0}),
+                "ERROR: Zero radius was accepted");
+    }
+}
@@ -0,0 +1,45 @@
+package geometries;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.DoubleBuffer;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Testing Storage.
+ */
+class StorageTests {
+
+    /**
+     * Test method for {@link Storage#allocateDoubles(long)}.
+     */
+    @Test
+    void testAllocate() {
+        for (Storage storage : Storage.values()) {
+            /* ============ Equivalence Partitions Tests ============== */
+
+            /* TC01: Array split over chunks, the last one partial */
+            DoubleArray array = storage.allocateDoubles(10, 2);
+            for (int i = 0; i < 10; i++) {
+                array.put(i, i);
+            }
+            DoubleBuffer[] chunks = array.getChunks();
+            assertEquals(3, chunks.length, "ERROR: Wrong chunks " + storage);
+            assertEquals(2, chunks[2].remaining(), "ERROR: Wrong last chunk " + storage);
+            assertEquals(9, chunks[2].get(1), "ERROR: Wrong element " + storage);
+            assertEquals(5, array.get(5), "ERROR: Wrong element " + storage);
+            array.close();
+
+            /* =============== Boundary Values Tests ================== */
+
+            /* TC02: Exactly full chunks */
+            assertEquals(2, storage.allocateInts(8, 2).getChunks().length, "ERROR: Wrong chunks");
+
+            /* TC03: Empty and negative lengths */
+            assertEquals(0, storage.allocateDoubles(0).length(), "ERROR: Wrong length");
+            assertThrows(IllegalArgumentException.class, () -> storage.allocateDoubles(-1),
+                    "ERROR: Negative length was allocated");
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package renderer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+
+/**
+ * Testing AdaptiveSampler.
+ */
+class AdaptiveSamplerTests {
+
+    /**
+     * Test method for
+     * {@link AdaptiveSampler#render(int, int, java.util.List, TileScheduler, AdaptiveSampler.SampleTracer)}.
+     */
+    @Test
+    void testRender() {
+        /* Black on the left of x = 8.3 and white on its right */
+        AdaptiveSampler.SampleTracer edge = (x, y, u, v) ->
+                x + u < 8.3 ? Color.BLACK : new Color(255, 255, 255);
+        AdaptiveSampler sampler = new AdaptiveSampler(64, 2);
+        FrameBuffer frame;
+        try (TileScheduler scheduler = new TileScheduler(2)) {
+            frame = sampler.render(16, 16, Tile.split(16, 16, 4), scheduler, edge);
+        }
+
+        /* TC01: Flat pixel gets a single sample */
+        assertEquals(1, frame.getSamples(2, 5), "ERROR: Flat pixel was refined");
+
+        /* TC02: Pixel on the edge gets the most samples */
+        assertEquals(64, frame.getSamples(8, 5), "ERROR: Edge pixel wasn't refined");
+        double red = frame.getColor(8, 5).getRed();
+        assertTrue(red > 150 && red < 210, "ERROR: Edge pixel isn't anti-aliased " + red);
+
+        /* TC03: Flat neighbour of the edge stops after one batch */
+        assertEquals(5, frame.getSamples(7, 5), "ERROR: Flat neighbour wasn't stopped");
+
+        /* TC04: Pixels on the border of a region aren't compared to the pixels out of it */
+        AdaptiveSampler.SampleTracer flat = (x, y, u, v) -> new Color(255, 255, 255);
+        try (TileScheduler scheduler = new TileScheduler(2)) {
+            frame = sampler.render(16, 16, List.of(new Tile(4, 4, 4, 4), new Tile(8, 4, 2, 4)),
+                    scheduler, flat);
+        }
+        for (int y = 4; y < 8; y++) {
+            for (int x = 4; x < 10; x++) {
+                assertEquals(1, frame.getSamples(x, y),
+                        "ERROR: Region pixel was refined " + x + "," + y);
+            }
+        }
+        assertEquals(0, frame.getSamples(3, 4), "ERROR: Pixel out of the region was sampled");
+    }
+
+    /**
+     * Test method for {@link AdaptiveSampler#AdaptiveSampler(int, double)}.
+     */
+    @Test
+    void testConstructor() {
+        /* TC01: No samples */
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveSampler(0, 1),
+                "ERROR: Zero samples were accepted");
+
+        /* TC02: Negative threshold */
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveSampler(16, -1),
+                "ERROR: Negative threshold was accepted");
+    }
+}
@@ -0,0 +1,83 @@
+package renderer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static primitives.Util.isZero;
+
+import geometries.Sphere;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+import primitives.Point;
+import primitives.Vector;
+import scene.Scene;
+
+/**
+ * Testing Animation.
+ */
+class AnimationTests {
+
+    /**
+     * Test method for {@link Animation#render(String, int, RenderPipeline, java.util.function.Consumer)}.
+     */
+    @Test
+    void testRender() {
+        Set<Double> sceneTimes = ConcurrentHashMap.newKeySet();
+        Set<Point> locations = ConcurrentHashMap.newKeySet();
+        Animation animation = new Animation(
+                () -> new Camera(new Point(0, 0, 100), new Vector(0, 0, -1), new Vector(0, 1, 0))
+                        .setSize(200, 200).setDistance(100),
+                time -> {
+                    sceneTimes.add(time);
+                    return new Scene("Animation scene")
+                            .addGeometry(new Sphere(new Point(40 * time, 0, -100), 20)
+                                    .setEmission(new Color(0, 0, 200)));
+                })
+                .setFrameRate(2)
+                .setResolution(10, 10)
+                .setCameraShift(new Keyframes().add(0, 0, 0, 0).add(1, 0, 0, 50));
+        List<FrameTimes> times;
+        try (RenderPipeline pipeline = new RenderPipeline(2, 2)) {
+            times = animation.render("animation", 3, pipeline, camera -> locations.add(camera.getP0()));
+        }
+
+        /* TC01: Times of every frame */
+        assertEquals(3, times.size(), "ERROR: Wrong amount of frame times");
+
+        /* TC02: Every frame has the scene of its time */
+        assertEquals(Set.of(0d, 0.5, 1d), sceneTimes, "ERROR: Wrong scene times");
+
+        /* TC03: The camera follows its path */
+        assertEquals(Set.of(new Point(0, 0, 100), new Point(0, 0, 125), new Point(0, 0, 150)),
+                locations, "ERROR: Wrong camera path");
+    }
+
+    /**
+     * Test of a camera rotation about two axes.
+     */
+    @Test
+    void testCameraRotation() {
+        double pitch = 0.3;
+        double yaw = 0.5;
+        List<Vector> directions = new CopyOnWriteArrayList<>();
+        Animation animation = new Animation(
+                () -> new Camera(new Point(0, 0, 100), new Vector(0, 0, -1), new Vector(0, 1, 0))
+                        .setSize(200, 200).setDistance(100),
+                time -> new Scene("Rotation scene"))
+                .setResolution(4, 4)
+                .setCameraRotation(new Keyframes().add(0, 0, 0, 0).add(1, 0, 2 * pitch, 2 * yaw));
+        try (RenderPipeline pipeline = new RenderPipeline(1, 1)) {
+            animation.setFrameRate(2).render("rotation", 2, pipeline,
+                    camera -> directions.add(camera.getVectorTo()));
+        }
+        Vector direction = directions.stream().filter(v -> !isZero(v.getX())).findFirst()
+                .orElseThrow();
+
+        /* TC01: The elevation of the view is the pitch and its heading is the yaw */
+        assertEquals(Math.sin(pitch), Math.abs(direction.getY()), 1e-9, "ERROR: Wrong pitch");
+        assertEquals(yaw, Math.abs(Math.atan2(direction.getX(), -direction.getZ())), 1e-9,
+                "ERROR: Wrong yaw");
+    }
+}
@@ -0,0 +1,60 @@
+package renderer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Testing BandWriter.
+ */
+class BandWriterTests {
+
+    /**
+     * Test method for {@link BandWriter#writeBand(int, int, float[])}.
+     * @throws IOException if the temporary file fails
+     */
+    @Test
+    void testWriteBand() throws IOException {
+        Path file = Files.createTempFile("band", ".ppm");
+        try {
+            /* TC01: Bands in any order make the whole pixmap, truncated to 8 bits */
+            try (BandWriter writer = new BandWriter(file, BandWriter.Format.PPM, 2, 3)) {
+                writer.writeBand(1, 2, new float[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 300, -1, 11.5f});
+                writer.writeBand(0, 1, new float[]{20, 21, 22, 23, 24, 25});
+            }
+            byte[] bytes = Files.readAllBytes(file);
+            byte[] header = "P6\n2 3\n255\n".getBytes(StandardCharsets.US_ASCII);
+            assertEquals(header.length + 18, bytes.length, "ERROR: Wrong file length");
+            byte[] expected = {20, 21, 22, 23, 24, 25, 1, 2, 3, 4, 5, 6, 7, 8, 9, (byte) 255, 0, 11};
+            byte[] pixels = new byte[18];
+            System.arraycopy(bytes, header.length, pixels, 0, 18);
+            assertArrayEquals(expected, pixels, "ERROR: Wrong pixels");
+
+            /* TC02: Float map keeps the values over the white and starts from the bottom row */
+            try (BandWriter writer = new BandWriter(file, BandWriter.Format.PFM, 1, 2)) {
+                writer.writeBand(0, 2, new float[]{127.5f, 2, 3, 510, 5, 6});
+            }
+            bytes = Files.readAllBytes(file);
+            int start = "PF\n1 2\n-1.0\n".length();
+            ByteBuffer buffer = ByteBuffer.wrap(bytes, start, 24).order(ByteOrder.LITTLE_ENDIAN);
+            assertEquals(2f, buffer.getFloat(start), "ERROR: Bottom row isn't first");
+            assertEquals(0.5f, buffer.getFloat(start + 12), "ERROR: Top row isn't last");
+
+            /* TC03: Band out of the image */
+            try (BandWriter writer = new BandWriter(file, BandWriter.Format.PPM, 2, 3)) {
+                assertThrows(IllegalArgumentException.class,
+                        () -> writer.writeBand(2, 2, new float[12]), "ERROR: Bad band was accepted");
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
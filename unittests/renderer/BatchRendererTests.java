@@ -0,0 +1,107 @@
+package renderer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import geometries.Sphere;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+import scene.PreparedScene;
+import scene.Scene;
+
+/**
+ * Testing BatchRenderer.
+ */
+class BatchRendererTests {
+
+    /**
+     * Tracer that records the prepared scenes it traced.
+     */
+    private static final class RecordingTracer extends RayTracerBasic {
+        private final Set<PreparedScene> seen = ConcurrentHashMap.newKeySet();
+
+        RecordingTracer(Scene scene) {
+            super(scene);
+        }
+
+        @Override
+        public Color traceRay(Ray ray) {
+            seen.add(getPreparedScene());
+            return super.traceRay(ray);
+        }
+    }
+
+    private final Scene scene = new Scene("Batch scene")
+            .addGeometry(new Sphere(new Point(0, 0, -100), 40).setEmission(new Color(0, 0, 200)))
+            .addGeometry(new Sphere(new Point(30, 0, -60), 10).setEmission(new Color(200, 0, 0)));
+
+    private Camera camera(Point location, ImageWriter imageWriter, RayTracerBase tracer) {
+        return new Camera(location, new Point(0, 0, -100).subtract(location), new Vector(0, 1, 0))
+                .setSize(200, 200).setDistance(100).setTileSize(4)
+                .setRayTracer(tracer)
+                .setImageWriter(imageWriter);
+    }
+
+    /**
+     * Test method for {@link BatchRenderer#render(Scene, List)}.
+     */
+    @Test
+    void testRender() {
+        Point left = new Point(-20, 0, 100);
+        Point right = new Point(20, 0, 100);
+        ImageWriter leftAlone = new ImageWriter("batch left", 12, 10);
+        ImageWriter rightAlone = new ImageWriter("batch right", 12, 10);
+        camera(left, leftAlone, new RayTracerBasic(scene)).renderImage();
+        camera(right, rightAlone, new RayTracerBasic(scene)).renderImage();
+
+        RecordingTracer leftTracer = new RecordingTracer(scene);
+        RecordingTracer rightTracer = new RecordingTracer(scene);
+        ImageWriter leftBatch = new ImageWriter("batch left", 12, 10);
+        ImageWriter rightBatch = new ImageWriter("batch right", 12, 10);
+        try (BatchRenderer renderer = new BatchRenderer(2)) {
+            renderer.render(scene, List.of(camera(left, leftBatch, leftTracer),
+                    camera(right, rightBatch, rightTracer)));
+        }
+
+        /* TC01: Every view is the same as when it's rendered alone */
+        for (int y = 0; y < 10; y++) {
+            for (int x = 0; x < 12; x++) {
+                assertEquals(leftAlone.getPixel(x, y), leftBatch.getPixel(x, y),
+                        "ERROR: Wrong left pixel " + x + "," + y);
+                assertEquals(rightAlone.getPixel(x, y), rightBatch.getPixel(x, y),
+                        "ERROR: Wrong right pixel " + x + "," + y);
+            }
+        }
+
+        /* TC02: All the views traced one prepared scene */
+        assertEquals(1, leftTracer.seen.size(), "ERROR: Scene was prepared again");
+        assertEquals(leftTracer.seen, rightTracer.seen, "ERROR: Views traced different scenes");
+
+        /* TC03: After the batch the tracers see the edits of the scene again */
+        scene.addGeometry(new Sphere(new Point(0, 0, -20), 15).setEmission(new Color(0, 200, 0)));
+        ImageWriter leftEdited = new ImageWriter("batch left", 12, 10);
+        camera(left, leftEdited, new RayTracerBasic(scene)).renderImage();
+        camera(left, leftBatch, leftTracer).renderImage();
+        for (int y = 0; y < 10; y++) {
+            for (int x = 0; x < 12; x++) {
+                assertEquals(leftEdited.getPixel(x, y), leftBatch.getPixel(x, y),
+                        "ERROR: Edit wasn't seen at pixel " + x + "," + y);
+            }
+        }
+
+        /* TC04: A tracer that had a prepared scene keeps it */
+        PreparedScene own = new Scene("Own scene").prepare();
+        RecordingTracer pinnedTracer = new RecordingTracer(scene);
+        pinnedTracer.setPreparedScene(own);
+        try (BatchRenderer renderer = new BatchRenderer(1)) {
+            renderer.render(scene, List.of(camera(left, new ImageWriter("batch", 12, 10),
+                    pinnedTracer)));
+        }
+        assertEquals(own, pinnedTracer.getPinnedScene(), "ERROR: Prepared scene wasn't restored");
+    }
+}
@@ -1,11 +1,21 @@
 package renderer;
 
+import geometries.Sphere;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.jupiter.api.Test;
+import primitives.Color;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
+import scene.Scene;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 /**
  * Testing Camera Class
@@ -57,4 +67,160 @@ class CameraTest {
                 camera.setSize(8, 8).constructRay(4, 4, 1, 0), badRayErrorMessage);
     }
 
+    /**
+     * Test method for {@link Camera#constructSampleRay(int, int, int, int, double, double)}.
+     */
+    @Test
+    void testConstructSampleRay() {
+        Camera camera = new Camera(Point.ZERO, new Vector(0, 0, -1),
+                new Vector(0, -1, 0)).setDistance(10).setSize(8, 8);
+
+        /* TC01: Center of the pixel is the ray of the pixel */
+        assertEquals(camera.constructRay(4, 4, 1, 2), camera.constructSampleRay(4, 4, 1, 2, 0.5, 0.5),
+                "ERROR: Bad center ray");
+
+        /* TC02: Top left corner of the pixel */
+        assertEquals(new Ray(Point.ZERO, new Vector(2, -2, -10)),
+                camera.constructSampleRay(4, 4, 0, 0, 1, 1), "ERROR: Bad corner ray");
+    }
+
+    /**
+     * Test method for {@link Camera#renderProgressive(int, Duration, SnapshotListener)}.
+     */
+    @Test
+    void testRenderProgressive() {
+        Scene scene = new Scene("Progressive scene")
+                .addGeometry(new Sphere(new Point(0, 0, -100), 40).setEmission(new Color(0, 0, 200)));
+        Camera camera = new Camera(new Point(0, 0, 100), new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setSize(200, 200).setDistance(100)
+                .setRayTracer(new RayTracerBasic(scene))
+                .setImageWriter(new ImageWriter("progressive", 16, 16));
+        List<Integer> passes = new ArrayList<>();
+
+        /* TC01: Stops at the amount of samples, a snapshot per pass */
+        FrameBuffer frame = camera.renderProgressive(4, null, (buffer, samples) -> passes.add(samples));
+        assertEquals(List.of(1, 2, 3, 4), passes, "ERROR: Wrong passes");
+        assertEquals(4, frame.getSamples(0, 0), "ERROR: Wrong samples count");
+        assertEquals(new Color(0, 0, 200).getColor(), frame.getColor(8, 8).getColor(),
+                "ERROR: Wrong center color");
+
+        /* TC02: Time budget stops after the first pass */
+        passes.clear();
+        camera.renderProgressive(100, Duration.ZERO, (buffer, samples) -> passes.add(samples));
+        assertEquals(List.of(1), passes, "ERROR: Budget was ignored");
+    }
+
+    /**
+     * Test method for {@link Camera#setRegion(Tile)}.
+     */
+    @Test
+    void testSetRegion() {
+        Scene scene = new Scene("Region scene")
+                .addGeometry(new Sphere(new Point(0, 0, -100), 40).setEmission(new Color(0, 0, 200)));
+        ImageWriter full = new ImageWriter("region", 16, 16);
+        Camera camera = new Camera(new Point(0, 0, 100), new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setSize(200, 200).setDistance(100).setTileSize(4)
+                .setRayTracer(new RayTracerBasic(scene))
+                .setImageWriter(full);
+        camera.renderImage();
+
+        /* TC01: Only the region is rendered, with the rays of the whole image */
+        ImageWriter merged = new ImageWriter("region", 16, 16);
+        for (int y = 0; y < 16; y++) {
+            for (int x = 0; x < 16; x++) {
+                merged.writePixel(x, y, new Color(1, 2, 3));
+            }
+        }
+        Tile region = new Tile(5, 6, 7, 3);
+        camera.setImageWriter(merged).setRegion(region).renderImage();
+        for (int y = 0; y < 16; y++) {
+            for (int x = 0; x < 16; x++) {
+                boolean inside = x >= 5 && x < 12 && y >= 6 && y < 9;
+                assertEquals(inside ? full.getPixel(x, y) : new Color(1, 2, 3), merged.getPixel(x, y),
+                        "ERROR: Wrong pixel " + x + "," + y);
+            }
+        }
+
+        /* TC02: Crop of the region */
+        ImageWriter crop = merged.crop("region crop", region);
+        assertEquals(7, crop.getNx(), "ERROR: Wrong crop width");
+        assertEquals(full.getPixel(6, 8), crop.getPixel(1, 2), "ERROR: Wrong crop pixel");
+
+        /* TC03: Region out of the image */
+        camera.setRegion(new Tile(10, 0, 7, 3));
+        assertThrows(IllegalArgumentException.class, camera::renderImage,
+                "ERROR: Region out of the image was rendered");
+    }
+
+    /**
+     * Test method for {@link Camera#setPreview(PreviewListener)}.
+     */
+    @Test
+    void testSetPreview() {
+        Scene scene = new Scene("Preview scene")
+                .addGeometry(new Sphere(new Point(0, 0, -100), 40).setEmission(new Color(0, 0, 200)));
+        ImageWriter full = new ImageWriter("preview", 20, 20);
+        Camera camera = new Camera(new Point(0, 0, 100), new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setSize(200, 200).setDistance(100)
+                .setRayTracer(new RayTracerBasic(scene))
+                .setImageWriter(full);
+        camera.renderImage();
+
+        List<Integer> scales = new ArrayList<>();
+        ImageWriter previewed = new ImageWriter("preview", 20, 20);
+        camera.setImageWriter(previewed).setPreview((imageWriter, scale) -> {
+            scales.add(scale);
+            if (scale == 8) {
+                /* TC01: Every block has a single color, the last blocks are cut by the edge */
+                assertEquals(imageWriter.getPixel(8, 8), imageWriter.getPixel(15, 15),
+                        "ERROR: Block isn't filled");
+                assertEquals(imageWriter.getPixel(16, 0), imageWriter.getPixel(19, 7),
+                        "ERROR: Edge block isn't filled");
+            }
+        }).renderImage();
+
+        /* TC02: Passes from the coarsest, then the full image */
+        assertEquals(List.of(8, 4), scales, "ERROR: Wrong preview passes");
+        for (int y = 0; y < 20; y++) {
+            for (int x = 0; x < 20; x++) {
+                assertEquals(full.getPixel(x, y), previewed.getPixel(x, y),
+                        "ERROR: Preview changed pixel " + x + "," + y);
+            }
+        }
+    }
+
+    /**
+     * Test method for {@link Camera#renderStreaming(BandWriter, int)}.
+     * @throws IOException if the temporary file fails
+     */
+    @Test
+    void testRenderStreaming() throws IOException {
+        Scene scene = new Scene("Streaming scene")
+                .addGeometry(new Sphere(new Point(0, 0, -100), 40).setEmission(new Color(0, 0, 200)));
+        ImageWriter imageWriter = new ImageWriter("streaming", 16, 16);
+        Camera camera = new Camera(new Point(0, 0, 100), new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setSize(200, 200).setDistance(100)
+                .setRayTracer(new RayTracerBasic(scene))
+                .setImageWriter(imageWriter);
+        camera.renderImage();
+        Path file = Files.createTempFile("streaming", ".ppm");
+        try {
+            /* TC01: Bands that don't divide the image make the same pixels as a whole render */
+            try (BandWriter output = new BandWriter(file, BandWriter.Format.PPM, 16, 16)) {
+                camera.renderStreaming(output, 5);
+            }
+            byte[] bytes = Files.readAllBytes(file);
+            int start = bytes.length - 16 * 16 * 3;
+            for (int y = 0; y < 16; y++) {
+                for (int x = 0; x < 16; x++) {
+                    int index = start + (y * 16 + x) * 3;
+                    assertEquals((int) imageWriter.getPixel(x, y).getBlue(), bytes[index + 2] & 0xFF,
+                            "ERROR: Wrong pixel " + x + "," + y);
+                }
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
 }
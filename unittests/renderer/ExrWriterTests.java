@@ -0,0 +1,85 @@
+package renderer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Testing ExrWriter.
+ */
+class ExrWriterTests {
+
+    /**
+     * Test method for {@link ExrWriter#toHalf(float)}.
+     */
+    @Test
+    void testToHalf() {
+        // ============ Equivalence Partitions Tests ==============
+        /* TC01: Normal values */
+        assertEquals((short) 0x3C00, ExrWriter.toHalf(1), "ERROR: Bad half of 1");
+        assertEquals((short) 0xBE00, ExrWriter.toHalf(-1.5f), "ERROR: Bad half of -1.5");
+
+        // =============== Boundary Values Tests ==================
+        /* TC11: Largest half */
+        assertEquals((short) 0x7BFF, ExrWriter.toHalf(65504), "ERROR: Bad largest half");
+        /* TC12: Too large is infinity */
+        assertEquals((short) 0x7C00, ExrWriter.toHalf(1e6f), "ERROR: Bad overflow");
+        /* TC13: Smallest subnormal half */
+        assertEquals((short) 0x0001, ExrWriter.toHalf(0x1p-24f), "ERROR: Bad subnormal");
+        /* TC14: Rounds to even */
+        assertEquals((short) 0x3C00, ExrWriter.toHalf(1 + 0x1p-11f), "ERROR: Didn't round to even");
+    }
+
+    /**
+     * Test method for {@link ExrWriter#write(Path, int, int, float[])}.
+     * @throws IOException if the temporary file fails
+     */
+    @Test
+    void testWrite() throws IOException {
+        float[] pixels = new float[3 * 2 * 3];
+        for (int i = 0; i < pixels.length; i++) {
+            pixels[i] = i * 255;
+        }
+        Path file = Files.createTempFile("image", ".exr");
+        try {
+            new ExrWriter(2).write(file, 3, 2, pixels);
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file))
+                    .order(ByteOrder.LITTLE_ENDIAN);
+
+            /* TC01: Magic number and tiled version */
+            assertEquals(20000630, buffer.getInt(), "ERROR: Bad magic number");
+            assertEquals(0x202, buffer.getInt(), "ERROR: Bad version");
+
+            /* Skip the attributes up to the empty name */
+            while (buffer.get() != 0) {
+                while (buffer.get() != 0) { // rest of the name
+                }
+                while (buffer.get() != 0) { // type
+                }
+                buffer.position(buffer.position() + 4 + buffer.getInt(buffer.position()));
+            }
+
+            /* TC02: Two tiles, the second one is the right column of one pixel */
+            long first = buffer.getLong();
+            long second = buffer.getLong();
+            assertEquals(buffer.position(), first, "ERROR: Bad offset of the first tile");
+            assertEquals(first + 20 + 4 * 6, second, "ERROR: Bad offset of the second tile");
+            buffer.position((int) second);
+            assertEquals(1, buffer.getInt(), "ERROR: Bad tile column");
+            assertEquals(0, buffer.getInt(), "ERROR: Bad tile row");
+            buffer.position(buffer.position() + 8);
+            assertEquals(2 * 6, buffer.getInt(), "ERROR: Bad tile data size");
+
+            /* TC03: Blue first, colors divided by 255 */
+            assertEquals(ExrWriter.toHalf(8), buffer.getShort(), "ERROR: Bad blue of pixel 2,0");
+            assertEquals(ExrWriter.toHalf(7), buffer.getShort(), "ERROR: Bad green of pixel 2,0");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package renderer;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
 import org.junit.jupiter.api.Test;
+import primitives.Color;
 
 class ImageWriterTest {
 
@@ -22,6 +25,28 @@ class ImageWriterTest {
         // Write the image to file
         imageWriter.writeToImage();
     }
+
+    /**
+     * Test method for {@link ImageWriter#writePixel(int, int, Color)}.
+     */
+    @Test
+    void testWritePixel() {
+        ImageWriter imageWriter = new ImageWriter("testPixels", 4, 3);
+
+        /* TC01: Color is kept without truncating */
+        imageWriter.writePixel(2, 1, new Color(300.5, 20.25, 0));
+        assertEquals(new Color(300.5, 20.25, 0), imageWriter.getPixel(2, 1),
+                "ERROR: Pixel color was truncated");
+
+        /* TC02: Added passes are accumulated */
+        imageWriter.addPixel(2, 1, new Color(1, 2, 3));
+        assertEquals(new Color(301.5, 22.25, 3), imageWriter.getPixel(2, 1),
+                "ERROR: Pass wasn't accumulated");
+
+        /* TC03: Image is quantized to 8 bits */
+        assertEquals(255 << 16 | 22 << 8 | 3, imageWriter.getImage().getRGB(2, 1) & 0xFFFFFF,
+                "ERROR: Bad quantized pixel");
+    }
     /**
      @Test void writePixel() {
      ImageWriter imageWriter = new ImageWriter("testImage", 800, 500);
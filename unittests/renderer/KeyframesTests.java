@@ -0,0 +1,42 @@
+package renderer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Testing Keyframes.
+ */
+class KeyframesTests {
+
+    /**
+     * Test method for {@link Keyframes#valueAt(double)}.
+     */
+    @Test
+    void testValueAt() {
+        Keyframes keyframes = new Keyframes().add(2, 10, 0).add(0, 0, 4).add(1, 2, 2);
+
+        // ============ Equivalence Partitions Tests ==============
+        /* TC01: Between keys */
+        assertArrayEquals(new double[]{6, 1}, keyframes.valueAt(1.5), 1e-10,
+                "ERROR: Bad interpolation");
+        /* TC02: Before the first key */
+        assertArrayEquals(new double[]{0, 4}, keyframes.valueAt(-1), 1e-10,
+                "ERROR: Bad value before the first key");
+        /* TC03: After the last key */
+        assertArrayEquals(new double[]{10, 0}, keyframes.valueAt(3), 1e-10,
+                "ERROR: Bad value after the last key");
+
+        // =============== Boundary Values Tests ==================
+        /* TC11: At a key */
+        assertArrayEquals(new double[]{2, 2}, keyframes.valueAt(1), 1e-10,
+                "ERROR: Bad value at a key");
+        /* TC12: No keys */
+        assertThrows(IllegalStateException.class, () -> new Keyframes().valueAt(0),
+                "ERROR: Value without keys");
+        /* TC13: Key with another values count */
+        assertThrows(IllegalArgumentException.class, () -> keyframes.add(3, 1),
+                "ERROR: Key with another values count was added");
+    }
+}
@@ -0,0 +1,62 @@
+package renderer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Testing PixelOrder.
+ */
+class PixelOrderTests {
+
+    /**
+     * Test method for {@link PixelOrder#pixels(int, int)}.
+     */
+    @Test
+    void testPixels() {
+        for (PixelOrder order : PixelOrder.values()) {
+            /* TC01: Every pixel of an odd sized tile exactly once */
+            int[] pixels = order.pixels(7, 5);
+            boolean[] seen = new boolean[35];
+            for (int pixel : pixels) {
+                assertTrue(!seen[pixel], "ERROR: Pixel repeated in " + order);
+                seen[pixel] = true;
+            }
+            assertEquals(35, pixels.length, "ERROR: Missing pixels in " + order);
+        }
+
+        /* TC02: Hilbert steps between neighbouring pixels only */
+        int[] pixels = PixelOrder.HILBERT.pixels(16, 16);
+        for (int i = 1; i < pixels.length; i++) {
+            int dx = Math.abs(pixels[i] % 16 - pixels[i - 1] % 16);
+            int dy = Math.abs(pixels[i] / 16 - pixels[i - 1] / 16);
+            assertEquals(1, dx + dy, "ERROR: Hilbert jump at " + i);
+        }
+
+        /* TC03: Morton starts with the top left 2x2 block */
+        assertArrayEquals(new int[]{0, 1, 16, 17},
+                Arrays.copyOf(PixelOrder.MORTON.pixels(16, 16), 4), "ERROR: Wrong Morton order");
+    }
+
+    /**
+     * Test method for {@link PixelOrder#tiles(int, int, int)}.
+     */
+    @Test
+    void testTiles() {
+        /* TC01: Scanline gives whole rows */
+        assertEquals(20, PixelOrder.SCANLINE.tiles(30, 20, 8).size(), "ERROR: Wrong rows");
+
+        /* TC02: Hilbert tiles are neighbours and cover the image */
+        List<Tile> tiles = PixelOrder.HILBERT.tiles(64, 64, 8);
+        assertEquals(64, tiles.size(), "ERROR: Wrong tiles count");
+        for (int i = 1; i < tiles.size(); i++) {
+            int dx = Math.abs(tiles.get(i).getX() - tiles.get(i - 1).getX());
+            int dy = Math.abs(tiles.get(i).getY() - tiles.get(i - 1).getY());
+            assertEquals(8, dx + dy, "ERROR: Hilbert tile jump at " + i);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package renderer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Testing PngEncoder.
+ */
+class PngEncoderTests {
+
+    /**
+     * Test method for {@link PngEncoder#encode(BufferedImage, java.io.OutputStream)}.
+     * @throws IOException if encoding or decoding fails
+     */
+    @Test
+    void testEncode() throws IOException {
+        /* Tall enough for several chunks, with smooth areas and noise */
+        BufferedImage image = new BufferedImage(300, 900, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                int noise = (x * 7919 + y * 104729) * 31 & 0xFF;
+                image.setRGB(x, y, (x & 0xFF) << 16 | (y & 0xFF) << 8 | (x + y < 600 ? noise : 90));
+            }
+        }
+
+        int[] sizes = new int[2];
+        int[] levels = {0, 9};
+        for (int i = 0; i < levels.length; i++) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            new PngEncoder(levels[i]).encode(image, out);
+            sizes[i] = out.size();
+
+            /* TC01: The stream decodes to the same pixels */
+            BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(out.toByteArray()));
+            assertEquals(image.getWidth(), decoded.getWidth(), "ERROR: Wrong width");
+            assertEquals(image.getHeight(), decoded.getHeight(), "ERROR: Wrong height");
+            for (int y = 0; y < image.getHeight(); y++) {
+                for (int x = 0; x < image.getWidth(); x++) {
+                    assertEquals(image.getRGB(x, y), decoded.getRGB(x, y),
+                            "ERROR: Wrong pixel " + x + "," + y + " at level " + levels[i]);
+                }
+            }
+        }
+
+        /* TC02: Higher level makes a smaller file */
+        assertTrue(sizes[1] < sizes[0], "ERROR: Compression level was ignored");
+    }
+
+    /**
+     * Test method for {@link PngEncoder#PngEncoder(int)}.
+     */
+    @Test
+    void testConstructor() {
+        /* TC01: Level out of range */
+        assertThrows(IllegalArgumentException.class, () -> new PngEncoder(10),
+                "ERROR: Bad level was accepted");
+    }
+}
@@ -0,0 +1,84 @@
+package renderer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import geometries.Sphere;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+import scene.Scene;
+
+/**
+ * Testing RayTracerBasic.
+ */
+class RayTracerBasicTests {
+
+    private final Scene scene = new Scene("Beam scene")
+            .addGeometry(new Sphere(new Point(0, 0, -100), 50).setEmission(new Color(0, 0, 200)));
+
+    /**
+     * Beam of parallel rays over a square from (x, y) of the given size.
+     */
+    private static IntFunction<Ray> beam(int n, double x, double y, double size,
+                                         AtomicInteger made) {
+        return index -> {
+            made.incrementAndGet();
+            return new Ray(new Point(x + size * (index % n + 0.5) / n,
+                    y + size * (index / n + 0.5) / n, 0), new Vector(0, 0, -1));
+        };
+    }
+
+    /**
+     * Test method for {@link RayTracerBasic#traceBeam(int, IntFunction)}.
+     */
+    @Test
+    void testTraceBeam() {
+        RayTracerBasic adaptive = new RayTracerBasic(scene).setAdaptiveGrid(true).setMaxLevel(4);
+        RayTracerBasic full = new RayTracerBasic(scene);
+        AtomicInteger made = new AtomicInteger();
+
+        /* TC01: Flat beam traces only its corners */
+        assertEquals(new Color(0, 0, 200).getColor(),
+                adaptive.traceBeam(8, beam(8, -5, -5, 10, made)).getColor(), "ERROR: Wrong color");
+        assertEquals(4, made.get(), "ERROR: Flat beam traced more than its corners");
+
+        /* TC02: Without the adaptive grid every ray is traced */
+        made.set(0);
+        full.traceBeam(8, beam(8, -5, -5, 10, made));
+        assertEquals(64, made.get(), "ERROR: Wrong amount of rays");
+
+        /* TC03: Beam over the edge of the sphere is refined, each ray is made once */
+        made.set(0);
+        Color color = adaptive.traceBeam(8, beam(8, 45, -5, 10, made));
+        assertTrue(made.get() > 4 && made.get() <= 64, "ERROR: Wrong amount of rays " + made);
+        double blue = color.getBlue();
+        assertTrue(blue > 0 && blue < 200, "ERROR: Edge isn't anti-aliased " + blue);
+    }
+
+    /**
+     * Test method for {@link RayTracerBasic#traceRay(Ray, int)}.
+     */
+    @Test
+    void testTraceRayLevel() {
+        /* A mirror in front of the ray that reflects a glowing sphere behind it */
+        Scene mirror = new Scene("Mirror scene")
+                .addGeometry(new Sphere(new Point(0, 0, -100), 50)
+                        .setMaterial(new Material().setKr(1)))
+                .addGeometry(new Sphere(new Point(0, 0, 100), 20).setEmission(new Color(0, 0, 200)));
+        RayTracerBasic tracer = new RayTracerBasic(mirror);
+        Ray ray = new Ray(Point.ZERO, new Vector(0, 0, -1));
+
+        /* TC01: Capped recursion has only the local effects */
+        assertEquals(Color.BLACK, tracer.traceRay(ray, 1), "ERROR: Reflection wasn't capped");
+
+        /* TC02: Reflection is seen with more levels, as in the full trace */
+        assertTrue(tracer.traceRay(ray, 2).getBlue() > 0, "ERROR: Reflection is missing");
+        assertEquals(tracer.traceRay(ray), tracer.traceRay(ray, 100), "ERROR: Wrong full trace");
+    }
+}
@@ -0,0 +1,139 @@
+package renderer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+import scene.Scene;
+
+/**
+ * Testing RenderCheckpoint and the resumed render of the camera.
+ */
+class RenderCheckpointTests {
+
+    /**
+     * Tracer that counts its rays and colors them by their direction.
+     */
+    private static final class CountingTracer extends RayTracerBase {
+        private final AtomicInteger count = new AtomicInteger();
+
+        CountingTracer() {
+            this(null);
+        }
+
+        CountingTracer(String source) {
+            super(new Scene("Counting scene").setSource(source));
+        }
+
+        @Override
+        public Color traceRay(Ray ray) {
+            count.incrementAndGet();
+            return new Color(100 + 100 * ray.getDir().getX(), 100 + 100 * ray.getDir().getY(), 7);
+        }
+
+        @Override
+        public Color traceRay(List<Ray> rays) {
+            return traceRay(rays.get(0));
+        }
+    }
+
+    private Camera camera(ImageWriter imageWriter, RayTracerBase tracer) {
+        return new Camera(Point.ZERO, new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setSize(100, 100).setDistance(100)
+                .setTileSize(4).setThreadsCount(2)
+                .setRayTracer(tracer)
+                .setImageWriter(imageWriter);
+    }
+
+    /**
+     * Test method for {@link Camera#renderImage(Path)}.
+     * @throws IOException if the temporary file fails
+     */
+    @Test
+    void testResume() throws IOException {
+        Path file = Files.createTempFile("render", ".checkpoint");
+        Files.delete(file);
+        try {
+            /* A render that finished two tiles before it died */
+            ImageWriter full = new ImageWriter("checkpoint", 10, 8);
+            Camera fullCamera = camera(full, new CountingTracer()).renderImage();
+            List<Tile> tiles = PixelOrder.TILED.tiles(10, 8, 4);
+            try (RenderCheckpoint checkpoint = new RenderCheckpoint(file, 10, 8, tiles,
+                    fullCamera.checkpointView())) {
+                checkpoint.save(0, full);
+                checkpoint.save(3, full);
+            }
+
+            /* TC01: Only the tiles that weren't finished are traced */
+            CountingTracer tracer = new CountingTracer();
+            ImageWriter resumed = new ImageWriter("checkpoint", 10, 8);
+            camera(resumed, tracer).renderImage(file);
+            assertEquals(80 - tiles.get(0).getPixelsCount() - tiles.get(3).getPixelsCount(),
+                    tracer.count.get(), "ERROR: Finished tiles were traced again");
+
+            /* TC02: The resumed image is the same as the full one */
+            for (int y = 0; y < 8; y++) {
+                for (int x = 0; x < 10; x++) {
+                    assertEquals(full.getPixel(x, y), resumed.getPixel(x, y),
+                            "ERROR: Wrong pixel " + x + "," + y);
+                }
+            }
+
+            /* TC03: A finished render traces nothing */
+            CountingTracer idle = new CountingTracer();
+            camera(new ImageWriter("checkpoint", 10, 8), idle).renderImage(file);
+            assertEquals(0, idle.count.get(), "ERROR: Finished render was traced again");
+
+            /* TC04: Checkpoint of another resolution */
+            assertThrows(IllegalStateException.class,
+                    () -> camera(new ImageWriter("checkpoint", 12, 8), idle).renderImage(file),
+                    "ERROR: Checkpoint of another render was used");
+
+            /* TC05: Checkpoint of another pixel order with as many tiles */
+            assertEquals(tiles.size(), PixelOrder.HILBERT.tiles(10, 8, 4).size(),
+                    "ERROR: Orders have different tiles counts");
+            assertThrows(IllegalStateException.class,
+                    () -> camera(new ImageWriter("checkpoint", 10, 8), idle)
+                            .setPixelOrder(PixelOrder.HILBERT).renderImage(file),
+                    "ERROR: Checkpoint of another pixel order was used");
+
+            /* TC06: Checkpoint of another region with as many tiles */
+            assertThrows(IllegalStateException.class,
+                    () -> camera(new ImageWriter("checkpoint", 10, 8), idle)
+                            .setRegion(new Tile(1, 0, 9, 8)).renderImage(file),
+                    "ERROR: Checkpoint of another region was used");
+
+            /* TC07: Checkpoint of another camera position */
+            assertThrows(IllegalStateException.class,
+                    () -> new Camera(new Point(0, 0, 1), new Vector(0, 0, -1), new Vector(0, 1, 0))
+                            .setSize(100, 100).setDistance(100).setTileSize(4)
+                            .setRayTracer(idle).setImageWriter(new ImageWriter("checkpoint", 10, 8))
+                            .renderImage(file),
+                    "ERROR: Checkpoint of another camera was used");
+
+            /* TC08: Checkpoint of another view plane size */
+            assertThrows(IllegalStateException.class,
+                    () -> camera(new ImageWriter("checkpoint", 10, 8), idle).setSize(50, 100)
+                            .renderImage(file),
+                    "ERROR: Checkpoint of another view plane was used");
+
+            /* TC09: Checkpoint of another scene file */
+            assertThrows(IllegalStateException.class,
+                    () -> camera(new ImageWriter("checkpoint", 10, 8),
+                            new CountingTracer("other:1:2"))
+                            .renderImage(file),
+                    "ERROR: Checkpoint of another scene was used");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package renderer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import geometries.Sphere;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.MissingResourceException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import lighting.PointLight;
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+import primitives.Material;
+import primitives.Point;
+import primitives.Vector;
+import scene.Scene;
+import scene.SceneCache;
+
+/**
+ * Testing RenderCoordinator and RenderWorker.
+ */
+class RenderCoordinatorTests {
+
+    /**
+     * What a fake worker does with the first tile it's given before it dies.
+     */
+    private enum Death {
+        BEFORE_SENDING, WHILE_SENDING, SILENT
+    }
+
+    private final Scene scene = new Scene("Distributed scene")
+            .addGeometry(new Sphere(new Point(0, 0, -100), 50)
+                    .setEmission(new Color(0, 0, 100))
+                    .setMaterial(new Material().setKd(0.5).setKs(0.5).setShininess(30)))
+            .addLights(new PointLight(new Color(300, 200, 100), new Point(60, 60, 60)));
+
+    private Camera camera(ImageWriter imageWriter) {
+        return new Camera(new Point(0, 0, 100), new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setSize(200, 200).setDistance(100).setTileSize(4)
+                .setBeamRays(4).setSampler(Sampler.HALTON)
+                .setImageWriter(imageWriter);
+    }
+
+    private static void startWorker(int port) {
+        Thread thread = new Thread(new RenderWorker("localhost", port, 2));
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Connect a fake worker of two threads, start the render and let the fake worker take the
+     * first tiles and die.
+     * @return the render
+     */
+    private static CompletableFuture<Camera> fakeWorker(RenderCoordinator coordinator, Path file,
+                                                        Death death, Camera camera)
+            throws IOException, InterruptedException {
+        CompletableFuture<Camera> render;
+        try (Socket socket = new Socket("localhost", coordinator.getPort())) {
+            DataOutputStream output = new DataOutputStream(socket.getOutputStream());
+            output.writeInt(RenderCoordinator.MAGIC);
+            output.writeInt(2);
+            output.flush();
+            while (coordinator.getWorkersCount() == 0) {
+                Thread.sleep(10);
+            }
+            if (death == Death.SILENT) {
+                coordinator.setWorkerTimeout(Duration.ofMillis(200));
+            }
+            render = CompletableFuture.supplyAsync(() -> coordinator.render(camera, file));
+            DataInputStream input = new DataInputStream(socket.getInputStream());
+            assertEquals(file.toAbsolutePath().toString(), input.readUTF(),
+                    "ERROR: Wrong scene file");
+            input.readNBytes(16 + 8 + 12 * 8 + 8);
+            input.readUTF();
+            input.readUTF();
+            assertEquals(0, input.readInt(), "ERROR: First tile wasn't handed out");
+            if (death == Death.WHILE_SENDING) {
+                input.readNBytes(4 * 4);
+                output.writeInt(0);
+                for (int i = 0; i < 4 * 4 * 3 / 2; i++) {
+                    output.writeFloat(1);
+                }
+                output.flush();
+            }
+            while (death == Death.SILENT && coordinator.getWorkersCount() > 0) {
+                Thread.sleep(10);
+            }
+        }
+        return render;
+    }
+
+    /**
+     * Render with a worker that dies and compare to the local render.
+     */
+    private void renderWithDeath(RenderCoordinator coordinator, Path file, Death death)
+            throws Exception {
+        ImageWriter local = new ImageWriter("distributed", 14, 10);
+        camera(local).setRayTracer(new RayTracerBasic(SceneCache.load(file))).renderImage();
+
+        ImageWriter distributed = new ImageWriter("distributed", 14, 10);
+        CompletableFuture<Camera> render = fakeWorker(coordinator, file, death,
+                camera(distributed));
+        startWorker(coordinator.getPort());
+        startWorker(coordinator.getPort());
+        render.get(30, TimeUnit.SECONDS);
+
+        for (int y = 0; y < 10; y++) {
+            for (int x = 0; x < 14; x++) {
+                assertEquals(local.getPixel(x, y), distributed.getPixel(x, y),
+                        "ERROR: Wrong pixel " + x + "," + y);
+            }
+        }
+    }
+
+    /**
+     * Test method for {@link RenderCoordinator#render(Camera, Path)}.
+     * @throws Exception if the temporary file or the sockets fail
+     */
+    @Test
+    void testRender() throws Exception {
+        Path file = Files.createTempFile("scene", ".cache");
+        try (RenderCoordinator coordinator = new RenderCoordinator(0)) {
+            SceneCache.save(scene, file);
+
+            /* TC01: The tiles of a worker that died before sending them are reassigned */
+            renderWithDeath(coordinator, file, Death.BEFORE_SENDING);
+
+            /* TC02: Camera without an image writer */
+            assertThrows(MissingResourceException.class,
+                    () -> coordinator.render(camera(null), file),
+                    "ERROR: Rendered without an image writer");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Test that a worker that doesn't answer is dropped after the timeout, also when the timeout
+     * is set after the worker connected.
+     * @throws Exception if the temporary file or the sockets fail
+     */
+    @Test
+    void testWorkerTimeout() throws Exception {
+        Path file = Files.createTempFile("scene", ".cache");
+        try (RenderCoordinator coordinator = new RenderCoordinator(0)) {
+            SceneCache.save(scene, file);
+
+            /* TC01: The tiles of the silent worker are reassigned */
+            renderWithDeath(coordinator, file, Death.SILENT);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Test that a render without workers fails after the render timeout.
+     * @throws Exception if the temporary file or the sockets fail
+     */
+    @Test
+    void testRenderTimeout() throws Exception {
+        Path file = Files.createTempFile("scene", ".cache");
+        try (RenderCoordinator coordinator = new RenderCoordinator(0)) {
+            SceneCache.save(scene, file);
+            coordinator.setRenderTimeout(Duration.ofMillis(200));
+
+            /* TC01: No worker is connected */
+            assertThrows(IllegalStateException.class,
+                    () -> coordinator.render(camera(new ImageWriter("distributed", 14, 10)), file),
+                    "ERROR: Render without workers didn't fail");
+
+            /* TC02: The failed render doesn't block the next one */
+            coordinator.setRenderTimeout(Duration.ofSeconds(30));
+            startWorker(coordinator.getPort());
+            ImageWriter distributed = new ImageWriter("distributed", 14, 10);
+            coordinator.render(camera(distributed), file);
+            assertEquals(new Color(0, 0, 0), distributed.getPixel(0, 0),
+                    "ERROR: Wrong corner pixel");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Test that the workers load a scene file again when it's saved again.
+     * @throws Exception if the temporary file or the sockets fail
+     */
+    @Test
+    void testSceneChanged() throws Exception {
+        Path file = Files.createTempFile("scene", ".cache");
+        try (RenderCoordinator coordinator = new RenderCoordinator(0)) {
+            SceneCache.save(scene, file);
+            startWorker(coordinator.getPort());
+            coordinator.render(camera(new ImageWriter("distributed", 14, 10)), file);
+
+            Scene changed = new Scene("Changed scene")
+                    .addGeometry(new Sphere(new Point(0, 0, -100), 50)
+                            .setEmission(new Color(100, 0, 0)))
+                    .setBackground(new Color(0, 50, 0));
+            FileTime saved = Files.getLastModifiedTime(file);
+            SceneCache.save(changed, file);
+            /* A save a second later, on file systems with a coarse modification time */
+            Files.setLastModifiedTime(file, FileTime.fromMillis(saved.toMillis() + 1000));
+            ImageWriter local = new ImageWriter("distributed", 14, 10);
+            camera(local).setRayTracer(new RayTracerBasic(changed)).renderImage();
+            ImageWriter distributed = new ImageWriter("distributed", 14, 10);
+            coordinator.render(camera(distributed), file);
+
+            /* TC01: The changed scene is rendered */
+            for (int y = 0; y < 10; y++) {
+                for (int x = 0; x < 14; x++) {
+                    assertEquals(local.getPixel(x, y), distributed.getPixel(x, y),
+                            "ERROR: Wrong pixel " + x + "," + y);
+                }
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Test that a worker without threads is rejected.
+     * @throws IOException if the socket fails
+     */
+    @Test
+    void testHandshake() throws IOException {
+        try (RenderCoordinator coordinator = new RenderCoordinator(0);
+             Socket socket = new Socket("localhost", coordinator.getPort())) {
+            DataOutputStream output = new DataOutputStream(socket.getOutputStream());
+            output.writeInt(RenderCoordinator.MAGIC);
+            output.writeInt(0);
+            output.flush();
+
+            /* TC01: The connection is closed and the worker isn't counted */
+            assertEquals(-1, socket.getInputStream().read(), "ERROR: Worker without threads joined");
+            assertEquals(0, coordinator.getWorkersCount(), "ERROR: Worker without threads counted");
+        }
+    }
+
+    /**
+     * Test that a tile that a worker died while sending is reassigned.
+     * @throws Exception if the temporary file or the sockets fail
+     */
+    @Test
+    void testDeathWhileSending() throws Exception {
+        Path file = Files.createTempFile("scene", ".cache");
+        try (RenderCoordinator coordinator = new RenderCoordinator(0)) {
+            SceneCache.save(scene, file);
+
+            /* TC01: The half sent tile is traced again */
+            renderWithDeath(coordinator, file, Death.WHILE_SENDING);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package renderer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+import scene.Scene;
+
+/**
+ * Testing RenderHandle through Camera.renderAsync.
+ */
+class RenderHandleTests {
+
+    /**
+     * Ray tracer that takes a millisecond per pixel.
+     */
+    private static class SlowTracer extends RayTracerBase {
+        SlowTracer() {
+            super(new Scene("Slow scene"));
+        }
+
+        @Override
+        public Color traceRay(Ray ray) {
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Color.BLACK;
+        }
+
+        @Override
+        public Color traceRay(List<Ray> rays) {
+            return traceRay(rays.get(0));
+        }
+    }
+
+    private Camera camera(int resolution) {
+        return new Camera(Point.ZERO, new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setSize(100, 100).setDistance(100)
+                .setTileSize(8).setThreadsCount(1)
+                .setRayTracer(new SlowTracer())
+                .setImageWriter(new ImageWriter("handle", resolution, resolution));
+    }
+
+    /**
+     * Test method for {@link Camera#renderAsync(Duration)}.
+     */
+    @Test
+    void testRenderAsync() throws Exception {
+        /* TC01: Render without a limit completes */
+        Camera camera = camera(8);
+        RenderHandle handle = camera.renderAsync(null);
+        assertEquals(camera, handle.get(), "ERROR: Wrong camera");
+        assertEquals(100, handle.getProgress(), "ERROR: Render isn't complete");
+
+        /* TC02: Cancelled render stops between tiles */
+        handle = camera(64).renderAsync(null);
+        while (handle.getProgress() == 0) {
+            Thread.sleep(1);
+        }
+        assertTrue(handle.cancel(true), "ERROR: Running render wasn't cancelled");
+        handle.awaitTermination();
+        assertTrue(handle.isCancelled(), "ERROR: Render isn't cancelled");
+        assertTrue(handle.getProgress() < 100, "ERROR: Render wasn't stopped");
+        assertThrows(CancellationException.class, handle::get, "ERROR: Cancelled render succeeded");
+
+        /* TC03: Render stops at its deadline */
+        RenderHandle limited = camera(64).renderAsync(Duration.ofMillis(50));
+        ExecutionException error = assertThrows(ExecutionException.class, limited::get,
+                "ERROR: Render passed its deadline");
+        assertInstanceOf(TimeoutException.class, error.getCause(),
+                "ERROR: Wrong deadline error");
+        assertTrue(limited.getProgress() < 100, "ERROR: Render wasn't stopped");
+
+        /* TC04: Error of the render fails the handle */
+        RenderHandle failed = camera(8).setRayTracer(new SlowTracer() {
+            @Override
+            public Color traceRay(Ray ray) {
+                throw new AssertionError("tracer failed");
+            }
+        }).renderAsync(null);
+        error = assertThrows(ExecutionException.class, () -> failed.get(10, TimeUnit.SECONDS),
+                "ERROR: Failed render succeeded");
+        assertInstanceOf(AssertionError.class, error.getCause(), "ERROR: Wrong render error");
+    }
+}
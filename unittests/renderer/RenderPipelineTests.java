@@ -0,0 +1,89 @@
+package renderer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import geometries.Sphere;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+import primitives.Point;
+import primitives.Vector;
+import scene.Scene;
+
+/**
+ * Testing RenderPipeline.
+ */
+class RenderPipelineTests {
+
+    private final Scene scene = new Scene("Pipeline scene")
+            .addGeometry(new Sphere(new Point(0, 0, -100), 50).setEmission(new Color(0, 0, 200)));
+
+    private Camera frame(String name) {
+        return new Camera(new Point(0, 0, 100), new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setSize(200, 200)
+                .setDistance(100)
+                .setRayTracer(new RayTracerBasic(scene))
+                .setImageWriter(new ImageWriter(name, 20, 20));
+    }
+
+    /**
+     * Test method for {@link RenderPipeline#submit(Camera, java.util.function.Consumer)}.
+     */
+    @Test
+    void testSubmit() throws InterruptedException {
+        List<String> written = new CopyOnWriteArrayList<>();
+        CountDownLatch secondWritten = new CountDownLatch(1);
+        String caller = Thread.currentThread().getName();
+
+        try (RenderPipeline pipeline = new RenderPipeline(2, 2)) {
+            /* TC01: Output of the 1st frame waits until the 2nd frame is traced and written */
+            pipeline.submit(frame("first"), camera -> {
+                try {
+                    assertTrue(secondWritten.await(10, TimeUnit.SECONDS),
+                            "ERROR: 2nd frame wasn't traced while the 1st was written");
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                written.add("first");
+            });
+            pipeline.submit(frame("second"), camera -> {
+                assertNotEquals(caller, Thread.currentThread().getName(),
+                        "ERROR: Output ran on the caller");
+                written.add("second");
+                secondWritten.countDown();
+            });
+        }
+
+        /* TC02: Closing waits for all the outputs */
+        assertEquals(List.of("second", "first"), written, "ERROR: Wrong outputs");
+    }
+
+    /**
+     * Test that a failed frame completes its future exceptionally.
+     */
+    @Test
+    void testFailedFrame() {
+        try (RenderPipeline pipeline = new RenderPipeline(1, 1)) {
+            Camera broken = new Camera(new Point(0, 0, 100), new Vector(0, 0, -1),
+                    new Vector(0, 1, 0));
+            CompletableFuture<Camera> future = pipeline.submit(broken, camera -> {
+            });
+
+            /* TC01: Missing resources fail the frame */
+            assertThrows(ExecutionException.class, future::get, "ERROR: Broken frame succeeded");
+
+            /* TC02: Pipeline still renders the next frames */
+            Camera next = frame("next");
+            assertEquals(next, pipeline.submit(next, camera -> {
+            }).join(), "ERROR: Next frame failed");
+        }
+    }
+}
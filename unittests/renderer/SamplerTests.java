@@ -0,0 +1,60 @@
+package renderer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Testing Sampler.
+ */
+class SamplerTests {
+
+    /**
+     * Test method for {@link Sampler#get(int, int, int, int, int)}.
+     */
+    @Test
+    void testGet() {
+        // ============ Equivalence Partitions Tests ==============
+        /* TC01: Every sampler puts one of 16 samples in every cell of a 4x4 grid */
+        for (Sampler sampler : new Sampler[]{Sampler.REGULAR, Sampler.STRATIFIED, Sampler.SOBOL}) {
+            boolean[] cells = new boolean[16];
+            for (int index = 0; index < 16; index++) {
+                double u = sampler.get(3, 7, index, 16, 0);
+                double v = sampler.get(3, 7, index, 16, 1);
+                assertTrue(u >= 0 && u < 1 && v >= 0 && v < 1, "ERROR: " + sampler + " out of the pixel");
+                cells[(int) (v * 4) * 4 + (int) (u * 4)] = true;
+            }
+            for (boolean cell : cells) {
+                assertTrue(cell, "ERROR: " + sampler + " left an empty cell");
+            }
+        }
+
+        /* TC02: Halton puts one of 4 samples in every half of the pixel */
+        int left = 0;
+        for (int index = 0; index < 4; index++) {
+            double u = Sampler.HALTON.get(3, 7, index, 4, 0);
+            assertTrue(u >= 0 && u < 1, "ERROR: HALTON out of the pixel");
+            left += u < 0.5 ? 1 : 0;
+        }
+        assertEquals(2, left, "ERROR: HALTON isn't spread");
+
+        /* TC03: Same pixel and index give the same sample */
+        for (Sampler sampler : Sampler.values()) {
+            assertEquals(sampler.get(5, 9, 3, 16, 1), sampler.get(5, 9, 3, 16, 1),
+                    "ERROR: " + sampler + " isn't deterministic");
+        }
+
+        /* TC04: Neighbouring pixels get different samples */
+        for (Sampler sampler : new Sampler[]{Sampler.STRATIFIED, Sampler.HALTON, Sampler.SOBOL}) {
+            assertNotEquals(sampler.get(5, 9, 3, 16, 0), sampler.get(6, 9, 3, 16, 0),
+                    "ERROR: " + sampler + " repeats in every pixel");
+        }
+
+        // =============== Boundary Values Tests ==================
+        /* TC11: Regular sampler with a single sample is in the center */
+        assertEquals(0.5, Sampler.REGULAR.get(0, 0, 0, 1, 0), 0.0000001,
+                "ERROR: Single regular sample isn't centered");
+    }
+}
@@ -0,0 +1,57 @@
+package renderer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+
+/**
+ * Testing SharedCornerSampler.
+ */
+class SharedCornerSamplerTests {
+
+    /**
+     * Test method for
+     * {@link SharedCornerSampler#renderTile(Tile, AdaptiveSampler.SampleTracer, SharedCornerSampler.PixelWriter)}.
+     */
+    @Test
+    void testRenderTile() {
+        SharedCornerSampler sampler = new SharedCornerSampler(2);
+        Color[] pixels = new Color[16];
+
+        /* TC01: Flat tile traces each pixel corner once for all its pixels */
+        int traced = sampler.renderTile(new Tile(0, 0, 4, 4), (x, y, u, v) -> Color.BLUE,
+                (x, y, color) -> pixels[y * 4 + x] = color);
+        assertEquals(25, traced, "ERROR: Corners weren't shared");
+        assertEquals(Color.BLUE, pixels[5], "ERROR: Wrong flat color");
+
+        /* TC02: Pixels on an edge are divided, the others aren't */
+        AdaptiveSampler.SampleTracer edge = (x, y, u, v) ->
+                x + u < 1.3 ? Color.BLACK : new Color(255, 255, 255);
+        traced = sampler.renderTile(new Tile(0, 0, 4, 4), edge,
+                (x, y, color) -> pixels[y * 4 + x] = color);
+        assertTrue(traced > 25 && traced < 17 * 17, "ERROR: Wrong amount of samples " + traced);
+        double red = pixels[1].getRed();
+        assertTrue(red > 130 && red < 230, "ERROR: Edge pixel isn't anti-aliased " + red);
+        assertEquals(Color.BLACK, pixels[4], "ERROR: Wrong flat color");
+
+        /* TC03: Deepest sampler on a large tile traces only the corners it needs */
+        Color[] large = new Color[64 * 64];
+        traced = new SharedCornerSampler(8).renderTile(new Tile(0, 0, 64, 64), edge,
+                (x, y, color) -> large[y * 64 + x] = color);
+        assertTrue(traced < 65 * 65 + 64 * 2 * 256 * 4, "ERROR: Wrong amount of samples " + traced);
+        assertEquals(Color.BLACK, large[64 * 10], "ERROR: Wrong flat color");
+    }
+
+    /**
+     * Test method for {@link SharedCornerSampler#SharedCornerSampler(int)}.
+     */
+    @Test
+    void testConstructor() {
+        /* TC01: Negative depth */
+        assertThrows(IllegalArgumentException.class, () -> new SharedCornerSampler(-1),
+                "ERROR: Negative depth was accepted");
+    }
+}
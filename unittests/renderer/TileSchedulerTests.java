@@ -0,0 +1,62 @@
+package renderer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Testing TileScheduler and Tile.
+ */
+class TileSchedulerTests {
+
+    /**
+     * Test method for {@link Tile#split(int, int, int)}.
+     */
+    @Test
+    void testSplit() {
+        /* TC01: Size divides the resolution */
+        assertEquals(16, Tile.split(64, 64, 16).size(), "ERROR: Wrong tiles count");
+
+        /* TC02: Edge tiles are cut to the image */
+        List<Tile> tiles = Tile.split(50, 20, 16);
+        assertEquals(8, tiles.size(), "ERROR: Wrong tiles count");
+        assertEquals(2, tiles.get(3).getWidth(), "ERROR: Wrong edge tile width");
+        assertEquals(4, tiles.get(7).getHeight(), "ERROR: Wrong edge tile height");
+
+        /* TC03: Size isn't positive */
+        assertThrows(IllegalArgumentException.class, () -> Tile.split(10, 10, 0),
+                "ERROR: Zero tile size was accepted");
+    }
+
+    /**
+     * Test method for {@link TileScheduler#run(List, java.util.function.Consumer)}.
+     */
+    @Test
+    void testRun() {
+        int nX = 101;
+        int nY = 37;
+        AtomicIntegerArray visits = new AtomicIntegerArray(nX * nY);
+        try (TileScheduler scheduler = new TileScheduler(4)) {
+            /* TC01: Every pixel is rendered exactly once */
+            scheduler.run(Tile.split(nX, nY, 8), tile -> {
+                for (int y = tile.getY(); y < tile.getY() + tile.getHeight(); y++) {
+                    for (int x = tile.getX(); x < tile.getX() + tile.getWidth(); x++) {
+                        visits.incrementAndGet(y * nX + x);
+                    }
+                }
+            });
+            for (int i = 0; i < nX * nY; i++) {
+                assertEquals(1, visits.get(i), "ERROR: Pixel " + i + " wasn't rendered once");
+            }
+
+            /* TC02: An exception of a tile reaches the caller */
+            assertThrows(IllegalStateException.class, () -> scheduler.run(Tile.split(nX, nY, 8),
+                    tile -> {
+                        throw new IllegalStateException("tile");
+                    }), "ERROR: Exception was lost");
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package renderer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Vector;
+
+/**
+ * Testing ViewPlane.
+ */
+class ViewPlaneTests {
+    private final Camera camera = new Camera(new Point(1, 2, 3), new Vector(0, 0, -1),
+            new Vector(0, -1, 0)).setDistance(10).setSize(8, 6);
+
+    /**
+     * Test method for {@link ViewPlane#constructRay(int, int, double, double)}.
+     */
+    @Test
+    void testConstructRay() {
+        ViewPlane plane = camera.getViewPlane(5, 3);
+
+        /* TC01: Same rays as the camera makes */
+        for (int row = 0; row < 3; row++) {
+            for (int column = 0; column < 5; column++) {
+                assertEquals(camera.constructSampleRay(5, 3, column, row, 0.25, 0.75),
+                        plane.constructRay(column, row, 0.25, 0.75), "ERROR: Bad ray");
+            }
+        }
+    }
+
+    /**
+     * Test method for {@link ViewPlane#fillDirections(Tile, double, double, double[])}.
+     */
+    @Test
+    void testFillDirections() {
+        ViewPlane plane = camera.getViewPlane(5, 3);
+        Tile tile = new Tile(1, 1, 4, 2);
+        double[] directions = new double[24];
+        plane.fillDirections(tile, 0.5, 0.5, directions);
+
+        /* TC01: Every pixel of the tile gets the ray through its center */
+        for (int pixel = 0; pixel < 8; pixel++) {
+            assertEquals(camera.constructRay(5, 3, 1 + pixel % 4, 1 + pixel / 4),
+                    plane.constructRay(directions, pixel), "ERROR: Bad ray of pixel " + pixel);
+        }
+
+        /* TC02: Buffer too small for the tile */
+        assertThrows(IllegalArgumentException.class,
+                () -> plane.fillDirections(tile, 0.5, 0.5, new double[23]),
+                "ERROR: Small buffer was accepted");
+    }
+}
@@ -0,0 +1,106 @@
+package scene;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import geometries.Mesh;
+import geometries.Sphere;
+import org.junit.jupiter.api.Test;
+import primitives.Double3;
+import primitives.Material;
+import primitives.Point;
+
+/**
+ * Testing MaterialTable.
+ */
+class MaterialTableTests {
+
+    /**
+     * Test method for {@link MaterialTable#intern(Material)}.
+     */
+    @Test
+    void testIntern() {
+        MaterialTable table = new MaterialTable();
+        Material material = new Material().setKd(0.5).setKs(0.5).setShininess(30);
+        Material interned = table.intern(material);
+
+        /* ============ Equivalence Partitions Tests ============== */
+
+        /* TC01: Equal materials share one frozen instance */
+        assertSame(interned, table.intern(new Material().setKd(0.5).setKs(0.5).setShininess(30)),
+                "ERROR: Equal materials weren't interned");
+        assertNotSame(material, interned, "ERROR: The given material was frozen");
+        assertTrue(interned.isFrozen(), "ERROR: Interned material isn't frozen");
+        assertThrows(IllegalStateException.class, () -> interned.setKd(1),
+                "ERROR: Frozen material was changed");
+
+        /* TC02: Different material gets a new index */
+        assertEquals(1, table.indexOf(new Material().setKr(1)), "ERROR: Bad index");
+        assertEquals(2, table.size(), "ERROR: Bad table size");
+    }
+
+    /**
+     * Test method for {@link Material#isReflective()}, {@link Material#isTransparent()} and
+     * {@link Material#hasSpecular()}.
+     */
+    @Test
+    void testFlags() {
+        Material diffuse = new Material().setKd(0.5).freeze();
+        Material glass = new Material().setKs(0.2).setKt(0.7).setKr(0.1).freeze();
+
+        /* TC01: Pure diffuse material */
+        assertFalse(diffuse.isReflective() || diffuse.isTransparent() || diffuse.hasSpecular(),
+                "ERROR: Diffuse material has flags");
+
+        /* TC02: Glass material */
+        assertTrue(glass.isReflective() && glass.isTransparent() && glass.hasSpecular(),
+                "ERROR: Glass material flags are missing");
+    }
+
+    /**
+     * Test method for {@link Scene#internMaterials()}.
+     */
+    @Test
+    void testInternScene() {
+        Scene scene = new Scene("Materials scene");
+        Material material = new Material().setKd(0.5);
+        Sphere sphere1 = new Sphere(new Point(0, 0, 0), 1);
+        Sphere sphere2 = new Sphere(new Point(5, 0, 0), 1);
+        sphere1.setMaterial(material);
+        sphere2.setMaterial(new Material().setKd(0.5));
+        Material[] palette = {new Material().setKd(0.5)};
+        Material paletteMaterial = palette[0];
+        Mesh mesh = new Mesh(new double[]{0, 0, 0, 1, 0, 0, 0, 1, 0}, new int[]{0, 1, 2})
+                .setMaterials(palette, new short[]{0});
+        scene.geometries.add(sphere1, sphere2, mesh);
+        scene.internMaterials();
+
+        /* TC01: All the geometries share one material */
+        assertSame(sphere1.getMaterial(), sphere2.getMaterial(), "ERROR: Materials aren't shared");
+        assertSame(sphere1.getMaterial(), mesh.getMaterial(0), "ERROR: Mesh palette isn't shared");
+        assertEquals(2, scene.materials.size(), "ERROR: Bad table size");
+
+        /* TC02: The palette array of the caller isn't changed */
+        assertSame(paletteMaterial, palette[0], "ERROR: Palette of the caller was changed");
+    }
+
+    /**
+     * Test method for the getters of {@link Material}.
+     */
+    @Test
+    void testGetters() {
+        Material material = new Material().setKd(0.5).setKs(0.25).setKt(0.1).setKr(0.2)
+                .setShininess(30).freeze();
+
+        /* TC01: Frozen material keeps its coefficients */
+        assertEquals(new Double3(0.5), material.getKd(), "ERROR: Bad kD");
+        assertEquals(new Double3(0.25), material.getKs(), "ERROR: Bad kS");
+        assertEquals(new Double3(0.1), material.getKt(), "ERROR: Bad kT");
+        assertEquals(new Double3(0.2), material.getKr(), "ERROR: Bad kR");
+        assertEquals(30, material.getShininess(), "ERROR: Bad shininess");
+    }
+}
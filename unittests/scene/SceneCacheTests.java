@@ -0,0 +1,123 @@
+package scene;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import geometries.Cylinder;
+import geometries.Mesh;
+import geometries.Plane;
+import geometries.Polygon;
+import geometries.Sphere;
+import geometries.Storage;
+import geometries.Triangle;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import lighting.AmbientLight;
+import lighting.DirectionalLight;
+import lighting.PointLight;
+import lighting.SpotLight;
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+import primitives.Double3;
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+/**
+ * Testing SceneCache.
+ */
+class SceneCacheTests {
+
+    private Scene createScene() {
+        Material material = new Material().setKd(0.5).setKs(0.5).setShininess(30).setKt(0.2);
+        Scene scene = new Scene("Cache scene")
+                .setBackground(new Color(10, 20, 30))
+                .setAmbientLight(new AmbientLight(new Color(255, 255, 255), new Double3(0.1)));
+        scene.geometries.add(
+                new Sphere(new Point(0, 0, -50), 20).setEmission(new Color(0, 0, 255)).setMaterial(material),
+                new Plane(new Point(0, 0, -200), new Vector(0, 0, 1)).setMaterial(material),
+                new Triangle(new Point(-50, -50, -100), new Point(50, -50, -100), new Point(0, 50, -100)),
+                new Polygon(new Point(60, 60, -90), new Point(90, 60, -90), new Point(90, 90, -90),
+                        new Point(60, 90, -90)),
+                new Cylinder(5, new Ray(new Point(-70, -70, -120), new Vector(0, 0, 1)), 30),
+                new Mesh(new double[]{100, 0, -80, 120, 0, -80, 100, 20, -80}, new int[]{0, 1, 2},
+                        Storage.OFF_HEAP).setMaterials(new Material[]{material}, new short[]{0}));
+        scene.addLights(new DirectionalLight(new Color(100, 100, 100), new Vector(0, 0, -1)),
+                new PointLight(new Color(200, 0, 0), new Point(10, 10, 10)).setKl(0.001),
+                new SpotLight(new Color(0, 200, 0), new Point(-10, 10, 10), new Vector(0, 0, -1))
+                        .setKq(0.0001));
+        return scene;
+    }
+
+    /**
+     * Test method for {@link SceneCache#save(Scene, Path)} and {@link SceneCache#load(Path)}.
+     */
+    @Test
+    void testSaveAndLoad() throws IOException {
+        Path file = Files.createTempFile("scene", ".cache");
+        try {
+            Scene scene = createScene();
+            SceneCache.save(scene, file);
+            Scene loaded = SceneCache.load(file);
+
+            /* TC01: Same scene settings */
+            assertEquals(scene.name, loaded.name, "ERROR: Bad name");
+            assertEquals(scene.lights.size(), loaded.lights.size(), "ERROR: Bad lights");
+            assertEquals(scene.geometries.getGeometries().size(),
+                    loaded.geometries.getGeometries().size(), "ERROR: Bad geometries");
+
+            /* TC02: Rays hit the same points */
+            for (Ray ray : List.of(new Ray(Point.ZERO, new Vector(0, 0, -1)),
+                    new Ray(Point.ZERO, new Vector(-70, -70, -110)),
+                    new Ray(Point.ZERO, new Vector(75, 75, -90)),
+                    new Ray(Point.ZERO, new Vector(105, 5, -80)))) {
+                assertEquals(ray.findClosestPoint(scene.geometries.findIntersections(ray)),
+                        ray.findClosestPoint(loaded.geometries.findIntersections(ray)),
+                        "ERROR: Bad intersection for " + ray);
+            }
+
+            /* TC03: Mesh keeps its per triangle materials */
+            Mesh mesh = (Mesh) loaded.geometries.getGeometries().get(5);
+            assertEquals(new Material().setKd(0.5).setKs(0.5).setShininess(30).setKt(0.2),
+                    mesh.getMaterial(0), "ERROR: Bad mesh material");
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Test method for {@link SceneCache#load(Path)}.
+     */
+    @Test
+    void testLoadBadFile() throws IOException {
+        Path file = Files.createTempFile("scene", ".cache");
+        try {
+            Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+
+            /* TC01: Not a cache file */
+            assertThrows(IllegalArgumentException.class, () -> SceneCache.load(file),
+                    "ERROR: Bad file was loaded");
+
+            /* TC02: Cache file of an older version */
+            Files.write(file, ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN)
+                    .putInt(0x53434E31).putInt(1).array());
+            assertThrows(IllegalArgumentException.class, () -> SceneCache.load(file),
+                    "ERROR: Old file was loaded");
+
+            /* TC03: Truncated cache file */
+            SceneCache.save(createScene(), file);
+            byte[] bytes = Files.readAllBytes(file);
+            Files.write(file, Arrays.copyOf(bytes, bytes.length / 2));
+            assertThrows(IllegalArgumentException.class, () -> SceneCache.load(file),
+                    "ERROR: Truncated file was loaded");
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
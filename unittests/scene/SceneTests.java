@@ -0,0 +1,129 @@
+package scene;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import geometries.Geometries;
+import geometries.Mesh;
+import geometries.Plane;
+import geometries.Sphere;
+import geometries.Triangle;
+import java.util.MissingResourceException;
+import lighting.LightSource;
+import lighting.PointLight;
+import lighting.SpotLight;
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+import primitives.Double3;
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+/**
+ * Testing Scene.
+ */
+class SceneTests {
+
+    /**
+     * Test method for {@link Scene#prepare()}.
+     */
+    @Test
+    void testPrepare() {
+        Scene scene = new Scene("prepare")
+                .addGeometry(new Plane(new Point(0, 0, -10), new Vector(0, 0, 1)))
+                .addGeometry(new Geometries(
+                        new Sphere(new Point(0, 0, 0), 1),
+                        new Triangle(new Point(-1, -1, 5), new Point(1, -1, 5), new Point(0, 1, 5))))
+                .addLights(new PointLight(new Color(100, 100, 100), new Point(0, 0, 20)));
+        PreparedScene prepared = scene.prepare();
+
+        /* TC01: Nested geometries are flattened, the plane isn't bounded */
+        assertEquals(2, prepared.geometries.getBoundedCount(), "ERROR: Wrong bounded count");
+        assertEquals(1, prepared.geometries.getUnboundedCount(), "ERROR: Wrong unbounded count");
+
+        /* TC02: Same hits as the geometries tree */
+        Ray ray = new Ray(new Point(0, 0, 10), new Vector(0, 0, -1));
+        assertEquals(scene.geometries.findGeoIntersections(ray).size(),
+                prepared.geometries.findGeoIntersections(ray).size(), "ERROR: Wrong hits");
+        assertNull(prepared.geometries.findGeoIntersections(
+                new Ray(new Point(5, 5, 10), new Vector(0, 1, 0))), "ERROR: Ray misses all");
+
+        /* TC03: Later changes to the scene don't change the prepared scene */
+        scene.addGeometry(new Sphere(new Point(0, 0, 8), 1));
+        assertEquals(4, prepared.geometries.findGeoIntersections(ray).size(),
+                "ERROR: Prepared scene was changed");
+        assertEquals(1, prepared.lights.size(), "ERROR: Wrong lights");
+
+        /* TC04: Missing resource */
+        scene.background = null;
+        assertThrows(MissingResourceException.class, scene::prepare,
+                "ERROR: Scene without background was prepared");
+
+        /* TC05: Closed mesh */
+        Mesh mesh = new Mesh(new double[]{0, 0, 0, 1, 0, 0, 0, 1, 0}, new int[]{0, 1, 2});
+        mesh.close();
+        assertThrows(IllegalStateException.class,
+                () -> new Scene("closed").addGeometry(mesh).prepare(),
+                "ERROR: Closed mesh was prepared");
+    }
+
+    /**
+     * Test method for {@link Scene#prepare()} with materials changed afterwards.
+     */
+    @Test
+    void testPrepareKeepsMaterials() {
+        Material material = new Material().setKd(0.5);
+        Sphere sphere = new Sphere(new Point(0, 0, 0), 1);
+        sphere.setMaterial(material);
+        Scene scene = new Scene("materials").addGeometry(sphere);
+        PreparedScene prepared = scene.prepare();
+        Ray ray = new Ray(new Point(0, 0, 10), new Vector(0, 0, -1));
+
+        /* TC01: The scene materials aren't frozen by the preparation */
+        assertFalse(material.isFrozen(), "ERROR: Scene material was frozen");
+        assertDoesNotThrow(() -> sphere.getMaterial().setKd(1), "ERROR: Scene material can't be changed");
+
+        /* TC02: The prepared scene keeps the material as it was prepared */
+        Material traced = prepared.getMaterial(prepared.geometries.findGeoIntersections(ray).get(0));
+        assertEquals(new Double3(0.5), traced.getKd(), "ERROR: Prepared material was changed");
+        assertEquals(1, prepared.materials.size(), "ERROR: Wrong prepared materials");
+
+        /* TC03: Preparing again sees the change and doesn't grow the previous table */
+        PreparedScene again = scene.prepare();
+        assertEquals(new Double3(1), again.getMaterial(again.geometries.findGeoIntersections(ray).get(0))
+                .getKd(), "ERROR: Change wasn't prepared");
+        assertEquals(1, prepared.materials.size(), "ERROR: Prepared table was changed");
+    }
+
+    /**
+     * Test method for {@link Scene#prepare()} with lights changed afterwards.
+     */
+    @Test
+    void testPrepareKeepsLights() {
+        PointLight point = new PointLight(new Color(100, 100, 100), new Point(0, 0, 10));
+        SpotLight spot = new SpotLight(new Color(100, 100, 100), new Point(0, 0, 10),
+                new Vector(0, 0, -1));
+        Scene scene = new Scene("lights").addLights(point, spot);
+        PreparedScene prepared = scene.prepare();
+        point.setKl(1);
+        spot.setKq(1);
+
+        /* TC01: The prepared lights keep the factors they were prepared with */
+        Point target = new Point(0, 0, 0);
+        assertEquals(new Color(100, 100, 100), prepared.lights.get(0).getIntensity(target),
+                "ERROR: Prepared point light was changed");
+        LightSource preparedSpot = prepared.lights.get(1);
+        assertInstanceOf(SpotLight.class, preparedSpot, "ERROR: Spot light wasn't kept");
+        assertEquals(new Color(100, 100, 100), preparedSpot.getIntensity(target),
+                "ERROR: Prepared spot light was changed");
+
+        /* TC02: The scene lights see the change */
+        assertEquals(new Color(100, 100, 100).reduce(11), point.getIntensity(target),
+                "ERROR: Scene light wasn't changed");
+    }
+}